@@ -17,6 +17,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayCache;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayService;
+import org.stevie.ddsm.diaries.service.bank.FetchBankHolidaysTask;
+import org.stevie.ddsm.diaries.service.bank.HolidayFetchExecutor;
+import org.stevie.ddsm.diaries.service.bank.ReactiveBankHolidayService;
+import org.stevie.ddsm.diaries.service.diary.DiaryGenerationService;
 
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -77,14 +83,27 @@ public class DiaryApplicationFX extends Application {
 	 * Application Stop Method
 	 * 
 	 * This method is invoked when the Application is being shut down. This is when the
-	 * last window has been closed. It shuts down the application context in an orderly way making sure
-	 * all spring beans are deleted.
+	 * last window has been closed. The bank holiday executor is shut down first so that any
+	 * fetches still running are given a chance to finish, then any bank holidays still waiting
+	 * to be written to disk are written. It then shuts down the application
+	 * context in an orderly way making sure all spring beans are deleted.
 	 * 
 	 * @since 1.0
 	 */
 	@Override
 	public void stop() {
 		logger.info("Diary application stopped");
+		logger.info("{}", BankHolidayCache.getStatistics());
+		logger.info("{}", ReactiveBankHolidayService.getFetchStatistics());
+		/*
+		 * only report the REST client if one was used, asking for it would create one
+		 */
+		var client = FetchBankHolidaysTask.peekClient();
+		if (client != null) logger.info("{}", client.getRequestStatistics());
+		BankHolidayService.getSourceStatistics().forEach(statistics -> logger.info("{}", statistics));
+		logger.info("{}", DiaryGenerationService.getGenerationCacheStatistics());
+		applicationContext.getBean(HolidayFetchExecutor.class).close();
+		BankHolidayCache.flushDiskWrites();
 		applicationContext.close();
 		Platform.exit();
 	}
@@ -19,8 +19,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -36,7 +34,9 @@ import org.stevie.ddsm.diaries.result.ResultStatus;
 import org.stevie.ddsm.diaries.result.ResultWrapper;
 import org.stevie.ddsm.diaries.service.bank.BankHoliday;
 import org.stevie.ddsm.diaries.service.bank.BankHolidayCache;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayService;
 import org.stevie.ddsm.diaries.service.bank.FetchBankHolidaysTask;
+import org.stevie.ddsm.diaries.service.bank.HolidayRegion;
 import org.stevie.ddsm.diaries.service.internet.InternetService;
 
 import javafx.application.Platform;
@@ -223,11 +223,10 @@ public class BankHolidayDialogController implements Initializable {
 			logger.error("Bank holiday task failed while trying to retrieve bank holidays for year {} ", this.currentYear);
 		});
 		/*
-		 * submit the task for execution
+		 * submit the task to the shared holiday executor. This returns immediately so the
+		 * JavaFX Application Thread is not blocked while the bank holidays are fetched.
 		 */
-		try (ExecutorService executor = Executors.newCachedThreadPool()) {
-			executor.submit(task);
-		}
+		BankHolidayService.getFetchExecutor().execute(task);
 		
 	}
 	
@@ -317,8 +316,9 @@ public class BankHolidayDialogController implements Initializable {
 	 * Import From File Button
 	 * Event Handler
 	 * 
-	 * This method imports bank holidays from a text file. It uses
-	 * the standard open file dialog using the {@link FileChooser} abstraction.
+	 * This method imports bank holidays from a text file, or every year in a copy of the
+	 * gov.uk bank holidays file. It uses the standard open file dialog using the
+	 * {@link FileChooser} abstraction.
 	 * 
 	 * @param button click event
 	 * @since 1.0
@@ -341,6 +341,13 @@ public class BankHolidayDialogController implements Initializable {
     	 * create a bank holiday file wrapper
     	 */
     	BankHolidayFile bankHolidayFile = BankHolidayFile.of(path);
+    	/*
+    	 * a json file is a copy of the gov.uk document covering every year
+    	 */
+    	if (bankHolidayFile.isJsonFile()) {
+    		importGovUkFile(bankHolidayFile);
+    		return;
+    	}
     	/*
     	 * check file is a text file
     	 */
@@ -352,7 +359,7 @@ public class BankHolidayDialogController implements Initializable {
 			var alert = new Alert(AlertType.WARNING);
 			alert.setTitle("Import File");
 			alert.setHeaderText("File Extension Warning");
-			alert.setContentText("Please make sure the file you choose is a text file (*.txt)");
+			alert.setContentText("Please make sure the file you choose is a text file (*.txt) or a gov.uk bank holidays file (*.json)");
 			alert.showAndWait();
 			return;
     	}     	
@@ -409,6 +416,53 @@ public class BankHolidayDialogController implements Initializable {
     	}
     }
 
+    /**
+     * Import Gov.uk File Method
+     * 
+     * This method is small chunk of the file import facility. It imports a copy of the gov.uk
+     * bank holidays document which puts every year it covers in the cache, then shows the
+     * bank holidays for the active year in the table view.
+     * 
+     * @param file selected by the user
+     * @since 1.0
+     */
+    private void importGovUkFile(BankHolidayFile bankHolidayFile) {
+    	/*
+    	 * stream the file into the cache
+    	 */
+    	var importResult = bankHolidayFile.importGovUkFile();
+    	if (importResult.getStatus() == ResultStatus.FAILED_WITH_EXCEPTION) {
+    		/*
+    		 * the file could not be read or is not a gov.uk document so display an error
+    		 * message to the user then drop everything and return
+    		 */
+    		logger.error("An exception occured while trying to import the file {} {}", bankHolidayFile.getFilePath(), importResult.getException().get());
+			var alert = new Alert(AlertType.ERROR);
+			alert.setTitle("Import File");
+			alert.setHeaderText("File Validation Error");
+			alert.setContentText("Please make sure the file is a copy of the gov.uk bank holidays file. See log file for details!");
+			alert.showAndWait();
+			return;
+    	}
+    	var years = importResult.getResult();
+    	/*
+    	 * update the table view model with the active year if the file covers it
+    	 */
+    	var bankHolidays = years.getOrDefault(this.currentYear, List.of()).stream()
+    			.filter(bh -> bh.isObservedIn(HolidayRegion.ENGLAND))
+    			.toList();
+    	bankHolidayTableView.setItems(FXCollections.observableArrayList(bankHolidays));
+    	/*
+    	 * tell the user which years were imported
+    	 */
+    	var info = new Alert(AlertType.INFORMATION);
+    	info.setTitle("Import File");
+    	info.setHeaderText("Import gov.uk Bank Holidays");
+    	info.setContentText(years.isEmpty() ? "The file does not contain any bank holidays"
+    			: String.format("Bank holidays for %d to %d were written to the cache", years.firstKey(), years.lastKey()));
+    	info.showAndWait();
+    }
+
     /**
      * Display Open File Chooser
      * 
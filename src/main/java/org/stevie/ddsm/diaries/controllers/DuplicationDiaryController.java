@@ -14,11 +14,21 @@ import java.net.URL;
 import java.util.List;
 import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.stevie.ddsm.diaries.domain.DiaryChangeSet;
+import org.stevie.ddsm.diaries.domain.DuplicationDiary;
 import org.stevie.ddsm.diaries.domain.DuplicationDiaryEntry;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayCache;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayChange;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayService;
+import org.stevie.ddsm.diaries.service.bank.BankHolidaysUnavailableException;
 import org.stevie.ddsm.diaries.service.month.MonthService;
 
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -35,6 +45,10 @@ import javafx.scene.control.TableView;
  */
 @Component
 public final class DuplicationDiaryController implements Initializable {
+	/*
+	 * logging
+	 */
+	private static Logger logger = LoggerFactory.getLogger(DuplicationDiaryController.class);
 	/*
 	 * JavaFX controls
 	 */
@@ -50,6 +64,11 @@ public final class DuplicationDiaryController implements Initializable {
     private TableColumn<DuplicationDiaryEntry, String> monthColumn;
     @FXML
     private TableColumn<DuplicationDiaryEntry, String> wednesdayColumn;
+    
+    /*
+     * listener keeping the table up to date while the dialog is open
+     */
+    private Consumer<BankHolidayChange> changeListener;
 
     /**
  	 * Initialise Controller
@@ -136,6 +155,69 @@ public final class DuplicationDiaryController implements Initializable {
 		diaryTableView.setItems(diaryItems);
 	}
 	
+	/**
+	 * Watch Method
+	 * 
+	 * Keep the table up to date while the dialog is open. When the bank holidays of the diary
+	 * year change, the new dates of the months which depended on a changed date are looked up
+	 * on the holiday fetch executor, then swapped in on the JavaFX application thread and only
+	 * their rows are replaced. Call {@link #unwatch()} when the
+	 * dialog closes.
+	 * 
+	 * @param diary shown in the dialog, regenerated in place so it must not be shared
+	 * @since 1.0
+	 */
+	public void watch(DuplicationDiary diary) {
+		Objects.requireNonNull(diary);
+		unwatch();
+		changeListener = change -> {
+			if (change.year() != diary.getYear()) return;
+			/*
+			 * look the new dates up on the holiday fetch executor, only the swap runs on the
+			 * JavaFX application thread
+			 */
+			var changedDates = change.changedDates();
+			BankHolidayService.getFetchExecutor().execute(() -> {
+				try {
+					var resolved = diary.resolve(changedDates);
+					Platform.runLater(() -> applyChanges(diary.apply(resolved)));
+				} catch (BankHolidaysUnavailableException e) {
+					logger.error("Diary for {} could not be regenerated - {}", diary.getYear(), e.getMessage());
+				}
+			});
+		};
+		BankHolidayCache.addChangeListener(changeListener);
+	}
+
+	/**
+	 * Unwatch Method
+	 * 
+	 * Stop following bank holiday changes.
+	 * 
+	 * @since 1.0
+	 */
+	public void unwatch() {
+		if (changeListener != null) {
+			BankHolidayCache.removeChangeListener(changeListener);
+			changeListener = null;
+		}
+	}
+
+	/**
+	 * Apply Changes Method
+	 * 
+	 * Replace the rows of the months which changed.
+	 * 
+	 * @param changed entries
+	 * @since 1.0
+	 */
+	private void applyChanges(DiaryChangeSet<DuplicationDiaryEntry> changes) {
+		var items = diaryTableView.getItems();
+		for (var entry : changes.entries()) {
+			items.set(entry.month().ordinal(), entry);
+		}
+	}
+	
 	/**
 	 * Set Diary Year Method
 	 * 
@@ -20,11 +20,16 @@ import java.util.ResourceBundle;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.stevie.ddsm.diaries.domain.DiarySettings;
 import org.stevie.ddsm.diaries.domain.DuplicationDiary;
 import org.stevie.ddsm.diaries.domain.RecordingDiary;
 import org.stevie.ddsm.diaries.messages.ErrorMessages;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayPrefetchTask;
 import org.stevie.ddsm.diaries.service.bank.BankHolidayService;
+import org.stevie.ddsm.diaries.service.bank.BankHolidaysUnavailableException;
+import org.stevie.ddsm.diaries.service.diary.DiaryGenerationService;
 import org.stevie.ddsm.diaries.service.internet.InternetStatusService;
 
 import javafx.application.Platform;
@@ -43,6 +48,7 @@ import javafx.scene.control.DatePicker;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.DialogPane;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Tooltip;
 import javafx.util.Duration;
@@ -82,6 +88,16 @@ public class MainFormController  implements Initializable {
 	private Button bankHolidaysButton;
 	@FXML
 	private Label internetConnectionLabel;
+	@FXML
+	private Label bankHolidayPrefetchLabel;
+	@FXML
+	private ProgressBar bankHolidayPrefetchProgressBar;
+
+	/*
+	 * number of years the bank holiday prefetch loads at the same time
+	 */
+	@Value("${ddsm.holidays.prefetch.max-concurrency:2}")
+	private int prefetchConcurrency;
 
 	/*
 	 * active year
@@ -103,6 +119,7 @@ public class MainFormController  implements Initializable {
 		configureJanuaryDatePicker();
 		configureMagazineEditionTextField();
 		configureInternetStatusChecker();
+		configureBankHolidayPrefetch();
 	}
 
 	/**
@@ -260,6 +277,55 @@ public class MainFormController  implements Initializable {
 		service.start();
 	}
 
+	/**
+	 * Configure Bank Holiday Prefetch
+	 * 
+	 * The first time a year is used the bank holidays have to be fetched, which would happen
+	 * while the form is validated on the JavaFX Application Thread. A background task loads the 
+	 * bank holidays for every year in the year choice box when the form is first displayed. Its 
+	 * progress is shown on the main form.
+	 * 
+	 * @since 1.0
+	 */
+	private void configureBankHolidayPrefetch() {
+		
+		/*
+		 * prefetch every year the user can select
+		 */
+		var years = diaryYearChoiceBox.getItems();
+		var task = new BankHolidayPrefetchTask(years.get(0), years.get(years.size() - 1), prefetchConcurrency);
+		
+		/*
+		 * bind the progress controls to the task
+		 */
+		bankHolidayPrefetchLabel.textProperty().bind(task.messageProperty());
+		bankHolidayPrefetchProgressBar.progressProperty().bind(task.progressProperty());
+		
+		/*
+		 * hide the progress bar when the task has finished
+		 */
+		task.setOnSucceeded(e -> bankHolidayPrefetchProgressBar.setVisible(false));
+		
+		/*
+		 * task failed, the years are loaded on demand instead
+		 */
+		task.setOnFailed(e -> {
+			logger.error("Bank holiday prefetch failed with exception {}", task.getException());
+			bankHolidayPrefetchLabel.textProperty().unbind();
+			bankHolidayPrefetchLabel.setText("Bank holidays will be loaded when needed");
+			bankHolidayPrefetchProgressBar.setVisible(false);
+		});
+		
+		/*
+		 * start the task on a daemon thread. It only counts results, the years themselves are
+		 * resolved as background work on the holiday fetch executor
+		 */
+		var thread = new Thread(task, "holiday-prefetch-coordinator");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.start();
+	}
+
 	/**
 	 * Create Year List Method
 	 * 
@@ -299,24 +365,11 @@ public class MainFormController  implements Initializable {
 		if (!validateForm()) return;
 
 		/*
-		 * create recording rota model using builder pattern
-		 */
-		var recordingDiary = new RecordingDiary.RecordingDiaryBuilder()
-				.edition(Integer.valueOf(magazineEditionTextField.getText()))
-				.januaryEdition(januaryEditionDatePicker.getValue())
-				.compiler_1(compiler_1TextField.getText())
-				.compiler_2(compiler_2TextField.getText())
-				.build();
-
-		/*
-		 * must call this before generating the diary
-		 */
-		recordingDiary.setYear(this.currentYear);
-
-		/*
-		 * generate recording diary entries
+		 * generate the diaries, or reuse the ones already generated from the same
+		 * inputs and bank holidays. The dialog regenerates its diary when the bank
+		 * holidays change so it is given a copy rather than the shared diary.
 		 */
-		recordingDiary.generateDiary();
+		var recordingDiary = DiaryGenerationService.generateCached(diarySettings()).recording().copy();
 		
 		/*
 		 * display dialog
@@ -325,6 +378,22 @@ public class MainFormController  implements Initializable {
 		
 	}
 
+	/**
+	 * Diary Settings Method
+	 * 
+	 * Collect the form inputs the diaries are generated from. The form must have
+	 * been validated first.
+	 * 
+	 * @return diary settings
+	 * @since 1.0
+	 */
+	private DiarySettings diarySettings() {
+		return new DiarySettings(januaryEditionDatePicker.getValue(),
+				Integer.valueOf(magazineEditionTextField.getText()),
+				compiler_1TextField.getText(),
+				compiler_2TextField.getText());
+	}
+
 	/**
 	 * 
 	 * Display Recording Rota Dialog Method
@@ -353,6 +422,7 @@ public class MainFormController  implements Initializable {
 			RecordingDiaryController controller = loader.getController();
 			controller.setDiaryItems(recordingDiary.getEntries());
 			controller.setYear(recordingDiary.getYear());
+			controller.watch(recordingDiary);
 			/*
 			 * create dialog wrapper and set title and pane root
 			 */
@@ -360,9 +430,10 @@ public class MainFormController  implements Initializable {
 			dialog.setTitle("Recording Rota");
 			dialog.setDialogPane(pane);
 			/*
-			 * display dialog
+			 * display dialog, the rows follow bank holiday changes until it is closed
 			 */
 			dialog.showAndWait();
+			controller.unwatch();
 			
 		} catch (IOException e) {
 			/*
@@ -401,43 +472,12 @@ public class MainFormController  implements Initializable {
 		if (!validateForm()) return;
 		
 		/*
-		 * The duplication rota has a dependency on the recording rota.
-		 * create recording rota model using builder pattern to use as a dependency
-		 * when generating the duplication rota.
+		 * The duplication rota has a dependency on the recording rota. Both are
+		 * generated together, so showing the duplication rota after the recording
+		 * rota for the same inputs is a cache lookup. The dialog is given a copy with
+		 * its own recording diary as it regenerates both when the bank holidays change.
 		 */
-		var recordingDiary = new RecordingDiary.RecordingDiaryBuilder()
-				.edition(Integer.valueOf(magazineEditionTextField.getText()))
-				.januaryEdition(januaryEditionDatePicker.getValue())
-				.compiler_1(compiler_1TextField.getText())
-				.compiler_2(compiler_2TextField.getText())
-				.build();
-		
-		/*
-		 * must call this before generating the diary
-		 */
-		recordingDiary.setYear(this.currentYear);
-		
-		/*
-		 * generate recording diary entries
-		 */
-		recordingDiary.generateDiary();
-		
-		/*
-		 * create duplication rota model using builder pattern
-		 */
-		var duplicationDiary = new DuplicationDiary.DuplicationDiaryBuilder()
-				.recordingDiary(recordingDiary)
-				.build();
-		
-		/*
-		 * must call this before generating the diary
-		 */
-		duplicationDiary.setYear(this.currentYear);
-		
-		/*
-		 * generate duplication diary entries
-		 */
-		duplicationDiary.generateDiary();
+		var duplicationDiary = DiaryGenerationService.generateCached(diarySettings()).duplication().copy();
 		
 		/*
 		 * display dialog
@@ -473,6 +513,7 @@ public class MainFormController  implements Initializable {
 			DuplicationDiaryController controller = loader.getController();
 			controller.setDiaryItems(duplicationDiary.getEntries());
 			controller.setYear(duplicationDiary.getYear());
+			controller.watch(duplicationDiary);
 
 			/*
 			 * create dialog wrapper and set title and pane root
@@ -482,9 +523,10 @@ public class MainFormController  implements Initializable {
 			dialog.setDialogPane(pane);
 			
 			/*
-			 * display dialog
+			 * display dialog, the rows follow bank holiday changes until it is closed
 			 */
 			dialog.showAndWait();
+			controller.unwatch();
 		} catch (IOException e) {
 			/*
 			 * if there is an exception during fxml parsing, log an error message
@@ -671,13 +713,24 @@ public class MainFormController  implements Initializable {
 		}
 		
 		/*
-		 * make sure january date is not a bank holiday
+		 * make sure january date is not a bank holiday. If the bank holidays for the year could 
+		 * not be loaded the rota cannot be generated so ask the user to input them.
 		 */
-		if (BankHolidayService.isBankHoliday(date)) {
+		try {
+			if (BankHolidayService.isBankHoliday(date)) {
+				var alert = new Alert(AlertType.ERROR);
+				alert.setTitle(ErrorMessages.MAIN_FORM_ERROR);
+				alert.setHeaderText(ErrorMessages.MAIN_FORM_VALIDATION_ERROR);
+				alert.setContentText(String.format("The selected date is a bank holiday"));
+				alert.showAndWait();
+				return false;
+			}
+		} catch (BankHolidaysUnavailableException e) {
+			logger.error("Form validation failed - {}", e.getMessage());
 			var alert = new Alert(AlertType.ERROR);
 			alert.setTitle(ErrorMessages.MAIN_FORM_ERROR);
-			alert.setHeaderText(ErrorMessages.MAIN_FORM_VALIDATION_ERROR);
-			alert.setContentText(String.format("The selected date is a bank holiday"));
+			alert.setHeaderText(ErrorMessages.BANK_HOLIDAYS_UNAVAILABLE);
+			alert.setContentText(String.format("The bank holidays for %d could not be retrieved. Please use the Bank Holidays button to input them manually or import them from a file.", e.getYear()));
 			alert.showAndWait();
 			return false;
 		}
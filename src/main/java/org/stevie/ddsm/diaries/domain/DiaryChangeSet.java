@@ -0,0 +1,43 @@
+/**
+ * <h3>Diary Change Set Record</h3>
+ * 
+ * <p>The entries of a diary which changed when it was regenerated after the bank holidays of its
+ * year changed. Only the months which depended on a changed date are recomputed, so a view
+ * showing the diary can replace just these rows. Each entry replaces the entry for the same
+ * month.</p>
+ * 
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.domain;
+
+import java.util.List;
+
+/**
+ * Diary Change Set Record
+ * 
+ * @param <T> type of the diary entries
+ * @param year of the diary
+ * @param entries which changed in month order, empty if nothing changed
+ */
+public record DiaryChangeSet<T>(int year, List<T> entries) {
+
+	/**
+	 * Compact Constructor
+	 * 
+	 * @since 1.0
+	 */
+	public DiaryChangeSet {
+		entries = List.copyOf(entries);
+	}
+
+	/**
+	 * Is Empty Method
+	 * 
+	 * @return true if no entry changed
+	 * @since 1.0
+	 */
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ * <h3>Diary Settings Record</h3>
+ *
+ * <p>The inputs a recording diary is generated from: the date of the January edition, the
+ * number of the January edition and the two compilers who alternate each month. The same values
+ * are given to the {@link RecordingDiary.RecordingDiaryBuilder}, the record keeps them together
+ * so a diary can be generated for the following years as well.</p>
+ *
+ * <p>A year has 12 editions so the January edition of the following year is numbered 12 higher.
+ * January is always done by compiler 1 and December by compiler 2, so the alternation carries
+ * into the following January unchanged. The January recording date of a later year follows the
+ * rule used for the other months: the first Monday in January, moved to the following week if it
+ * is a bank holiday.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Objects;
+
+import org.stevie.ddsm.diaries.service.bank.BankHolidayService;
+
+/**
+ * Diary Settings Record
+ *
+ * @param januaryEdition recording date of the January edition
+ * @param edition number of the January edition
+ * @param compiler_1 compiler of January and the other odd months
+ * @param compiler_2 compiler of February and the other even months
+ */
+public record DiarySettings(LocalDate januaryEdition, int edition, String compiler_1, String compiler_2) {
+
+	/*
+	 * editions in a year
+	 */
+	public static final int EDITIONS_PER_YEAR = 12;
+
+	/**
+	 * Compact Constructor
+	 *
+	 * @throws IllegalArgumentException if the January edition is not in January
+	 * @since 1.0
+	 */
+	public DiarySettings {
+		Objects.requireNonNull(januaryEdition);
+		if (januaryEdition.getMonthValue() != 1)
+			throw new IllegalArgumentException("the January edition should be recorded in January");
+	}
+
+	/**
+	 * Year Method
+	 *
+	 * @return year the settings are for
+	 * @since 1.0
+	 */
+	public int year() {
+		return januaryEdition.getYear();
+	}
+
+	/**
+	 * For Year Method
+	 *
+	 * Carry the settings forward to a later year. The edition number continues from December and
+	 * the January recording date is the first Monday in January, or the following week if it is a
+	 * bank holiday.
+	 *
+	 * @param year on or after the year of these settings
+	 * @return settings for the year
+	 * @throws IllegalArgumentException if the year is before the year of these settings
+	 * @since 1.0
+	 */
+	public DiarySettings forYear(int year) {
+		if (year < year())
+			throw new IllegalArgumentException("settings can only be carried forward");
+		if (year == year()) return this;
+		var firstMonday = LocalDate.of(year, 1, 1).with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+		var recordingDate = BankHolidayService.isBankHoliday(firstMonday) ? BankHolidayService.getNextNonBankHoliday(firstMonday) : firstMonday;
+		return new DiarySettings(recordingDate,
+				edition + (year - year()) * EDITIONS_PER_YEAR, compiler_1, compiler_2);
+	}
+
+	/**
+	 * Recording Diary Method
+	 *
+	 * @return recording diary for these settings with its year set, ready to be generated
+	 * @since 1.0
+	 */
+	public RecordingDiary recordingDiary() {
+		var recordingDiary = new RecordingDiary.RecordingDiaryBuilder()
+				.januaryEdition(januaryEdition)
+				.edition(edition)
+				.compiler_1(compiler_1)
+				.compiler_2(compiler_2)
+				.build();
+		recordingDiary.setYear(year());
+		return recordingDiary;
+	}
+}
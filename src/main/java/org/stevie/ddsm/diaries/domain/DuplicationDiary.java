@@ -7,15 +7,27 @@
  * The pouches are then posted to the clients. The recording diary is used as a dependency and 
  * must have been generated prior to generating the duplication diary.</p>
  * 
+ * <p>When the bank holidays change {@link #regenerate(Collection)} regenerates the recording
+ * diary and rebuilds only the duplication entries whose recording date moved. Regenerating
+ * changes both diaries, so a diary which may be shared, such as one from the diary generation
+ * cache, is regenerated through a {@link #copy()} which has its own recording diary. Like the
+ * recording diary it can be regenerated in two steps, {@link #resolve(Collection)} off the JavaFX
+ * application thread and {@link #apply(Map)} on it.</p>
+ * 
+ * <p>The entries are held in an immutable {@link DuplicationDiaryResult} which shares the
+ * recording dates of the recording diary, so the entries can be read without copying.</p>
+ * 
  * @author Stephen
  * @version 1.0
  */
 package org.stevie.ddsm.diaries.domain;
 
 import java.time.LocalDate;
+import java.time.Month;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,9 +52,9 @@ public final class DuplicationDiary extends AbstractDiary<DuplicationDiaryEntry>
 	private RecordingDiary recordingDiary;
 	
 	/*
-	 * diary entries (12 per year)
+	 * diary entries (12 per year), replaced whenever they change
 	 */
-	private List<DuplicationDiaryEntry> diaryEntries = new ArrayList<>();
+	private volatile DuplicationDiaryResult result = DuplicationDiaryResult.EMPTY;
 	
 	/**
 	 * Copy Constructor
@@ -73,31 +85,80 @@ public final class DuplicationDiary extends AbstractDiary<DuplicationDiaryEntry>
 	@Override
 	public void generateDiary() {
 		/*
-		 * fetch recording diary entries
-		 */
-		var recordingEntries = recordingDiary.getEntries();
-		
-		/*
-		 * Create duplication diary using JDK 8 lambdas
+		 * the duplication dates follow from the recording diary entries
 		 */
-		diaryEntries = recordingEntries.stream().map(this::buildDuplicationEntry).toList();
+		result = new DuplicationDiaryResult(recordingDiary.getResult());
+	}
+
+	/**
+	 * Regenerate Method
+	 * 
+	 * Regenerate the months of the recording diary which depended on a changed bank holiday
+	 * date, then rebuild the duplication entries which no longer match their recording entry.
+	 * The recording diary should belong to this diary alone, see {@link #copy()}.
+	 * 
+	 * @param dates which became or stopped being bank holidays
+	 * @return entries which changed
+	 * @since 1.0
+	 */
+	public DiaryChangeSet<DuplicationDiaryEntry> regenerate(Collection<LocalDate> changedDates) {
+		return apply(resolve(changedDates));
+	}
+
+	/**
+	 * Resolve Method
+	 * 
+	 * Find the new recording dates of the months which depended on a changed bank holiday date
+	 * without changing either diary. See {@link RecordingDiary#resolve(Collection)}.
+	 * 
+	 * @param dates which became or stopped being bank holidays
+	 * @return dates checked for each affected month, the last one being its recording date
+	 * @since 1.0
+	 */
+	public Map<Month, List<LocalDate>> resolve(Collection<LocalDate> changedDates) {
+		return recordingDiary.resolve(changedDates);
+	}
+
+	/**
+	 * Apply Method
+	 * 
+	 * Swap the resolved months into the recording diary, then rebuild the duplication entries
+	 * which no longer match their recording entry.
+	 * 
+	 * @param dates checked for each regenerated month, the last one being its recording date
+	 * @return entries which changed
+	 * @since 1.0
+	 */
+	public DiaryChangeSet<DuplicationDiaryEntry> apply(Map<Month, List<LocalDate>> resolved) {
+		recordingDiary.apply(resolved);
+		var changed = new ArrayList<DuplicationDiaryEntry>();
+		var previous = result;
+		var rebuilt = new DuplicationDiaryResult(recordingDiary.getResult());
+		for (int i = 0; i < previous.size(); i++) {
+			if (!rebuilt.sameDates(previous, i)) {
+				changed.add(rebuilt.entry(i));
+			}
+		}
+		result = rebuilt;
+		return new DiaryChangeSet<>(getYear(), changed);
 	}
 	
 	/**
-	 * Build An Entry Method
+	 * Copy Method
 	 * 
-	 * This method takes a recording diary entry and uses it to create a duplication diary
-	 * entry. It is called using a method reference
+	 * Returns a diary with the same entries and its own copy of the recording diary, so it can
+	 * be regenerated without changing this diary or its recording diary.
 	 * 
-	 * @param recording diary entry
-	 * @returns new duplication diary entry 
+	 * @return private copy of the diary
+	 * @since 1.0
 	 */
-	private DuplicationDiaryEntry buildDuplicationEntry(RecordingDiaryEntry re) {
-		Objects.requireNonNull(re);
-		LocalDate nextTuesday = re.recordingDate().plusDays(8L);
-		LocalDate nextWednesday = re.recordingDate().plusDays(9L);
-		LocalDate nextThursday = re.recordingDate().plusDays(10L);
-		return new DuplicationDiaryEntry(re.recordingDate().getMonth(), nextTuesday, nextWednesday, nextThursday);
+	public DuplicationDiary copy() {
+		var copy = new DuplicationDiaryBuilder()
+				.recordingDiary(recordingDiary.copy())
+				.build();
+		copy.setYear(getYear());
+		copy.result = result;
+		return copy;
 	}
 
 	/**
@@ -110,7 +171,7 @@ public final class DuplicationDiary extends AbstractDiary<DuplicationDiaryEntry>
 	@Override
 	public void printDiaryToConsole() {
 		logger.info("DUPLICATION DATES {}", recordingDiary.getYear());
-		for (DuplicationDiaryEntry entry : diaryEntries) {
+		for (DuplicationDiaryEntry entry : getEntries()) {
 			var sb = new StringBuilder();
 			sb.append(entry.month()+ " ");
 			sb.append("Tuesday=" + entry.collectDate().getDayOfMonth() + " ");
@@ -126,15 +187,25 @@ public final class DuplicationDiary extends AbstractDiary<DuplicationDiaryEntry>
 	/**
 	 * Get Entries
 	 * 
-	 * Returns all the entries in the diary. The method returns a defensive copy to preserve the 
-	 * invariants of the class.
+	 * Returns all the entries in the diary. The list is a read only view of the current
+	 * result so nothing is copied. It is not changed if the diary is regenerated later.
 	 * 
 	 * @return list of entries 12 in total 
 	 * 
 	 */
 	@Override
 	public List<DuplicationDiaryEntry> getEntries() {
-		return new ArrayList<>(diaryEntries);
+		return result.entries();
+	}
+
+	/**
+	 * Get Result Method
+	 * 
+	 * @return immutable entries of the diary
+	 * @since 1.0
+	 */
+	public DuplicationDiaryResult getResult() {
+		return result;
 	}
 
 	/**
@@ -0,0 +1,185 @@
+/**
+ * <h3>Duplication Diary Result Class</h3>
+ * 
+ * <p>The generated entries of a {@link DuplicationDiary}. The collect, barcoding and duplication
+ * dates are always the Tuesday, Wednesday and Thursday of the week after the recording, so the
+ * result keeps nothing but the recording dates of the {@link RecordingDiaryResult} it was built
+ * from, shared without copying, and works the other dates out as epoch days when they are read.
+ * Like the recording result it never changes once it has been built.</p>
+ * 
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.domain;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Duplication Diary Result Class
+ * 
+ * Immutable array backed entries of a duplication diary. Index 0 is January.
+ * 
+ */
+public final class DuplicationDiaryResult {
+
+	/*
+	 * days from the recording date to the collect, barcoding and duplication dates
+	 */
+	private static final int COLLECT_DAYS = 8;
+	private static final int BARCODING_DAYS = 9;
+	private static final int DUPLICATION_DAYS = 10;
+
+	/*
+	 * result of a diary which has not been generated
+	 */
+	static final DuplicationDiaryResult EMPTY = new DuplicationDiaryResult(RecordingDiaryResult.EMPTY);
+
+	/*
+	 * diary year
+	 */
+	private final int year;
+	/*
+	 * recording date of each month as an epoch day, shared with the recording result
+	 */
+	private final int[] recordingDays;
+	/*
+	 * read only view of the entries
+	 */
+	private final List<DuplicationDiaryEntry> entries = new EntryView();
+
+	/**
+	 * Copy Constructor
+	 * 
+	 * @param recording diary result the duplication dates follow
+	 * @since 1.0
+	 */
+	DuplicationDiaryResult(RecordingDiaryResult recording) {
+		this.year = recording.getYear();
+		this.recordingDays = recording.recordingDays();
+	}
+
+	/**
+	 * Get Year Method
+	 * 
+	 * @return diary year
+	 * @since 1.0
+	 */
+	public int getYear() {
+		return year;
+	}
+
+	/**
+	 * Size Method
+	 * 
+	 * @return number of entries, 12 once the diary has been generated
+	 * @since 1.0
+	 */
+	public int size() {
+		return recordingDays.length;
+	}
+
+	/**
+	 * Month Method
+	 * 
+	 * @param index of the entry
+	 * @return month of the entry
+	 * @since 1.0
+	 */
+	public Month month(int index) {
+		Objects.checkIndex(index, size());
+		return Month.of(index + 1);
+	}
+
+	/**
+	 * Collect Epoch Day Method
+	 * 
+	 * @param index of the entry
+	 * @return Tuesday the memory sticks are collected as an epoch day
+	 * @since 1.0
+	 */
+	public int collectEpochDay(int index) {
+		return recordingDays[index] + COLLECT_DAYS;
+	}
+
+	/**
+	 * Barcoding Epoch Day Method
+	 * 
+	 * @param index of the entry
+	 * @return Wednesday the pouches are prepared as an epoch day
+	 * @since 1.0
+	 */
+	public int barcodingEpochDay(int index) {
+		return recordingDays[index] + BARCODING_DAYS;
+	}
+
+	/**
+	 * Duplication Epoch Day Method
+	 * 
+	 * @param index of the entry
+	 * @return Thursday the memory sticks are copied as an epoch day
+	 * @since 1.0
+	 */
+	public int duplicationEpochDay(int index) {
+		return recordingDays[index] + DUPLICATION_DAYS;
+	}
+
+	/**
+	 * Entry Method
+	 * 
+	 * @param index of the entry
+	 * @return new record holding the entry
+	 * @since 1.0
+	 */
+	public DuplicationDiaryEntry entry(int index) {
+		return new DuplicationDiaryEntry(month(index),
+				LocalDate.ofEpochDay(collectEpochDay(index)),
+				LocalDate.ofEpochDay(barcodingEpochDay(index)),
+				LocalDate.ofEpochDay(duplicationEpochDay(index)));
+	}
+
+	/**
+	 * Entries Method
+	 * 
+	 * @return read only view of the entries, nothing is copied
+	 * @since 1.0
+	 */
+	public List<DuplicationDiaryEntry> entries() {
+		return entries;
+	}
+
+	/**
+	 * Same Dates Method
+	 * 
+	 * @param other result
+	 * @param index of the entry
+	 * @return true if the entry has the same dates in both results
+	 * @since 1.0
+	 */
+	boolean sameDates(DuplicationDiaryResult other, int index) {
+		return index < other.size() && recordingDays[index] == other.recordingDays[index];
+	}
+
+	/**
+	 * Entry View Class
+	 * 
+	 * Read only list over the recording dates of the result.
+	 * 
+	 */
+	private final class EntryView extends AbstractList<DuplicationDiaryEntry> implements RandomAccess {
+
+		@Override
+		public DuplicationDiaryEntry get(int index) {
+			return entry(index);
+		}
+
+		@Override
+		public int size() {
+			return DuplicationDiaryResult.this.size();
+		}
+	}
+}
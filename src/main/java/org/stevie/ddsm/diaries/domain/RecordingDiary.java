@@ -6,6 +6,20 @@
  * The date of the first edition in a new year has to be input manually. A recording diary consists
  * of 12 entries one for each month. The builder pattern has been used when creating new objects.</p>
  * 
+ * <p>The diary remembers which dates each month's recording date depended on: the first Monday
+ * and, if it was a bank holiday, each following Monday checked. When the bank holidays change
+ * {@link #regenerate(Collection)} recomputes only the months which depended on a changed date.
+ * It can also be done in two steps: {@link #resolve(Collection)} looks up the new recording
+ * dates, which may block, and {@link #apply(Map)} swaps them in, for example on the JavaFX
+ * application thread. The edition and compiler of a month never change so the numbering stays
+ * consistent.
+ * Regenerating changes the diary, so a diary which may be shared, such as one from the diary
+ * generation cache, is regenerated through a {@link #copy()}.</p>
+ * 
+ * <p>The entries and the dates they depended on are held in an immutable
+ * {@link RecordingDiaryResult}. Generating or regenerating the diary replaces the result, so the
+ * entries can be read without copying.</p>
+ * 
  * @author Stephen
  * @version 1.0
  */
@@ -16,10 +30,19 @@ import java.time.LocalDate;
 import java.time.Month;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.stevie.ddsm.diaries.service.bank.BankHolidayService;
+import org.stevie.ddsm.diaries.service.bank.ReactiveBankHolidayService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Recording Diary Class
@@ -34,15 +57,15 @@ public final class RecordingDiary extends AbstractDiary<RecordingDiaryEntry> {
 	 */
 	private static Logger logger = LoggerFactory.getLogger(RecordingDiary.class);
 	/*
-	 * diary entries (12 per year)
+	 * diary entries (12 per year) and the dates they depended on, replaced whenever they change
 	 */
-	private List<RecordingDiaryEntry> diaryEntries = new ArrayList<>();
+	private volatile RecordingDiaryResult result = RecordingDiaryResult.EMPTY;
 	/*
 	 * date of january edition input manually
 	 */
 	private LocalDate januaryEdition;
 	/*
-	 * edition is incremented by 1 every month and rolls over the following year
+	 * edition of the January entry, incremented by 1 every month while the entries are added
 	 */
 	private int edition;
 	/*
@@ -70,18 +93,49 @@ public final class RecordingDiary extends AbstractDiary<RecordingDiaryEntry> {
 		this.compiler_2 = builder.compiler_2;
 	}
 
+	/**
+	 * Copy Method
+	 * 
+	 * Returns a diary with the same entries which can be regenerated without changing this
+	 * one. The immutable result is shared.
+	 * 
+	 * @return private copy of the diary
+	 * @since 1.0
+	 */
+	public RecordingDiary copy() {
+		var copy = new RecordingDiaryBuilder()
+				.januaryEdition(januaryEdition)
+				.edition(edition)
+				.compiler_1(compiler_1)
+				.compiler_2(compiler_2)
+				.build();
+		copy.setYear(getYear());
+		copy.result = result;
+		return copy;
+	}
+
 	/**
 	 * Get Entries Method
 	 * 
-	 * Returns all the entries in the diary. The method returns a defensive copy to preserve the 
-	 * invariants of the class.
+	 * Returns all the entries in the diary. The list is a read only view of the current
+	 * result so nothing is copied. It is not changed if the diary is regenerated later.
 	 * 
 	 * @return list of entries (12 in number) 
 	 * 
 	 */
 	@Override
 	public List<RecordingDiaryEntry> getEntries() {
-		return new ArrayList<>(diaryEntries);
+		return result.entries();
+	}
+
+	/**
+	 * Get Result Method
+	 * 
+	 * @return immutable entries of the diary
+	 * @since 1.0
+	 */
+	public RecordingDiaryResult getResult() {
+		return result;
 	}
 	
 	/**
@@ -94,53 +148,231 @@ public final class RecordingDiary extends AbstractDiary<RecordingDiaryEntry> {
 	@Override
 	public void generateDiary() {
 		
+		/*
+		 * check the first Monday in each month from February to December against the bank
+		 * holidays in one call
+		 */
+		var recordingDates = firstMondays();
+		var bankHolidays = BankHolidayService.areBankHolidays(recordingDates);
+		for (int i = 0; i < recordingDates.length; i++) {
+			if (bankHolidays[i]) { //if the Monday is a bank holiday
+				/*
+				 * find the next non bank holiday
+				 */
+				recordingDates[i] = BankHolidayService.getNextNonBankHoliday(recordingDates[i]);
+			}
+		}
+		addEntries(recordingDates);
+
+	}
+
+	/**
+	 * Generate Diary Async Method
+	 * 
+	 * Generates the same entries as {@link #generateDiary()} without blocking. The bank holidays
+	 * are resolved through the {@link ReactiveBankHolidayService} and the entries are added when
+	 * the result is subscribed to.
+	 * 
+	 * @return this diary once its entries have been generated
+	 * @since 1.0
+	 */
+	public Mono<RecordingDiary> generateDiaryAsync() {
+		return Flux.fromArray(firstMondays())
+				.concatMap(ReactiveBankHolidayService::getNextNonBankHoliday)
+				.collectList()
+				.map(recordingDates -> {
+					addEntries(recordingDates.toArray(LocalDate[]::new));
+					return this;
+				});
+	}
+
+	/**
+	 * First Mondays Method
+	 * 
+	 * @return first Monday in each month from February to December
+	 * @since 1.0
+	 */
+	private LocalDate[] firstMondays() {
+		var firstMondays = new LocalDate[11];
+		for (int month = 2; month <= 12; month++) {
+			firstMondays[month - 2] = LocalDate.of(getYear(), month, 1).with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+		}
+		return firstMondays;
+	}
+
+	/**
+	 * Add Entries Method
+	 * 
+	 * Create the January entry and an entry for each of the February to December recording dates.
+	 * 
+	 * @param recording dates from February to December
+	 * @since 1.0
+	 */
+	private void addEntries(LocalDate[] recordingDates) {
+		
+		var recordingDays = new int[12];
+		var editions = new int[12];
+		var compilers = new String[12];
+		var holidayDependencies = new EnumMap<Month, List<LocalDate>>(Month.class);
+		/*
+		 * count editions locally so generating again or from a copy numbers the same
+		 */
+		int edition = this.edition;
+		
 		/*
 		 * create the January entry
 		 */
-		var januaryEntry = new RecordingDiaryEntry(Month.of(1), this.januaryEdition, this.edition++, this.compiler_1);
-		diaryEntries.add(januaryEntry);
+		recordingDays[0] = Math.toIntExact(this.januaryEdition.toEpochDay());
+		editions[0] = edition++;
+		compilers[0] = this.compiler_1;
 		
 		/*
 		 * create the February to December entries
 		 */
+		var firstMondays = firstMondays();
 		for (int month = 2; month <= 12; month++) {
 			/*
 			 * compiler alternates between compiler 1 and compiler 2
 			 */
-			var compiler = month%2 != 0 ? this.compiler_1 : this.compiler_2;
-			/*
-			 * current date
-			 */
-			var current = LocalDate.of(getYear(), month, 1);
-			/*
-			 * calculate first Monday in the month
-			 */
-			var firstMonday = current.with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+			var recordingDate = recordingDates[month - 2];
+			recordingDays[month - 1] = Math.toIntExact(recordingDate.toEpochDay());
+			editions[month - 1] = edition++;
+			compilers[month - 1] = month%2 != 0 ? this.compiler_1 : this.compiler_2;
+			holidayDependencies.put(Month.of(month), mondaysBetween(firstMondays[month - 2], recordingDate));
+		}
+		result = new RecordingDiaryResult(getYear(), recordingDays, editions, compilers, holidayDependencies);
+	}
+
+	/**
+	 * Mondays Between Method
+	 * 
+	 * @param first Monday of a month
+	 * @param recording date of the month
+	 * @return the Mondays checked to find the recording date
+	 * @since 1.0
+	 */
+	private static List<LocalDate> mondaysBetween(LocalDate firstMonday, LocalDate recordingDate) {
+		var mondays = new ArrayList<LocalDate>();
+		for (var monday = firstMonday; !monday.isAfter(recordingDate); monday = monday.plusWeeks(1)) {
+			mondays.add(monday);
+		}
+		return List.copyOf(mondays);
+	}
+
+	/**
+	 * Get Holiday Dependencies Method
+	 * 
+	 * @param month of the diary
+	 * @return dates checked against the bank holidays to find the recording date of the month,
+	 * empty for January which is input manually
+	 * @since 1.0
+	 */
+	public List<LocalDate> getHolidayDependencies(Month month) {
+		return result.holidayDependencies(month);
+	}
+
+	/**
+	 * Get Affected Months Method
+	 * 
+	 * @param dates which became or stopped being bank holidays
+	 * @return months whose recording date depended on one of the dates
+	 * @since 1.0
+	 */
+	public Set<Month> getAffectedMonths(Collection<LocalDate> changedDates) {
+		return affectedMonths(result, changedDates);
+	}
+
+	/**
+	 * Affected Months Method
+	 * 
+	 * @param result whose dependencies are checked
+	 * @param dates which became or stopped being bank holidays
+	 * @return months of the result whose recording date depended on one of the dates
+	 * @since 1.0
+	 */
+	private static Set<Month> affectedMonths(RecordingDiaryResult result, Collection<LocalDate> changedDates) {
+		var affected = EnumSet.noneOf(Month.class);
+		result.holidayDependencies().forEach((month, dates) -> {
+			for (var date : dates) {
+				if (changedDates.contains(date)) {
+					affected.add(month);
+					return;
+				}
+			}
+		});
+		return affected;
+	}
+
+	/**
+	 * Regenerate Method
+	 * 
+	 * Recompute the months which depended on a changed bank holiday date. The other months are
+	 * left as they are and every month keeps its edition and compiler. The same as
+	 * {@link #apply(Map)} of {@link #resolve(Collection)}.
+	 * 
+	 * @param dates which became or stopped being bank holidays
+	 * @return entries whose recording date changed
+	 * @since 1.0
+	 */
+	public DiaryChangeSet<RecordingDiaryEntry> regenerate(Collection<LocalDate> changedDates) {
+		return apply(resolve(changedDates));
+	}
+
+	/**
+	 * Resolve Method
+	 * 
+	 * Find the recording date again for each month which depended on a changed bank holiday
+	 * date. The diary is not changed. The bank holidays are looked up through the blocking
+	 * {@link BankHolidayService}, so this should not be called on the JavaFX application thread.
+	 * 
+	 * @param dates which became or stopped being bank holidays
+	 * @return dates checked for each affected month, the last one being its recording date
+	 * @since 1.0
+	 */
+	public Map<Month, List<LocalDate>> resolve(Collection<LocalDate> changedDates) {
+		var resolved = new EnumMap<Month, List<LocalDate>>(Month.class);
+		var firstMondays = firstMondays();
+		for (var month : getAffectedMonths(changedDates)) {
+			var firstMonday = firstMondays[month.getValue() - 2];
+			var recordingDate = BankHolidayService.isBankHoliday(firstMonday) ? BankHolidayService.getNextNonBankHoliday(firstMonday) : firstMonday;
+			resolved.put(month, mondaysBetween(firstMonday, recordingDate));
+		}
+		return resolved;
+	}
+
+	/**
+	 * Apply Method
+	 * 
+	 * Swap in the months found by {@link #resolve(Collection)}. The dates and their dependencies
+	 * are replaced together in a new result. Months resolved by an earlier call which has not 
+	 * been applied yet are kept, as each month is merged into the current result.
+	 * 
+	 * @param dates checked for each regenerated month, the last one being its recording date
+	 * @return entries whose recording date changed
+	 * @since 1.0
+	 */
+	public DiaryChangeSet<RecordingDiaryEntry> apply(Map<Month, List<LocalDate>> resolved) {
+		var changed = new ArrayList<RecordingDiaryEntry>();
+		var previous = result;
+		var regenerated = previous;
+		for (var month : resolved.keySet()) {
+			var dependencies = resolved.get(month);
+			regenerated = regenerated.withRecordingDate(month, dependencies.get(dependencies.size() - 1), dependencies);
 			/*
-			 * check whether first Monday is a bank holiday
+			 * report the entry if the date moved
 			 */
-			if (BankHolidayService.isBankHoliday(firstMonday)) { //if the Monday is a bank holiday
-				/*
-				 * find the next non bank holiday
-				 */
-				var afterBankHoliday = BankHolidayService.getNextNonBankHoliday(firstMonday);
-				/*
-				 * create an entry and add it to the diary entries collection
-				 */
-				var entry = new RecordingDiaryEntry(Month.of(month), afterBankHoliday, this.edition++, compiler);
-				diaryEntries.add(entry);
-			} else { // it is not a bank holiday
-				/*
-				 * just create an entry and add it to the entries collection
-				 */
-				var entry = new RecordingDiaryEntry(Month.of(month), firstMonday, this.edition++, compiler);
-				diaryEntries.add(entry);
+			int index = month.ordinal();
+			if (regenerated.recordingEpochDay(index) != previous.recordingEpochDay(index)) {
+				changed.add(regenerated.entry(index));
 			}
 		}
-
+		result = regenerated;
+		if (!changed.isEmpty()) {
+			logger.info("Regenerated {} recording diary month(s) for {}", changed.size(), getYear());
+		}
+		return new DiaryChangeSet<>(getYear(), changed);
 	}
 
-
 	/**
 	 * Print Diary To Console Method
 	 * 
@@ -151,7 +383,7 @@ public final class RecordingDiary extends AbstractDiary<RecordingDiaryEntry> {
 	@Override
 	public void printDiaryToConsole() {
 		logger.info("RECORDING DATES {}", getYear());
-		for (RecordingDiaryEntry entry : diaryEntries) {
+		for (RecordingDiaryEntry entry : getEntries()) {
 			var sb = new StringBuilder();
 			sb.append("Month=" + entry.month() + " ");
 			sb.append("Date=" + entry.recordingDate() + " ");
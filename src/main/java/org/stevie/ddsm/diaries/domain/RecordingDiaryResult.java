@@ -0,0 +1,264 @@
+/**
+ * <h3>Recording Diary Result Class</h3>
+ * 
+ * <p>The generated entries of a {@link RecordingDiary} held in parallel arrays: the recording
+ * dates as epoch days and the editions as ints, one element per month. A result is never changed
+ * once it has been built. Regenerating a month builds a new result, so a result can be read from
+ * any thread and shared without copying.</p>
+ * 
+ * <p>The entries can be read one field at a time through the accessors, which do not create any
+ * objects apart from {@link #recordingDate(int)}. {@link #entries()} is a read only view over the
+ * arrays for code which wants {@link RecordingDiaryEntry} records; each record is created when it
+ * is read.</p>
+ * 
+ * <p>The result also holds the dates checked against the bank holidays to find each month's
+ * recording date, so the dates and what they depended on are always replaced together.</p>
+ * 
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.domain;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Recording Diary Result Class
+ * 
+ * Immutable array backed entries of a recording diary. Index 0 is January.
+ * 
+ */
+public final class RecordingDiaryResult {
+
+	/*
+	 * result of a diary which has not been generated
+	 */
+	static final RecordingDiaryResult EMPTY = new RecordingDiaryResult(0, new int[0], new int[0], new String[0], Map.of());
+
+	/*
+	 * diary year
+	 */
+	private final int year;
+	/*
+	 * recording date of each month as an epoch day
+	 */
+	private final int[] recordingDays;
+	/*
+	 * edition of each month
+	 */
+	private final int[] editions;
+	/*
+	 * compiler of each month
+	 */
+	private final String[] compilers;
+	/*
+	 * dates checked against the bank holidays to find the recording date of each month
+	 */
+	private final Map<Month, List<LocalDate>> holidayDependencies;
+	/*
+	 * read only view of the entries
+	 */
+	private final List<RecordingDiaryEntry> entries = new EntryView();
+
+	/**
+	 * Copy Constructor
+	 * 
+	 * The arrays are owned by the result from now on and must not be changed by the caller.
+	 * 
+	 * @param diary year
+	 * @param recording date of each month as an epoch day
+	 * @param edition of each month
+	 * @param compiler of each month
+	 * @param dates checked to find the recording date of each month, copied
+	 * @since 1.0
+	 */
+	RecordingDiaryResult(int year, int[] recordingDays, int[] editions, String[] compilers, Map<Month, List<LocalDate>> holidayDependencies) {
+		if (recordingDays.length != editions.length || editions.length != compilers.length)
+			throw new IllegalArgumentException("every month should have a date, an edition and a compiler");
+		this.year = year;
+		this.recordingDays = recordingDays;
+		this.editions = editions;
+		this.compilers = compilers;
+		var dependencies = new EnumMap<Month, List<LocalDate>>(Month.class);
+		dependencies.putAll(holidayDependencies);
+		this.holidayDependencies = Collections.unmodifiableMap(dependencies);
+	}
+
+	/**
+	 * Get Year Method
+	 * 
+	 * @return diary year
+	 * @since 1.0
+	 */
+	public int getYear() {
+		return year;
+	}
+
+	/**
+	 * Size Method
+	 * 
+	 * @return number of entries, 12 once the diary has been generated
+	 * @since 1.0
+	 */
+	public int size() {
+		return recordingDays.length;
+	}
+
+	/**
+	 * Month Method
+	 * 
+	 * @param index of the entry
+	 * @return month of the entry
+	 * @since 1.0
+	 */
+	public Month month(int index) {
+		Objects.checkIndex(index, size());
+		return Month.of(index + 1);
+	}
+
+	/**
+	 * Recording Epoch Day Method
+	 * 
+	 * @param index of the entry
+	 * @return recording date as an epoch day
+	 * @since 1.0
+	 */
+	public int recordingEpochDay(int index) {
+		return recordingDays[index];
+	}
+
+	/**
+	 * Recording Date Method
+	 * 
+	 * @param index of the entry
+	 * @return recording date
+	 * @since 1.0
+	 */
+	public LocalDate recordingDate(int index) {
+		return LocalDate.ofEpochDay(recordingDays[index]);
+	}
+
+	/**
+	 * Edition Method
+	 * 
+	 * @param index of the entry
+	 * @return edition number
+	 * @since 1.0
+	 */
+	public int edition(int index) {
+		return editions[index];
+	}
+
+	/**
+	 * Compiler Method
+	 * 
+	 * @param index of the entry
+	 * @return compiler of the edition
+	 * @since 1.0
+	 */
+	public String compiler(int index) {
+		return compilers[index];
+	}
+
+	/**
+	 * Entry Method
+	 * 
+	 * @param index of the entry
+	 * @return new record holding the entry
+	 * @since 1.0
+	 */
+	public RecordingDiaryEntry entry(int index) {
+		return new RecordingDiaryEntry(month(index), recordingDate(index), editions[index], compilers[index]);
+	}
+
+	/**
+	 * Entries Method
+	 * 
+	 * @return read only view of the entries, nothing is copied
+	 * @since 1.0
+	 */
+	public List<RecordingDiaryEntry> entries() {
+		return entries;
+	}
+
+	/**
+	 * With Recording Date Method
+	 * 
+	 * @param month to change
+	 * @param new recording date of the month
+	 * @param dates checked to find the new recording date
+	 * @return this result if nothing is different, otherwise a new result with the date and its
+	 * dependencies replaced. The editions and compilers are shared with this result.
+	 * @since 1.0
+	 */
+	RecordingDiaryResult withRecordingDate(Month month, LocalDate recordingDate, List<LocalDate> dependencies) {
+		int index = month.ordinal();
+		int day = Math.toIntExact(recordingDate.toEpochDay());
+		if (recordingDays[index] == day && dependencies.equals(holidayDependencies(month))) return this;
+		var days = Arrays.copyOf(recordingDays, recordingDays.length);
+		days[index] = day;
+		var replaced = new EnumMap<Month, List<LocalDate>>(Month.class);
+		replaced.putAll(holidayDependencies);
+		replaced.put(month, dependencies);
+		return new RecordingDiaryResult(year, days, editions, compilers, replaced);
+	}
+
+	/**
+	 * Holiday Dependencies Method
+	 * 
+	 * @param month of the diary
+	 * @return dates checked against the bank holidays to find the recording date of the month,
+	 * empty for January which is input manually
+	 * @since 1.0
+	 */
+	public List<LocalDate> holidayDependencies(Month month) {
+		return holidayDependencies.getOrDefault(month, List.of());
+	}
+
+	/**
+	 * Holiday Dependencies Method
+	 * 
+	 * @return dates checked for every month, read only
+	 * @since 1.0
+	 */
+	Map<Month, List<LocalDate>> holidayDependencies() {
+		return holidayDependencies;
+	}
+
+	/**
+	 * Recording Days Method
+	 * 
+	 * @return the recording dates, shared with the duplication result and not to be changed
+	 * @since 1.0
+	 */
+	int[] recordingDays() {
+		return recordingDays;
+	}
+
+	/**
+	 * Entry View Class
+	 * 
+	 * Read only list over the arrays of the result.
+	 * 
+	 */
+	private final class EntryView extends AbstractList<RecordingDiaryEntry> implements RandomAccess {
+
+		@Override
+		public RecordingDiaryEntry get(int index) {
+			return entry(index);
+		}
+
+		@Override
+		public int size() {
+			return RecordingDiaryResult.this.size();
+		}
+	}
+}
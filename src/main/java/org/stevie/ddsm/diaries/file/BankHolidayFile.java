@@ -3,14 +3,17 @@
  * 
  * <p>This class in used conjunction with the {@link TextFile} base class provides
  * the functionality required for handling the bank holiday file which allows the user
- * to export and import bank holidays to or from a text file.</p>
+ * to export and import bank holidays to or from a text file. A copy of the gov.uk
+ * bank-holidays.json document can also be imported.</p>
  * 
  * @author Stephen
  * @version 1.0
  */
 package org.stevie.ddsm.diaries.file;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
@@ -23,12 +26,15 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.stevie.ddsm.diaries.result.ResultStatus;
 import org.stevie.ddsm.diaries.result.ResultWrapper;
 import org.stevie.ddsm.diaries.service.bank.BankHoliday;
+import org.stevie.ddsm.diaries.service.bank.GovUkHolidayImporter;
 
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -369,6 +375,37 @@ public final class BankHolidayFile extends TextFile<BankHoliday> {
 		return result;
 	}
 	
+	/**
+	 * Import Gov.uk File Method
+	 * 
+	 * Imports a copy of the gov.uk bank-holidays.json document which covers every division
+	 * and several years. The file is streamed by the {@link GovUkHolidayImporter} and every
+	 * year it covers is put in the bank holiday cache.
+	 * 
+	 * @return result wrapper {@link ResultWrapper} holding the imported bank holidays keyed by year
+	 * @since 1.0
+	 */
+	public ResultWrapper<SortedMap<Integer, List<BankHoliday>>> importGovUkFile() {
+		
+		ResultWrapper<SortedMap<Integer, List<BankHoliday>>> result = new ResultWrapper<SortedMap<Integer, List<BankHoliday>>>(new TreeMap<>(), ResultStatus.SUCCESSFUL);
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(getFilePath()))) {
+			/*
+			 * stream the document into the cache
+			 */
+			result.setResult(GovUkHolidayImporter.importIntoCache(in));
+			result.setStatus(ResultStatus.SUCCESSFUL);
+		} catch (IOException e) { //unreadable or not a gov.uk document
+			/*
+			 * return failed
+			 */
+			result.setResult(new TreeMap<>());
+			result.setStatus(ResultStatus.FAILED_WITH_EXCEPTION);
+			result.setException(Optional.of(e));
+		}
+		
+		return result;
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("Bank Holiday File [path = %s]", getFilePath());
@@ -13,6 +13,7 @@ import java.nio.file.Path;
 import java.util.Optional;
 
 import javafx.stage.Stage;
+import javafx.stage.FileChooser.ExtensionFilter;
 
 /**
  * Open File Chooser Class
@@ -32,6 +33,7 @@ public final class OpenFileChooser extends AbstractFileChooser {
 	public OpenFileChooser(Stage parentWindow) {
 		super(parentWindow);
 		chooser.setTitle("Import Bank Holidays");
+		chooser.getExtensionFilters().add(new ExtensionFilter("gov.uk Bank Holidays", "*.json"));
 	}
 
 	/**
@@ -140,6 +140,20 @@ public abstract sealed class TextFile<T> permits BankHolidayFile {
     	return ext.equals("txt");
     }
 
+    /**
+     * Is Json File Method
+     * 
+     * Returns true if the file has an extension of json. Used to recognise a copy of the gov.uk
+     * bank holidays document when importing.
+     * 
+     * @return true if extension is json
+     * @since 1.0
+     * 
+     */
+    public boolean isJsonFile() {
+    	return getFileExtension().map(ext -> ext.equalsIgnoreCase("json")).orElse(false);
+    }
+
 	/**
 	 * To File Line
 	 * 
@@ -6,6 +6,15 @@
  * with Jackson annotations which the library uses to deserialise the json string to a POJO. The class
  * is immutable once it is constructed.</p>
  * 
+ * <p>The counties sent by the API are kept as a {@link HolidayRegion} bit mask rather than an
+ * array of strings, so one fetch holds the bank holidays of every region compactly.</p>
+ * 
+ * <p>Many objects of this class are kept in the cache, one for each holiday in each year, so it is
+ * stored compactly. The date is kept as an epoch day, the fixed and global flags are packed into
+ * a byte and the four strings are held in a shared {@link Labels} object. Labels are interned, so
+ * every Christmas Day in every year refers to the same strings. An instance only holds an int,
+ * a reference and two bytes.</p>
+ * 
  */
 package org.stevie.ddsm.diaries.service.bank;
 
@@ -13,6 +22,10 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Objects;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
@@ -25,75 +38,146 @@ import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 @JsonDeserialize(builder = BankHoliday.Builder.class) //use the builder pattern to create an object of the bank holiday class
 public final class BankHoliday {
 	
-	private final LocalDate date;
-	private final String localName;
-	private final String name;
-	private final String countryCode;
-	private final boolean fixed;
-	private final boolean global;
-	private final String[] counties;
-	private final String type;
+	/*
+	 * epoch day used when there is no date
+	 */
+	private static final int NO_DATE = Integer.MIN_VALUE;
+
+	/*
+	 * bits of the packed flags
+	 */
+	private static final byte FLAG_FIXED = 1;
+	private static final byte FLAG_GLOBAL = 2;
+
+	/*
+	 * shared labels. There are only a few dozen distinct holiday names per country so the
+	 * table stays small.
+	 */
+	private static final ConcurrentMap<Labels, Labels> LABELS = new ConcurrentHashMap<>();
+
+	private final int epochDay;
+	private final Labels labels;
+	private final byte flags;
+	private final byte regions;
 	
 	/**
-	 * Copy Constructor
+	 * Labels Record
 	 * 
-	 * Private constructor restricts class users to using the builder pattern
+	 * The strings of a bank holiday, shared by every holiday with the same names.
 	 * 
-	 * @param date of bank holiday
-	 * @param local name description of the bank holiday
+	 * @param localName
 	 * @param name
 	 * @param countryCode
-	 * @param fixed
-	 * @param global
-	 * @param counties
 	 * @param type
 	 */
-	private BankHoliday(LocalDate date, String localName, String name, String countryCode, boolean fixed, boolean global,
-			String[] counties, String type) {
+	record Labels(String localName, String name, String countryCode, String type) {
+
+		/**
+		 * Of Method
+		 * 
+		 * @return the shared instance with these strings
+		 * @since 1.0
+		 */
+		static Labels of(String localName, String name, String countryCode, String type) {
+			var labels = new Labels(localName, name, countryCode, type);
+			var shared = LABELS.putIfAbsent(labels, labels);
+			return shared == null ? labels : shared;
+		}
+	}
+
+	/**
+	 * Copy Constructor
+	 * 
+	 * Private constructor restricts class users to using the builder pattern
+	 * 
+	 * @param epoch day of bank holiday
+	 * @param shared labels
+	 * @param packed flags
+	 * @param regions mask
+	 */
+	private BankHoliday(int epochDay, Labels labels, int flags, int regions) {
 		super();
-		this.date = date;
-		this.localName = localName;
-		this.name = name;
-		this.countryCode = countryCode;
-		this.fixed = fixed;
-		this.global = global;
-		this.counties = counties;
-		this.type = type;
+		this.epochDay = epochDay;
+		this.labels = labels;
+		this.flags = (byte) flags;
+		this.regions = (byte) regions;
 	}
 	
 	/**
 	 * property getter methods
 	 */
 	public LocalDate getDate() {
-		return date;
+		return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
 	}
 
 	public String getLocalName() {
-		return localName;
+		return labels.localName();
 	}
 
 	public String getName() {
-		return name;
+		return labels.name();
 	}
 
 	public String getCountryCode() {
-		return countryCode;
+		return labels.countryCode();
 	}
 
 	public boolean isFixed() {
-		return fixed;
+		return (flags & FLAG_FIXED) != 0;
 	}
 
 	public boolean isGlobal() {
-		return global;
+		return (flags & FLAG_GLOBAL) != 0;
 	}
 
 	public String[] getCounties() {
-		return counties;
+		return HolidayRegion.codesOf(regions);
 	}
 
 	public String getType() {
-		return type;
+		return labels.type();
+	}
+
+	@JsonIgnore
+	public int getRegions() {
+		return regions;
+	}
+
+	/**
+	 * Get Epoch Day Method
+	 * 
+	 * Used where many holidays are compared so that no date objects are created.
+	 * 
+	 * @return the date as a count of days from 1970-01-01
+	 * @throws IllegalStateException if the holiday has no date
+	 * @since 1.0
+	 */
+	@JsonIgnore
+	public int getEpochDay() {
+		if (epochDay == NO_DATE)
+			throw new IllegalStateException("bank holiday has no date");
+		return epochDay;
+	}
+
+	/**
+	 * Has Date Method
+	 * 
+	 * @return true if the holiday has a date
+	 * @since 1.0
+	 */
+	public boolean hasDate() {
+		return epochDay != NO_DATE;
+	}
+
+	/**
+	 * Is Observed In Method
+	 * 
+	 * @param region
+	 * @return true if this is a bank holiday in the region
+	 * @since 1.0
+	 */
+	public boolean isObservedIn(HolidayRegion region) {
+		return region.in(regions);
 	}
 
 	/**
@@ -105,7 +189,7 @@ public final class BankHoliday {
 	 */
 	@Override
 	public int hashCode() {
-		return Objects.hash(date);
+		return Integer.hashCode(epochDay);
 	}
 
 	/**
@@ -126,7 +210,7 @@ public final class BankHoliday {
 		if (getClass() != obj.getClass())
 			return false;
 		BankHoliday other = (BankHoliday) obj;
-		return Objects.equals(date, other.date);
+		return epochDay == other.epochDay;
 	}
 
 	/**
@@ -141,7 +225,7 @@ public final class BankHoliday {
 	public String toString() {
 		return String.format(
 				"BankHoliday [date=%s, localName=%s, name=%s, countryCode=%s, fixed=%s, global=%s, counties=%s, type=%s]",
-				date, localName, name, countryCode, fixed, global, Arrays.toString(counties), type);
+				getDate(), getLocalName(), getName(), getCountryCode(), isFixed(), isGlobal(), Arrays.toString(getCounties()), getType());
 	}
 	
 	/**
@@ -155,18 +239,22 @@ public final class BankHoliday {
 	 */
 	@JsonPOJOBuilder
 	public static class Builder {
-		private LocalDate date;
+		private int epochDay = NO_DATE;
 		private String localName;
 		private String name;
 		private String countryCode;
-		private boolean fixed;
-		private boolean global;
-		private String[] counties;
+		private int flags;
+		private int regions = HolidayRegion.ALL;
 		private String type;
 		
 		@JsonProperty("date")
 		public Builder date(LocalDate date) {
-			this.date = date;
+			this.epochDay = date == null ? NO_DATE : Math.toIntExact(date.toEpochDay());
+			return this;
+		}
+
+		public Builder epochDay(int epochDay) {
+			this.epochDay = epochDay;
 			return this;
 		}
 
@@ -190,19 +278,24 @@ public final class BankHoliday {
 
 		@JsonProperty("fixed")
 		public Builder fixed(boolean fixed) {
-			this.fixed = fixed;
+			this.flags = fixed ? flags | FLAG_FIXED : flags & ~FLAG_FIXED;
 			return this;
 		}
 
 		@JsonProperty("global")
 		public Builder global(boolean global) {
-			this.global = global;
+			this.flags = global ? flags | FLAG_GLOBAL : flags & ~FLAG_GLOBAL;
 			return this;
 		}
 		
 		@JsonProperty("counties")
 		public Builder counties(String[] counties) {
-			this.counties = counties;
+			this.regions = HolidayRegion.maskOf(counties);
+			return this;
+		}
+
+		public Builder regions(int regions) {
+			this.regions = regions & HolidayRegion.ALL;
 			return this;
 		}
 
@@ -213,7 +306,7 @@ public final class BankHoliday {
 		}
 
 		public BankHoliday build() {
-			return new BankHoliday(date, localName, name, countryCode, fixed, global, counties, type );
+			return new BankHoliday(epochDay, Labels.of(localName, name, countryCode, type), flags, regions);
 		}
 	}
 	
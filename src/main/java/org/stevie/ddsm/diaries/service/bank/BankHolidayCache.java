@@ -1,117 +1,818 @@
 /**
  * <h3>Bank Holiday Cache Class</h3>
- * 
- * <p>Once the bank holidays for a given year have been fetched from the Internet REST API, 
- * they are stored in memory for successive use. The class relies on a HashMap to store the 
- * bank holidays in memory.</p>
- *  
+ *
+ * <p>Once the bank holidays for a given year have been fetched from the Internet REST API,
+ * they are stored in memory for successive use. The class relies on a ConcurrentHashMap to store
+ * the bank holidays in memory. Every year is also written to a {@link BankHolidayDiskStore}
+ * so that after a restart a year can be read back from disk instead of the network.</p>
+ *
+ * <p>The memory tier holds at most a configured number of years, the least recently used year
+ * is evicted when it is full (it can still be read back from disk). Each year remembers when it
+ * was fetched. Once a year is older than the refresh interval a lookup starts a reload in the
+ * background, and a year older than its time to live is still served while the reload replaces
+ * it, so a lookup never waits for a refresh.</p>
+ *
+ * <p>Each year is held in one immutable entry (bank holidays, compiled index and fetch time) so a
+ * lookup is a single read of the concurrent map and takes no lock. Diary generation threads can
+ * therefore check dates in parallel without queueing on a monitor. Only writes and evictions
+ * are serialised.</p>
+ *
+ * <p>Writes to the disk store are made behind the memory cache. A put only records the latest
+ * write for the year and the writes are made on the shared holiday fetch executor, outside the
+ * lock the memory writers take, so a burst of puts such as an import does not wait for the disk.
+ * Reading a year back from disk first makes any writes still waiting. Years calculated offline
+ * are only kept in memory, they do not cover every region and the disk should only hold years
+ * which do.</p>
+ *
+ * <p>When a year is replaced with different bank holidays the change listeners are sent a
+ * {@link BankHolidayChange}, and the data version returned by {@link #getVersion()} moves on, so
+ * work which depended on the old bank holidays can be redone.</p>
+ *
  *  @author Stephen
  *  @version 1.0
  */
 package org.stevie.ddsm.diaries.service.bank;
 
-import java.util.HashMap;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Bank Holiday Cache Class
- * 
+ *
  * This class improves performance by storing bank holidays in memory. It contains
  * only static members. Do not create objects of this class.
- * 
+ *
  */
 public final class BankHolidayCache {
-	
+
+	/*
+	 * logging
+	 */
+	private static Logger logger = LoggerFactory.getLogger(BankHolidayCache.class);
+
 	/**
 	 * Default Constructor
-	 * 
+	 *
 	 * Marked private so no one can create instances of this object
-	 *  
+	 *
 	 */
 	private BankHolidayCache() {
-		
+
+	}
+
+	/**
+	 * Cache Entry Class
+	 *
+	 * The bank holidays for a year, their compiled day-of-year index, the time (epoch
+	 * milliseconds) they were fetched from their source and the HTTP validators they were
+	 * sent with. These never change once the entry is published. The last used time is only
+	 * a hint for eviction and is updated at most once per millisecond.
+	 */
+	private static final class CacheEntry {
+		private final List<BankHoliday> bankHolidays;
+		private final BankHolidayIndex index;
+		private final long fetchedAt;
+		private final HolidayValidators validators;
+		private volatile long lastUsed;
+
+		private CacheEntry(List<BankHoliday> bankHolidays, BankHolidayIndex index, long fetchedAt, HolidayValidators validators, long now) {
+			this.bankHolidays = bankHolidays;
+			this.index = index;
+			this.fetchedAt = fetchedAt;
+			this.validators = validators;
+			this.lastUsed = now;
+		}
 	}
 
+	/*
+	 * eviction policy, replaced by {@link BankHolidayConfiguration}
+	 */
+	private static volatile BankHolidayCachePolicy policy = BankHolidayCachePolicy.DEFAULT;
+
 	/*
 	 * bank holiday map cache where bank holidays are kept in memory
-	 * The key of the cache is the year and the value is a list of bank
-	 * holidays for the given year.
+	 * The key of the cache is the year and the value is the cache entry
+	 * for the given year.
+	 */
+	private static final ConcurrentMap<Integer, CacheEntry> holidayCache = new ConcurrentHashMap<>();
+
+	/*
+	 * held by writers (put, evict, remove and loading from disk). Readers never take it.
+	 */
+	private static final Object writeLock = new Object();
+
+	/*
+	 * persistent tier. Years put in the cache are written behind to disk and years missing
+	 * from memory are read back by the disk tier of the source chain. May be null in which
+	 * case the cache is memory only.
+	 */
+	private static volatile BankHolidayDiskStore diskStore = BankHolidayDiskStore.inUserProfile();
+
+	/**
+	 * Disk Write Interface
+	 *
+	 * A write waiting to be made to the disk store for one year
+	 */
+	private sealed interface DiskWrite permits StoreYear, TouchYear, RemoveYear {
+		void apply(BankHolidayDiskStore store, int year);
+	}
+
+	private record StoreYear(List<BankHoliday> bankHolidays, Instant fetchedAt, HolidayValidators validators) implements DiskWrite {
+		public void apply(BankHolidayDiskStore store, int year) {
+			store.store(bankHolidays, year, fetchedAt, validators);
+		}
+	}
+
+	private record TouchYear(Instant fetchedAt) implements DiskWrite {
+		public void apply(BankHolidayDiskStore store, int year) {
+			store.touch(year, fetchedAt);
+		}
+	}
+
+	private record RemoveYear() implements DiskWrite {
+		public void apply(BankHolidayDiskStore store, int year) {
+			store.remove(year);
+		}
+	}
+
+	/*
+	 * latest disk write waiting for each year
+	 */
+	private static final ConcurrentMap<Integer, DiskWrite> pendingDiskWrites = new ConcurrentHashMap<>();
+
+	/*
+	 * true while a task to make the waiting disk writes has been submitted and not started
+	 */
+	private static final AtomicBoolean diskWriteScheduled = new AtomicBoolean();
+
+	/*
+	 * held while the disk store is read or written, never while holding the write lock
+	 */
+	private static final Object diskLock = new Object();
+
+	/*
+	 * years with a background reload in progress, so each year is only refreshed once at a time
+	 */
+	private static final Set<Integer> refreshingYears = ConcurrentHashMap.newKeySet();
+
+	/*
+	 * called with the year when a reload is due. Set by {@link BankHolidayService}.
+	 */
+	private static volatile IntConsumer refreshHandler;
+
+	/*
+	 * told when the bank holidays of a year change
+	 */
+	private static final List<Consumer<BankHolidayChange>> changeListeners = new CopyOnWriteArrayList<>();
+
+	/*
+	 * moves on every time the cached data changes
+	 */
+	private static final AtomicLong version = new AtomicLong();
+
+	/*
+	 * time source, replaceable for testing
+	 */
+	private static volatile Clock clock = Clock.systemUTC();
+
+	/*
+	 * counters
 	 */
-	private static Map<Integer, List<BankHoliday>> holidayCache = new HashMap<>();
+	private static final LongAdder hits = new LongAdder();
+	private static final LongAdder staleHits = new LongAdder();
+	private static final LongAdder diskLoads = new LongAdder();
+	private static final LongAdder misses = new LongAdder();
+	private static final LongAdder evictions = new LongAdder();
+	private static final LongAdder refreshes = new LongAdder();
 
 	/**
 	 * Get Bank Holidays From Cache Method
-	 * 
+	 *
 	 * Retrieves the bank holidays for a given year from the memory cache. if the year
 	 * is not in the cache the method raises an exception.
-	 * 
+	 *
 	 * @param year
 	 * @return bank holidays for specified year
 	 * @since 1.0
-	 * 
+	 *
 	 */
-	public static synchronized List<BankHoliday> getBankHolidaysFromCache(int year) throws CacheFailureException {
-		if (!isInCache(year)) {
+	public static List<BankHoliday> getBankHolidaysFromCache(int year) throws CacheFailureException {
+		var entry = lookup(year);
+		if (entry == null) {
 			throw new CacheFailureException(year);
 		}
-		return holidayCache.get(year);
+		return entry.bankHolidays;
 	}
-	
+
 	/**
 	 * Put Bank Holidays Into Cache Method
-	 * 
+	 *
 	 * Store the bank holidays in the cache for specified year
-	 * 
+	 *
+	 * @param bank holidays
+	 * @param year
+	 *
+	 * @since 1.0
+	 *
+	 */
+	public static void putBankHolidaysInCache(List<BankHoliday> holidays, int year) {
+		putBankHolidaysInCache(holidays, year, clock.instant());
+	}
+
+	/**
+	 * Put Bank Holidays Into Cache Method
+	 *
+	 * Store the bank holidays in the cache for specified year with the time they were fetched.
+	 * Provisional data, such as holidays calculated offline, can be given an old fetch time so
+	 * the year is refreshed from the REST API the next time it is looked up.
+	 *
+	 * @param bank holidays
+	 * @param year
+	 * @param time the bank holidays were fetched from their source
+	 *
+	 * @since 1.0
+	 *
+	 */
+	public static void putBankHolidaysInCache(List<BankHoliday> holidays, int year, Instant fetchedAt) {
+		putBankHolidaysInCache(holidays, year, fetchedAt, HolidayValidators.NONE);
+	}
+
+	/**
+	 * Put Bank Holidays Into Cache Method
+	 *
+	 * Store the bank holidays fetched from the REST API for specified year together with the
+	 * validators the response was sent with, so the next refresh can be a conditional request.
+	 *
+	 * @param bank holidays
+	 * @param year
+	 * @param validators sent with the bank holidays
+	 *
+	 * @since 1.0
+	 *
+	 */
+	public static void putBankHolidaysInCache(List<BankHoliday> holidays, int year, HolidayValidators validators) {
+		putBankHolidaysInCache(holidays, year, clock.instant(), validators);
+	}
+
+	/**
+	 * Put Calculated Bank Holidays Into Cache Method
+	 *
+	 * Used by {@link RulesHolidaySource}. Store bank holidays calculated offline which are only
+	 * complete for some regions. The year is given an old fetch time so it is replaced from the
+	 * REST API the first time it is looked up, and it is not written to disk.
+	 *
 	 * @param bank holidays
 	 * @param year
-	 * 
+	 * @param mask of the regions the bank holidays are complete for
+	 * @since 1.0
+	 */
+	static void putCalculatedBankHolidaysInCache(List<BankHoliday> holidays, int year, int coveredRegions) {
+		putBankHolidaysInCache(holidays, BankHolidayIndex.of(holidays, year, coveredRegions), year, Instant.EPOCH, HolidayValidators.NONE, false);
+	}
+
+	/*
+	 * common implementation of the put methods
+	 */
+	private static void putBankHolidaysInCache(List<BankHoliday> holidays, int year, Instant fetchedAt, HolidayValidators validators) {
+		putBankHolidaysInCache(holidays, BankHolidayIndex.of(holidays, year), year, fetchedAt, validators, true);
+	}
+
+	private static void putBankHolidaysInCache(List<BankHoliday> holidays, BankHolidayIndex index, int year, Instant fetchedAt,
+			HolidayValidators validators, boolean persist) {
+		var entry = new CacheEntry(holidays, index, fetchedAt.toEpochMilli(), validators, clock.millis());
+		CacheEntry previous;
+		synchronized (writeLock) {
+			previous = holidayCache.put(year, entry);
+			evictToSize(year);
+			refreshingYears.remove(year);
+		}
+		if (persist) {
+			scheduleDiskWrite(year, new StoreYear(holidays, fetchedAt, validators));
+		}
+
+		/*
+		 * tell the listeners outside the lock so they can read the cache
+		 */
+		var previousIndex = previous == null ? null : previous.index;
+		if (BankHolidayChange.isChanged(previousIndex, entry.index)) {
+			notifyChange(new BankHolidayChange(year, previousIndex, entry.index, version.incrementAndGet()));
+		}
+	}
+
+	/**
+	 * Extend Lifetime Method
+	 *
+	 * Called when the REST API answers a refresh with 304 Not Modified. The entry for the year
+	 * is kept as it is, bank holidays, index and validators included, and only its fetch time
+	 * is moved to now, on disk as well as in memory.
+	 *
+	 * @param year
+	 * @return true if the year was in memory, false if it has been evicted since the request was made
+	 * @since 1.0
+	 */
+	public static boolean extendLifetime(int year) {
+		var now = clock.instant();
+		synchronized (writeLock) {
+			var entry = holidayCache.get(year);
+			if (entry == null) return false;
+			holidayCache.put(year, new CacheEntry(entry.bankHolidays, entry.index, now.toEpochMilli(), entry.validators, entry.lastUsed));
+			refreshingYears.remove(year);
+		}
+		scheduleDiskWrite(year, new TouchYear(now));
+		return true;
+	}
+
+	/**
+	 * Get Validators Method
+	 *
+	 * @param year
+	 * @return validators of the year in memory, or none if the year is not in memory
+	 * @since 1.0
+	 */
+	public static HolidayValidators getValidators(int year) {
+		var entry = holidayCache.get(year);
+		return entry == null ? HolidayValidators.NONE : entry.validators;
+	}
+
+	/**
+	 * Get Bank Holiday Index Method
+	 *
+	 * Retrieves the compiled day-of-year index for a given year in a single lookup. Unlike
+	 * {@link #getBankHolidaysFromCache(int)} this method does not throw an exception, it returns
+	 * null if the year is not in the cache. A stale year is returned straight away and reloaded
+	 * in the background.
+	 *
+	 * @param year
+	 * @return bank holiday index or null if the year is not in the cache
+	 * @since 1.0
+	 *
+	 */
+	public static BankHolidayIndex getBankHolidayIndex(int year) {
+		var entry = lookup(year);
+		return entry == null ? null : entry.index;
+	}
+
+	/**
+	 * Get Bank Holiday Index From Memory Method
+	 *
+	 * Used by {@link MemoryHolidaySource}. Like {@link #getBankHolidayIndex(int)} but does not
+	 * read the year back from disk.
+	 *
+	 * @param year
+	 * @return bank holiday index or null if the year is not in memory
 	 * @since 1.0
-	 * 
 	 */
-	public static synchronized void putBankHolidaysInCache(List<BankHoliday> holidays, int year) {
-		holidayCache.put(year, holidays);
+	static BankHolidayIndex getBankHolidayIndexFromMemory(int year) {
+		var entry = holidayCache.get(year);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		return served(year, entry, true).index;
+	}
+
+	/**
+	 * Get Bank Holiday Index From Disk Method
+	 *
+	 * Used by {@link DiskHolidaySource}. Reads a year missing from memory back from disk.
+	 *
+	 * @param year
+	 * @return bank holiday index or null if the year is not on disk
+	 * @since 1.0
+	 */
+	static BankHolidayIndex getBankHolidayIndexFromDisk(int year) {
+		var entry = loadFromDisk(year);
+		return entry == null ? null : served(year, entry, false).index;
 	}
-	
+
+	/**
+	 * Peek Bank Holiday Index Method
+	 *
+	 * Returns the index for a year in memory without counting a lookup or starting a refresh.
+	 * Used by sources which have just put the year in the cache.
+	 *
+	 * @param year
+	 * @return bank holiday index or null if the year is not in memory
+	 * @since 1.0
+	 */
+	static BankHolidayIndex peekBankHolidayIndex(int year) {
+		var entry = holidayCache.get(year);
+		return entry == null ? null : entry.index;
+	}
+
+	/**
+	 * Peek Bank Holidays Method
+	 *
+	 * Returns the bank holidays for a year in memory without counting a lookup or starting a
+	 * refresh.
+	 *
+	 * @param year
+	 * @return bank holidays or null if the year is not in memory
+	 * @since 1.0
+	 */
+	static List<BankHoliday> peekBankHolidays(int year) {
+		var entry = holidayCache.get(year);
+		return entry == null ? null : entry.bankHolidays;
+	}
+
 	/**
 	 * Is In Cache Method
-	 * 
-	 * Check if there is an entry for the given year in the cache. Used in conjunction with 
-	 * the get from cache method.
-	 * 
+	 *
+	 * Check if there is an entry for the given year in the cache. Used in conjunction with
+	 * the get from cache method. Does not count as a lookup. Only memory is checked, the disk
+	 * is read by the disk tier of the source chain.
+	 *
 	 * @param year
 	 * @return true if selected year is already in the cache
 	 * @since 1.0
-	 * 
+	 *
 	 */
-	public static synchronized boolean isInCache(int year) {
+	public static boolean isInCache(int year) {
 		return holidayCache.containsKey(year);
 	}
 
+	/**
+	 * Is Refresh Due Method
+	 *
+	 * @param year
+	 * @return true if the year is in memory and older than the refresh interval
+	 * @since 1.0
+	 */
+	public static boolean isRefreshDue(int year) {
+		var entry = holidayCache.get(year);
+		return entry != null && clock.millis() - entry.fetchedAt >= policy.refreshAfter().toMillis();
+	}
+
+	/**
+	 * Refresh Finished Method
+	 *
+	 * Called when a background reload ends, whether or not it succeeded, so that a later
+	 * lookup can start another one.
+	 *
+	 * @param year
+	 * @since 1.0
+	 */
+	static void refreshFinished(int year) {
+		refreshingYears.remove(year);
+	}
+
+	/**
+	 * Get Statistics Method
+	 *
+	 * @return snapshot of the cache counters
+	 * @since 1.0
+	 */
+	public static BankHolidayCacheStatistics getStatistics() {
+		return new BankHolidayCacheStatistics(hits.sum(), staleHits.sum(), diskLoads.sum(), misses.sum(),
+				evictions.sum(), refreshes.sum());
+	}
+
+	/**
+	 * Get Version Method
+	 *
+	 * @return version of the cached data, it increases whenever a year changes or is removed
+	 * @since 1.0
+	 */
+	public static long getVersion() {
+		return version.get();
+	}
+
+	/**
+	 * Add Change Listener Method
+	 *
+	 * The listener is called on the thread which updated the cache, after the update is
+	 * visible, each time the bank holidays of a year change.
+	 *
+	 * @param listener to add
+	 * @since 1.0
+	 */
+	public static void addChangeListener(Consumer<BankHolidayChange> listener) {
+		changeListeners.add(Objects.requireNonNull(listener));
+	}
+
+	/**
+	 * Remove Change Listener Method
+	 *
+	 * @param listener to remove
+	 * @since 1.0
+	 */
+	public static void removeChangeListener(Consumer<BankHolidayChange> listener) {
+		changeListeners.remove(listener);
+	}
+
+	/**
+	 * Notify Change Method
+	 *
+	 * @param change to send to every listener
+	 * @since 1.0
+	 */
+	private static void notifyChange(BankHolidayChange change) {
+		for (var listener : changeListeners) {
+			try {
+				listener.accept(change);
+			} catch (RuntimeException e) {
+				logger.error("Bank holiday change listener failed for year {} - {}", change.year(), e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Set Policy Method
+	 *
+	 * Replace the eviction policy. Called by {@link BankHolidayConfiguration} with the settings
+	 * from application.properties. If the new maximum is smaller than the number of years in
+	 * memory the least recently used years are evicted.
+	 *
+	 * @param eviction policy
+	 * @since 1.0
+	 */
+	public static void setPolicy(BankHolidayCachePolicy policy) {
+		Objects.requireNonNull(policy);
+		synchronized (writeLock) {
+			BankHolidayCache.policy = policy;
+			evictToSize(null);
+		}
+	}
+
+	/**
+	 * Set Refresh Handler Method
+	 *
+	 * @param called with the year when a background reload is due, or null to disable refreshing
+	 * @since 1.0
+	 */
+	static void setRefreshHandler(IntConsumer handler) {
+		refreshHandler = handler;
+	}
+
+	/**
+	 * Set Clock Method
+	 *
+	 * @param time source used to age entries
+	 * @since 1.0
+	 */
+	static void setClock(Clock clock) {
+		BankHolidayCache.clock = Objects.requireNonNull(clock);
+	}
+
+	/**
+	 * Set Disk Store Method
+	 *
+	 * Replace the persistent tier. Called by {@link BankHolidayConfiguration} with the store
+	 * configured in application.properties. Passing null makes the cache memory only.
+	 *
+	 * @param disk store or null
+	 * @since 1.0
+	 */
+	public static void setDiskStore(BankHolidayDiskStore store) {
+		synchronized (diskLock) {
+			flushDiskWrites();
+			diskStore = store;
+		}
+	}
+
+	/**
+	 * Flush Disk Writes Method
+	 *
+	 * Make every disk write which is still waiting on the calling thread. Called when the
+	 * application stops so no year is lost.
+	 *
+	 * @since 1.0
+	 */
+	public static void flushDiskWrites() {
+		synchronized (diskLock) {
+			var store = diskStore;
+			for (var year : List.copyOf(pendingDiskWrites.keySet())) {
+				var write = pendingDiskWrites.remove(year);
+				if (write != null && store != null) {
+					write.apply(store, year);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Schedule Disk Write Method
+	 *
+	 * Record the latest disk write for a year and make sure a task is submitted to make it.
+	 * Refreshing the fetch time of a year which has not been stored yet is folded into the
+	 * store. If the executor has been shut down the write is made on the calling thread.
+	 *
+	 * @param year
+	 * @param write to make
+	 * @since 1.0
+	 */
+	private static void scheduleDiskWrite(int year, DiskWrite write) {
+		if (diskStore == null) return;
+		pendingDiskWrites.merge(year, write, (waiting, latest) ->
+				waiting instanceof StoreYear stored && latest instanceof TouchYear touched
+						? new StoreYear(stored.bankHolidays(), touched.fetchedAt(), stored.validators())
+						: latest);
+		if (diskWriteScheduled.compareAndSet(false, true)) {
+			try {
+				BankHolidayService.getFetchExecutor().executeInBackground(BankHolidayCache::writeBehind);
+			} catch (RejectedExecutionException e) {
+				writeBehind();
+			}
+		}
+	}
+
+	/**
+	 * Write Behind Method
+	 *
+	 * Runs on the holiday fetch executor. Clears the scheduled flag before writing so a write
+	 * recorded while this task runs submits another task.
+	 *
+	 * @since 1.0
+	 */
+	private static void writeBehind() {
+		diskWriteScheduled.set(false);
+		flushDiskWrites();
+	}
+
+	/**
+	 * Lookup Method
+	 *
+	 * Find the entry for a year. A year in memory is found with one read of the concurrent map
+	 * and no lock. A year missing from memory is counted as a miss, it is left to the disk tier
+	 * of the source chain to read it back.
+	 *
+	 * @param year
+	 * @return cache entry or null if the year is not cached
+	 * @since 1.0
+	 */
+	private static CacheEntry lookup(int year) {
+		var entry = holidayCache.get(year);
+		if (entry != null) {
+			return served(year, entry, true);
+		}
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * Served Method
+	 *
+	 * Record that an entry has been used. Memory hits are counted as fresh or stale. If the
+	 * entry is due a refresh the refresh handler is called once for the year.
+	 *
+	 * @param year
+	 * @param entry being returned
+	 * @param true if the entry was found in memory
+	 * @return the entry
+	 * @since 1.0
+	 */
+	private static CacheEntry served(int year, CacheEntry entry, boolean memoryHit) {
+
+		/*
+		 * only write the last used time when it has changed so threads reading the same
+		 * year do not keep writing to the same field
+		 */
+		long now = clock.millis();
+		if (entry.lastUsed < now) {
+			entry.lastUsed = now;
+		}
+
+		var current = policy;
+		long age = now - entry.fetchedAt;
+		if (memoryHit) {
+			if (age >= current.timeToLive().toMillis()) {
+				staleHits.increment();
+			} else {
+				hits.increment();
+			}
+		}
+
+		/*
+		 * the handler only submits the reload, the old entry is served now
+		 */
+		if (age >= current.refreshAfter().toMillis()) {
+			var handler = refreshHandler;
+			if (handler != null && refreshingYears.add(year)) {
+				refreshes.increment();
+				handler.accept(year);
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Load From Disk Method
+	 *
+	 * Read a year missing from memory from the persistent tier and put it in memory. The year
+	 * is not written back to disk and keeps the time it was originally fetched. Concurrent misses
+	 * for the same year read the disk once. The disk is read under the disk lock, the memory
+	 * writers only wait for the entry to be put.
+	 *
+	 * @param year
+	 * @return cache entry or null if the year is not on disk
+	 * @since 1.0
+	 */
+	private static CacheEntry loadFromDisk(int year) {
+		if (diskStore == null) return null;
+		synchronized (diskLock) {
+			var entry = holidayCache.get(year);
+			if (entry != null || diskStore == null) return entry;
+			/*
+			 * the year may have been evicted before its write was made
+			 */
+			if (pendingDiskWrites.containsKey(year)) {
+				flushDiskWrites();
+			}
+			var stored = diskStore.load(year);
+			if (stored.isEmpty()) return null;
+			var holidays = stored.get().bankHolidays();
+			entry = new CacheEntry(holidays, BankHolidayIndex.of(holidays, year), stored.get().fetchedAt().toEpochMilli(),
+					stored.get().validators(), clock.millis());
+			synchronized (writeLock) {
+				/*
+				 * keep a year put while the disk was being read
+				 */
+				var current = holidayCache.putIfAbsent(year, entry);
+				if (current != null) return current;
+				evictToSize(year);
+				diskLoads.increment();
+				return entry;
+			}
+		}
+	}
+
+	/**
+	 * Evict To Size Method
+	 *
+	 * Remove the least recently used years until the cache is within the policy maximum.
+	 * Must be called while holding the write lock.
+	 *
+	 * @param year which has just been added and should be kept, or null
+	 * @since 1.0
+	 */
+	private static void evictToSize(Integer keep) {
+		while (holidayCache.size() > policy.maxEntries()) {
+			Integer eldest = null;
+			long eldestUsed = Long.MAX_VALUE;
+			for (Map.Entry<Integer, CacheEntry> e : holidayCache.entrySet()) {
+				if (!e.getKey().equals(keep) && e.getValue().lastUsed < eldestUsed) {
+					eldest = e.getKey();
+					eldestUsed = e.getValue().lastUsed;
+				}
+			}
+			if (eldest == null) return;
+			holidayCache.remove(eldest);
+			evictions.increment();
+		}
+	}
+
 	/**
 	 * Empty Cache Method
-	 * 
-	 * deletes all years from the cache. Not currently in use.
-	 * 
+	 *
+	 * deletes all years from the cache including the persistent tier. Not currently in use.
+	 *
 	 * @since 1.0
-	 * 
+	 *
 	 */
-	public static synchronized void emptyCache() {
-		holidayCache.clear();
+	public static void emptyCache() {
+		synchronized (writeLock) {
+			version.incrementAndGet();
+			holidayCache.clear();
+		}
+		synchronized (diskLock) {
+			pendingDiskWrites.clear();
+			if (diskStore != null) {
+				diskStore.clear();
+			}
+		}
 	}
-	
+
 	/**
 	 * Remove From Cache Method
-	 * 
-	 * Removes the year from the cache map. Not currently in use.
-	 * 
+	 *
+	 * Removes the year from the cache map and the persistent tier. Not currently in use.
+	 *
 	 * @param year to remove
 	 * @since 1.0
-	 * 
+	 *
 	 */
-	public static synchronized void removeFromCache(int year) {
-		if (isInCache(year))
+	public static void removeFromCache(int year) {
+		synchronized (writeLock) {
+			version.incrementAndGet();
 			holidayCache.remove(year);
+		}
+		scheduleDiskWrite(year, new RemoveYear());
 	}
-	
+
 }
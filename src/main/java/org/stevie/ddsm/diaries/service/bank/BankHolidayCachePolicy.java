@@ -0,0 +1,45 @@
+/**
+ * <h3>Bank Holiday Cache Policy Record</h3>
+ *
+ * <p>Settings which control how long the {@link BankHolidayCache} keeps a year and how many
+ * years it keeps in memory. A year older than the refresh interval is reloaded in the background
+ * the next time it is looked up. A year older than the time to live is stale, it is still served
+ * while the reload runs.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Bank Holiday Cache Policy Record
+ *
+ * @param maxEntries maximum number of years kept in memory
+ * @param timeToLive age after which a year is stale
+ * @param refreshAfter age after which a lookup starts a background reload
+ */
+public record BankHolidayCachePolicy(int maxEntries, Duration timeToLive, Duration refreshAfter) {
+
+	/*
+	 * policy used until the application context configures the cache
+	 */
+	public static final BankHolidayCachePolicy DEFAULT = new BankHolidayCachePolicy(32, Duration.ofDays(30), Duration.ofDays(7));
+
+	/**
+	 * Compact Constructor
+	 *
+	 * @throws IllegalArgumentException if the settings are invalid
+	 * @since 1.0
+	 */
+	public BankHolidayCachePolicy {
+		Objects.requireNonNull(timeToLive);
+		Objects.requireNonNull(refreshAfter);
+		if (maxEntries < 1)
+			throw new IllegalArgumentException("max entries should be at least 1");
+		if (refreshAfter.compareTo(timeToLive) > 0)
+			throw new IllegalArgumentException("refresh interval should not be longer than the time to live");
+	}
+}
@@ -0,0 +1,48 @@
+/**
+ * <h3>Bank Holiday Cache Statistics Record</h3>
+ *
+ * <p>A point in time copy of the counters kept by the {@link BankHolidayCache}. Lookups are
+ * counted as fresh hits, stale hits (served while a reload runs in the background) or misses when
+ * the year is not in memory. Misses answered by reading the year back from the disk store are also
+ * counted as disk loads.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+/**
+ * Bank Holiday Cache Statistics Record
+ *
+ * @param hits lookups served from a fresh entry
+ * @param staleHits lookups served from an entry past its time to live
+ * @param diskLoads years read back from the disk store
+ * @param misses lookups for years which were not in memory
+ * @param evictions entries removed from memory to stay within the maximum size
+ * @param refreshes background reloads started
+ */
+public record BankHolidayCacheStatistics(long hits, long staleHits, long diskLoads, long misses, long evictions, long refreshes) {
+
+	/**
+	 * Hit Rate Method
+	 *
+	 * @return fraction of lookups served from the cache, or zero if there have been none
+	 * @since 1.0
+	 */
+	public double hitRate() {
+		long lookups = hits + staleHits + misses;
+		return lookups == 0 ? 0.0 : (double) (hits + staleHits) / lookups;
+	}
+
+	/**
+	 * To String Method
+	 *
+	 * @return string representation of the object
+	 * @since 1.0
+	 */
+	@Override
+	public String toString() {
+		return String.format("BankHolidayCacheStatistics [hits=%d, staleHits=%d, diskLoads=%d, misses=%d, evictions=%d, refreshes=%d, hitRate=%.2f]",
+				hits, staleHits, diskLoads, misses, evictions, refreshes, hitRate());
+	}
+}
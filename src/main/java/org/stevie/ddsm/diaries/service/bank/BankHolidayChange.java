@@ -0,0 +1,98 @@
+/**
+ * <h3>Bank Holiday Change Record</h3>
+ *
+ * <p>Sent to the listeners of the {@link BankHolidayCache} when the bank holidays of a year are
+ * replaced with different ones, for example when the user saves edited bank holidays or a
+ * background refresh brings new data. It holds the index of the year before and after the change
+ * so listeners can find exactly which dates were added or removed and only redo the work which
+ * depended on them.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Bank Holiday Change Record
+ *
+ * @param year which changed
+ * @param previous index of the year, null if the year was not in memory
+ * @param current index of the year
+ * @param version of the cache data after the change
+ */
+public record BankHolidayChange(int year, BankHolidayIndex previous, BankHolidayIndex current, long version) {
+
+	/**
+	 * Compact Constructor
+	 *
+	 * @since 1.0
+	 */
+	public BankHolidayChange {
+		Objects.requireNonNull(current);
+	}
+
+	/**
+	 * Changed Dates Method
+	 *
+	 * @param region to compare
+	 * @return dates which became or stopped being bank holidays in the region, in date order. If
+	 * the year was not in memory before every bank holiday of the year is included.
+	 * @since 1.0
+	 */
+	public List<LocalDate> changedDates(HolidayRegion region) {
+		var changed = new ArrayList<LocalDate>();
+		int days = Year.of(year).length();
+		for (int day = 1; day <= days; day++) {
+			boolean before = previous != null && previous.containsDayOfYear(day, region);
+			if (before != current.containsDayOfYear(day, region)) {
+				changed.add(LocalDate.ofYearDay(year, day));
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Changed Dates Method
+	 *
+	 * @return dates which changed in England, the region the diaries are generated for
+	 * @since 1.0
+	 */
+	public List<LocalDate> changedDates() {
+		return changedDates(HolidayRegion.ENGLAND);
+	}
+
+	/**
+	 * Is Changed Method
+	 *
+	 * @return true if any date changed in any region
+	 * @since 1.0
+	 */
+	public boolean isChanged() {
+		return isChanged(previous, current);
+	}
+
+	/**
+	 * Is Changed Method
+	 *
+	 * Compares the bit words of each region, so the cache can decide whether to send a change
+	 * before it makes one.
+	 *
+	 * @param previous index of the year, null if the year was not in memory
+	 * @param current index of the year
+	 * @return true if any date changed in any region
+	 * @since 1.0
+	 */
+	static boolean isChanged(BankHolidayIndex previous, BankHolidayIndex current) {
+		for (var region : HolidayRegion.values()) {
+			boolean same = previous == null ? current.size(region) == 0 : current.sameDays(previous, region);
+			if (!same) return true;
+		}
+		return false;
+	}
+}
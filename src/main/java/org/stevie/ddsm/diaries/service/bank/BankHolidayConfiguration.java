@@ -0,0 +1,239 @@
+/**
+ * <h3>Bank Holiday Configuration Class</h3>
+ *
+ * <p>The bank holiday service is used from the domain model through static methods, so the
+ * objects it depends on are created here as Spring beans and handed to the service when the
+ * application context starts. Settings are read from application.properties.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bank Holiday Configuration Class
+ *
+ * Spring configuration for the bank holiday service.
+ *
+ */
+@Configuration
+public class BankHolidayConfiguration {
+
+	/**
+	 * Holiday Fetch Executor Bean
+	 *
+	 * The single executor used for all bank holiday I/O. It is closed when the application
+	 * context is closed.
+	 *
+	 * @param maximum number of fetches running at the same time
+	 * @return executor
+	 * @since 1.0
+	 */
+	@Bean(destroyMethod = "close")
+	public HolidayFetchExecutor holidayFetchExecutor(@Value("${ddsm.holidays.fetch.max-concurrency:4}") int maxConcurrency) {
+		var executor = new HolidayFetchExecutor(maxConcurrency);
+		BankHolidayService.setFetchExecutor(executor);
+		return executor;
+	}
+
+	/**
+	 * Holiday Http Client Settings Bean
+	 * 
+	 * Connection pool, keep-alive, compression and timeout settings of the http client used to
+	 * reach the REST API.
+	 * 
+	 * @param size of the connection pool
+	 * @param requests which may wait for a pooled connection
+	 * @param longest a request waits for a pooled connection
+	 * @param idle connections older than this are closed
+	 * @param connections older than this are closed once released
+	 * @param how often idle connections are evicted in the background
+	 * @param longest a connection may take to open
+	 * @param longest to wait for a response
+	 * @param true to ask for gzip compressed responses
+	 * @return http client settings
+	 * @since 1.0
+	 */
+	@Bean
+	public HolidayHttpClientSettings holidayHttpClientSettings(
+			@Value("${ddsm.holidays.http.max-connections:8}") int maxConnections,
+			@Value("${ddsm.holidays.http.pending-acquire-max-count:64}") int pendingAcquireMaxCount,
+			@Value("${ddsm.holidays.http.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+			@Value("${ddsm.holidays.http.max-idle-time:30s}") Duration maxIdleTime,
+			@Value("${ddsm.holidays.http.max-life-time:5m}") Duration maxLifeTime,
+			@Value("${ddsm.holidays.http.eviction-interval:30s}") Duration evictionInterval,
+			@Value("${ddsm.holidays.http.connect-timeout:2s}") Duration connectTimeout,
+			@Value("${ddsm.holidays.http.response-timeout:3s}") Duration responseTimeout,
+			@Value("${ddsm.holidays.http.compress:true}") boolean compress) {
+		return new HolidayHttpClientSettings(maxConnections, pendingAcquireMaxCount, pendingAcquireTimeout,
+				maxIdleTime, maxLifeTime, evictionInterval, connectTimeout, responseTimeout, compress);
+	}
+
+	/**
+	 * Nager Date Client Bean
+	 * 
+	 * Client for the bank holiday REST API. The base URL can be changed to point at a local
+	 * stand-in server, for example when testing offline. Its connection pool is released when
+	 * the application context is closed.
+	 * 
+	 * @param base URL of the API
+	 * @param http client settings
+	 * @return client
+	 * @since 1.0
+	 */
+	@Bean(destroyMethod = "close")
+	public NagerDateClient nagerDateClient(@Value("${ddsm.holidays.api.base-url:" + NagerDateClient.DEFAULT_BASE_URL + "}") String baseUrl,
+			HolidayHttpClientSettings settings) {
+		var client = NagerDateClient.create(baseUrl, settings);
+		FetchBankHolidaysTask.setClient(client);
+		return client;
+	}
+
+	/**
+	 * Holiday Fetch Policy Bean
+	 * 
+	 * Timeouts and retries for requests to the REST API. Each attempt has its own timeout and
+	 * transient failures are retried with jittered exponential backoff, all within the budget.
+	 * 
+	 * @param timeout of a single attempt
+	 * @param retries after the first attempt
+	 * @param delay before the first retry
+	 * @param longest delay between retries
+	 * @param jitter factor between 0 and 1
+	 * @param longest a fetch including its retries may take
+	 * @return fetch policy
+	 * @since 1.0
+	 */
+	@Bean
+	public HolidayFetchPolicy holidayFetchPolicy(
+			@Value("${ddsm.holidays.api.attempt-timeout:3s}") Duration attemptTimeout,
+			@Value("${ddsm.holidays.api.max-retries:2}") int maxRetries,
+			@Value("${ddsm.holidays.api.initial-backoff:200ms}") Duration initialBackoff,
+			@Value("${ddsm.holidays.api.max-backoff:2s}") Duration maxBackoff,
+			@Value("${ddsm.holidays.api.jitter:0.5}") double jitter,
+			@Value("${ddsm.holidays.api.budget:10s}") Duration budget) {
+		var policy = new HolidayFetchPolicy(attemptTimeout, maxRetries, initialBackoff, maxBackoff, jitter, budget);
+		FetchBankHolidaysTask.setPolicy(policy);
+		return policy;
+	}
+
+	/**
+	 * Holiday Circuit Breaker Bean
+	 * 
+	 * Opens after consecutive transient failures of the REST API so that lookups go straight
+	 * to the other holiday sources until the open duration has passed.
+	 * 
+	 * @param consecutive failures which open the breaker
+	 * @param how long the breaker stays open before a trial request
+	 * @return circuit breaker
+	 * @since 1.0
+	 */
+	@Bean
+	public HolidayCircuitBreaker holidayCircuitBreaker(
+			@Value("${ddsm.holidays.api.breaker.failure-threshold:5}") int failureThreshold,
+			@Value("${ddsm.holidays.api.breaker.open-duration:30s}") Duration openDuration) {
+		var breaker = new HolidayCircuitBreaker(failureThreshold, openDuration);
+		FetchBankHolidaysTask.setCircuitBreaker(breaker);
+		return breaker;
+	}
+
+	/**
+	 * Bank Holiday Disk Store Bean
+	 * 
+	 * The persistent tier of the bank holiday cache. The store file is kept in the configured
+	 * directory which defaults to .ddsm in the users home directory. Its files are closed when
+	 * the application context is closed.
+	 * 
+	 * @param directory to keep the store file in
+	 * @return disk store
+	 * @since 1.0
+	 */
+	@Bean(destroyMethod = "close")
+	public BankHolidayDiskStore bankHolidayDiskStore(@Value("${ddsm.holidays.cache.dir:${user.home}/.ddsm}") String directory) {
+		var store = BankHolidayDiskStore.inDirectory(Path.of(directory));
+		BankHolidayCache.setDiskStore(store);
+		return store;
+	}
+
+	/**
+	 * Bank Holiday Cache Policy Bean
+	 * 
+	 * Bounds the number of years kept in memory and sets how old a year can get before it is
+	 * refreshed in the background and before it is stale.
+	 * 
+	 * @param maximum number of years kept in memory
+	 * @param age after which a year is stale
+	 * @param age after which a lookup starts a background reload
+	 * @return cache policy
+	 * @since 1.0
+	 */
+	@Bean
+	public BankHolidayCachePolicy bankHolidayCachePolicy(
+			@Value("${ddsm.holidays.cache.max-entries:32}") int maxEntries,
+			@Value("${ddsm.holidays.cache.time-to-live:30d}") Duration timeToLive,
+			@Value("${ddsm.holidays.cache.refresh-after:7d}") Duration refreshAfter) {
+		var policy = new BankHolidayCachePolicy(maxEntries, timeToLive, refreshAfter);
+		BankHolidayCache.setPolicy(policy);
+		return policy;
+	}
+
+	/**
+	 * England And Wales Holiday Rules Bean
+	 * 
+	 * Offline rules including the proclamations made so far. Further one-off holidays can be
+	 * added to the bean with {@link EnglandWalesHolidayRules#addProclamation}.
+	 * 
+	 * @return offline rules
+	 * @since 1.0
+	 */
+	@Bean
+	public EnglandWalesHolidayRules englandWalesHolidayRules() {
+		return EnglandWalesHolidayRules.withKnownProclamations();
+	}
+
+	/**
+	 * Holiday Source Chain Bean
+	 * 
+	 * The tiers the bank holiday service resolves a year through: memory, disk, the offline
+	 * rules (unless disabled) and the REST API.
+	 * 
+	 * @param offline rules
+	 * @param true if the rules should be used
+	 * @return source chain
+	 * @since 1.0
+	 */
+	@Bean
+	public HolidaySourceChain holidaySourceChain(EnglandWalesHolidayRules rules,
+			@Value("${ddsm.holidays.rules.enabled:true}") boolean rulesEnabled) {
+		var chain = HolidaySourceChain.standard(rulesEnabled ? rules : null);
+		BankHolidayService.setSourceChain(chain);
+		return chain;
+	}
+
+	/**
+	 * Bank Holiday Failure Cache Bean
+	 * 
+	 * Negative cache for years which could not be fetched. The expiry starts at the initial
+	 * value and doubles with each consecutive failure up to the maximum.
+	 * 
+	 * @param expiry after the first failure
+	 * @param maximum expiry
+	 * @return failure cache
+	 * @since 1.0
+	 */
+	@Bean
+	public BankHolidayFailureCache bankHolidayFailureCache(
+			@Value("${ddsm.holidays.failure.initial-expiry:30s}") Duration initialExpiry,
+			@Value("${ddsm.holidays.failure.max-expiry:10m}") Duration maxExpiry) {
+		var cache = new BankHolidayFailureCache(initialExpiry, maxExpiry);
+		BankHolidayService.setFailureCache(cache);
+		return cache;
+	}
+}
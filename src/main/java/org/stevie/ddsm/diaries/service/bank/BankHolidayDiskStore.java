@@ -0,0 +1,879 @@
+/**
+ * <h3>Bank Holiday Disk Store Class</h3>
+ *
+ * <p>The memory cache is lost every time the application is closed, so without a persistent copy
+ * every start has to fetch the bank holidays from the REST API again. This class keeps a compact
+ * binary copy of the cache in a single file under the user profile. The {@link BankHolidayCache}
+ * writes every year to the store and reads a year back from it the first time the year is
+ * needed.</p>
+ *
+ * <p>The file starts with a header (magic number, format version, a generation number and the
+ * number of used and reserved directory slots) followed by a directory with a fixed number of
+ * slots. Each slot holds the time a year was fetched and the position, length and CRC-32 checksum
+ * of the record for that year. Records are appended after the directory, so storing a year writes
+ * one record and one slot, and refreshing the fetch time or removing a year only rewrites the
+ * header and a slot. The space left by replaced records is reclaimed by rewriting the whole file
+ * once more than half of it is unused, or when the directory is full.</p>
+ *
+ * <p>Every operation takes an exclusive lock on a lock file next to the store, so two copies of
+ * the application sharing a profile never interleave their writes. Both files are kept open
+ * between operations, the store file is only opened again when it has been replaced. The generation number moves
+ * on with every write, and the directory is only read again when it has changed since it was
+ * last read. A file with the wrong magic number or version, or a record whose checksum does not
+ * match, is ignored and replaced on the next write.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bank Holiday Disk Store Class
+ *
+ * Persistent tier behind the bank holiday memory cache.
+ *
+ */
+public final class BankHolidayDiskStore {
+
+	/*
+	 * logging
+	 */
+	private static Logger logger = LoggerFactory.getLogger(BankHolidayDiskStore.class);
+
+	/*
+	 * file name of the store
+	 */
+	public static final String FILE_NAME = "bank-holidays.bin";
+
+	/*
+	 * "DDSM" in ASCII
+	 */
+	private static final int MAGIC = 0x4444534D;
+
+	/*
+	 * incremented whenever the record layout changes. Files written with a different version
+	 * are ignored.
+	 */
+	static final short FORMAT_VERSION = 1;
+
+	/*
+	 * header size before the directory (magic, version, generation, used slots, slot capacity)
+	 */
+	private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Integer.BYTES + Integer.BYTES + Integer.BYTES;
+
+	/*
+	 * position of the generation number in the header
+	 */
+	private static final int GENERATION_POSITION = Integer.BYTES + Short.BYTES;
+
+	/*
+	 * directory slots reserved in a new file
+	 */
+	private static final int MIN_CAPACITY = 32;
+
+	/*
+	 * unused bytes tolerated before the file is rewritten
+	 */
+	private static final long MIN_WASTE = 64 * 1024;
+
+	/*
+	 * one monitor per store file so stores for the same file in this process take turns, the
+	 * file lock only keeps other processes out
+	 */
+	private static final ConcurrentMap<Path, Object> monitors = new ConcurrentHashMap<>();
+
+	/*
+	 * size of one directory entry (year, fetched at, offset, length, crc)
+	 */
+	private static final int DIRECTORY_ENTRY_SIZE = Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+	/*
+	 * flag bits for a bank holiday record
+	 */
+	private static final int FLAG_FIXED = 1;
+	private static final int FLAG_GLOBAL = 2;
+
+	/*
+	 * path of the store file and of the lock file next to it
+	 */
+	private final Path filePath;
+	private final Path lockPath;
+
+	/*
+	 * monitor shared by every store for the file
+	 */
+	private final Object monitor;
+
+	/*
+	 * open lock file and store file, and the identity of the store file when it was opened,
+	 * guarded by the monitor
+	 */
+	private FileChannel lockChannel;
+	private FileChannel storeChannel;
+	private Object fileKey;
+
+	/*
+	 * years in the file and the generation of the file they were read from, guarded by the monitor
+	 */
+	private Map<Integer, DirectoryEntry> directory;
+	private int generation = -1;
+
+	/*
+	 * slots used and reserved in the file, zero capacity if the file is missing or unreadable
+	 */
+	private int slotCount;
+	private int slotCapacity;
+
+	/**
+	 * Directory Entry Record
+	 *
+	 * Slot number, fetch time (epoch milliseconds), position, length and checksum of the record
+	 * for one year. The slot number is the position of the entry in the directory and is not
+	 * written to the file.
+	 */
+	private record DirectoryEntry(int slot, int year, long fetchedAt, long offset, int length, int crc) {
+	}
+
+	/**
+	 * Raw Record
+	 *
+	 * Undecoded record bytes and fetch time, used when the file is rewritten
+	 */
+	private record RawRecord(byte[] bytes, long fetchedAt) {
+	}
+
+	/**
+	 * Stored Year Record
+	 *
+	 * The bank holidays read back for a year together with the time they were fetched from
+	 * their source and the HTTP validators they were sent with. The cache uses the fetch time to
+	 * work out the age of the year and the validators to refresh it with a conditional request.
+	 */
+	public record StoredYear(List<BankHoliday> bankHolidays, Instant fetchedAt, HolidayValidators validators) {
+	}
+
+	/**
+	 * Copy Constructor
+	 *
+	 * @param path of the store file
+	 * @since 1.0
+	 */
+	public BankHolidayDiskStore(Path filePath) {
+		this.filePath = Objects.requireNonNull(filePath);
+		this.lockPath = filePath.resolveSibling(filePath.getFileName() + ".lock");
+		this.monitor = monitors.computeIfAbsent(filePath.toAbsolutePath().normalize(), path -> new Object());
+	}
+
+	/**
+	 * Static Factory Method
+	 *
+	 * Create a store in the given directory
+	 *
+	 * @param directory to keep the store file in
+	 * @return new store
+	 * @since 1.0
+	 */
+	public static BankHolidayDiskStore inDirectory(Path directory) {
+		return new BankHolidayDiskStore(directory.resolve(FILE_NAME));
+	}
+
+	/**
+	 * Static Factory Method
+	 *
+	 * Create a store in the .ddsm directory of the users home directory
+	 *
+	 * @return new store
+	 * @since 1.0
+	 */
+	public static BankHolidayDiskStore inUserProfile() {
+		return inDirectory(Paths.get(System.getProperty("user.home"), ".ddsm"));
+	}
+
+	/**
+	 * File Path Getter
+	 *
+	 * @return path of the store file
+	 * @since 1.0
+	 */
+	public Path getFilePath() {
+		return filePath;
+	}
+
+	/**
+	 * Contains Method
+	 *
+	 * @param year
+	 * @return true if the store has a record for the year
+	 * @since 1.0
+	 */
+	public boolean contains(int year) {
+		if (!Files.exists(filePath)) return false;
+		return locked(channel -> directory(channel).containsKey(year), false, "read");
+	}
+
+	/**
+	 * Load Method
+	 *
+	 * Read the bank holidays for a year from the file. If the year is not in the file, or the
+	 * record fails the integrity check, an empty optional is returned and a damaged record is
+	 * removed from the directory.
+	 *
+	 * @param year
+	 * @return bank holidays for the year and the time they were fetched
+	 * @since 1.0
+	 */
+	public Optional<StoredYear> load(int year) {
+		if (!Files.exists(filePath)) return Optional.empty();
+		return locked(channel -> {
+			var entry = directory(channel).get(year);
+			if (entry == null) return Optional.<StoredYear>empty();
+			try {
+				byte[] record = readRecord(channel, entry);
+				try (var in = new DataInputStream(new ByteArrayInputStream(record))) {
+					var validators = new HolidayValidators(readString(in), readString(in));
+					return Optional.of(new StoredYear(decodeHolidays(in), Instant.ofEpochMilli(entry.fetchedAt()), validators));
+				}
+			} catch (IOException e) {
+				/*
+				 * the record is damaged so forget it, it is replaced when the year is stored again
+				 */
+				logger.warn("Discarding bank holidays for year {} from {} - {}", year, filePath, e.getMessage());
+				removeSlot(channel, entry);
+				return Optional.<StoredYear>empty();
+			}
+		}, Optional.empty(), "read");
+	}
+
+	/**
+	 * Store Method
+	 *
+	 * Write the bank holidays for a year to the file, recording them as fetched now.
+	 *
+	 * @param bank holidays
+	 * @param year
+	 * @since 1.0
+	 */
+	public void store(List<BankHoliday> bankHolidays, int year) {
+		store(bankHolidays, year, Instant.now(), HolidayValidators.NONE);
+	}
+
+	/**
+	 * Store Method
+	 *
+	 * Write the bank holidays for a year to the file. The record is appended to the file and
+	 * then the slot for the year is pointed at it, so a write which is cut short leaves the
+	 * previous record in use.
+	 *
+	 * @param bank holidays
+	 * @param year
+	 * @param time the bank holidays were fetched from their source
+	 * @param validators the bank holidays were sent with
+	 * @since 1.0
+	 */
+	public void store(List<BankHoliday> bankHolidays, int year, Instant fetchedAt, HolidayValidators validators) {
+		locked(channel -> {
+			byte[] record = encodeRecord(bankHolidays, validators);
+			var entries = directory(channel);
+			var existing = entries.get(year);
+			if (slotCapacity == 0 || (existing == null && slotCount == slotCapacity)) {
+				/*
+				 * no usable file or no free slot so write a new file with room to grow
+				 */
+				var records = readAllRecords(channel);
+				records.put(year, new RawRecord(record, fetchedAt.toEpochMilli()));
+				writeFile(records);
+				return null;
+			}
+			long offset = channel.size();
+			writeFully(channel, ByteBuffer.wrap(record), offset);
+			channel.force(false);
+			int slot = existing == null ? slotCount : existing.slot();
+			writeSlot(channel, new DirectoryEntry(slot, year, fetchedAt.toEpochMilli(), offset, record.length, checksum(record)));
+			if (existing == null) slotCount++;
+			writeHeader(channel);
+			compactIfWasteful(channel);
+			return null;
+		}, null, "write bank holidays for year " + year + " to");
+	}
+
+	/**
+	 * Touch Method
+	 *
+	 * Change the fetch time of a year without changing its record, used when the REST API
+	 * confirms the stored bank holidays are still current. Only the slot of the year is written.
+	 *
+	 * @param year
+	 * @param new fetch time
+	 * @since 1.0
+	 */
+	public void touch(int year, Instant fetchedAt) {
+		if (!Files.exists(filePath)) return;
+		locked(channel -> {
+			var entry = directory(channel).get(year);
+			if (entry == null) return null;
+			writeSlot(channel, new DirectoryEntry(entry.slot(), year, fetchedAt.toEpochMilli(), entry.offset(), entry.length(), entry.crc()));
+			writeHeader(channel);
+			return null;
+		}, null, "update bank holidays for year " + year + " in");
+	}
+
+	/**
+	 * Remove Method
+	 *
+	 * Remove a year from the file
+	 *
+	 * @param year
+	 * @since 1.0
+	 */
+	public void remove(int year) {
+		if (!Files.exists(filePath)) return;
+		locked(channel -> {
+			var entry = directory(channel).get(year);
+			if (entry != null) removeSlot(channel, entry);
+			return null;
+		}, null, "remove bank holidays for year " + year + " from");
+	}
+
+	/**
+	 * Clear Method
+	 *
+	 * Delete the store file
+	 *
+	 * @since 1.0
+	 */
+	public void clear() {
+		synchronized (monitor) {
+			try (FileLock lock = lockChannel().lock()) {
+				closeStoreChannel();
+				Files.deleteIfExists(filePath);
+			} catch (IOException e) {
+				logger.error("Unable to delete {} - {}", filePath, e.getMessage());
+				closeChannels();
+			}
+			forgetFile();
+		}
+	}
+
+	/**
+	 * Close Method
+	 *
+	 * Close the lock file and store file. Called when the application context is closed, a
+	 * later operation opens them again.
+	 *
+	 * @since 1.0
+	 */
+	public void close() {
+		synchronized (monitor) {
+			closeChannels();
+		}
+	}
+
+	/**
+	 * File Operation Interface
+	 *
+	 * An operation on the store file run while holding the lock
+	 */
+	@FunctionalInterface
+	private interface FileOperation<T> {
+		T apply(FileChannel channel) throws IOException;
+	}
+
+	/**
+	 * Locked Method
+	 *
+	 * Run an operation while holding the monitor for the file and an exclusive lock on the lock
+	 * file. The store file is created if it does not exist. If the operation fails both files are
+	 * closed so the next operation starts afresh.
+	 *
+	 * @param operation to run
+	 * @param result if the operation fails
+	 * @param description of the operation for the log
+	 * @return result of the operation
+	 * @since 1.0
+	 */
+	private <T> T locked(FileOperation<T> operation, T failed, String description) {
+		synchronized (monitor) {
+			try (FileLock lock = lockChannel().lock()) {
+				return operation.apply(storeChannel());
+			} catch (IOException e) {
+				logger.error("Unable to {} {} - {}", description, filePath, e.getMessage());
+				closeChannels();
+				return failed;
+			}
+		}
+	}
+
+	/**
+	 * Lock Channel Method
+	 *
+	 * Open the lock file the first time it is needed, creating the directory of the store.
+	 * Must be called while holding the monitor.
+	 *
+	 * @return open lock file
+	 * @throws IOException if the lock file cannot be opened
+	 * @since 1.0
+	 */
+	private FileChannel lockChannel() throws IOException {
+		if (lockChannel == null || !lockChannel.isOpen()) {
+			Files.createDirectories(filePath.toAbsolutePath().getParent());
+			lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		}
+		return lockChannel;
+	}
+
+	/**
+	 * Store Channel Method
+	 *
+	 * Returns the open store file, opening it again if the file has been replaced, by a
+	 * rewrite in this or another process, since it was opened. Must be called while holding
+	 * the lock.
+	 *
+	 * @return open store file
+	 * @throws IOException if the store file cannot be opened
+	 * @since 1.0
+	 */
+	private FileChannel storeChannel() throws IOException {
+		Object key = Files.exists(filePath) ? Files.readAttributes(filePath, BasicFileAttributes.class).fileKey() : null;
+		if (storeChannel != null && storeChannel.isOpen() && key != null && key.equals(fileKey)) {
+			return storeChannel;
+		}
+		closeStoreChannel();
+		storeChannel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		fileKey = Files.readAttributes(filePath, BasicFileAttributes.class).fileKey();
+		return storeChannel;
+	}
+
+	/**
+	 * Close Store Channel Method
+	 *
+	 * Must be called while holding the monitor.
+	 *
+	 * @since 1.0
+	 */
+	private void closeStoreChannel() {
+		closeQuietly(storeChannel);
+		storeChannel = null;
+		fileKey = null;
+	}
+
+	/**
+	 * Close Channels Method
+	 *
+	 * Close the store file and the lock file. Must be called while holding the monitor.
+	 *
+	 * @since 1.0
+	 */
+	private void closeChannels() {
+		closeStoreChannel();
+		closeQuietly(lockChannel);
+		lockChannel = null;
+	}
+
+	/**
+	 * Close Quietly Method
+	 *
+	 * @param channel to close, may be null
+	 * @since 1.0
+	 */
+	private void closeQuietly(FileChannel channel) {
+		if (channel == null) return;
+		try {
+			channel.close();
+		} catch (IOException e) {
+			logger.warn("Unable to close {} - {}", filePath, e.getMessage());
+		}
+	}
+
+	/**
+	 * Directory Method
+	 *
+	 * Returns the directory of years in the file. Only the header is read unless the file has
+	 * been written since the directory was last read. Must be called while holding the lock.
+	 *
+	 * @param open store file
+	 * @return directory keyed by year
+	 * @throws IOException if the file cannot be read
+	 * @since 1.0
+	 */
+	private Map<Integer, DirectoryEntry> directory(FileChannel channel) throws IOException {
+		var header = ByteBuffer.allocate(HEADER_SIZE);
+		if (channel.size() < HEADER_SIZE || readFully(channel, header, 0) < HEADER_SIZE) {
+			forgetFile();
+			return directory;
+		}
+		header.flip();
+		if (header.getInt() != MAGIC) {
+			logger.warn("Ignoring {} - not a bank holiday store", filePath);
+			forgetFile();
+			return directory;
+		}
+		short version = header.getShort();
+		if (version != FORMAT_VERSION) {
+			logger.warn("Ignoring {} - format version {} expected {}", filePath, version, FORMAT_VERSION);
+			forgetFile();
+			return directory;
+		}
+		int fileGeneration = header.getInt();
+		if (directory != null && fileGeneration == generation && slotCapacity > 0) return directory;
+
+		int count = header.getInt();
+		int capacity = header.getInt();
+		if (count < 0 || capacity < count || channel.size() < HEADER_SIZE + (long) DIRECTORY_ENTRY_SIZE * capacity) {
+			logger.warn("Ignoring {} - unable to read header", filePath);
+			forgetFile();
+			return directory;
+		}
+		var slots = ByteBuffer.allocate(DIRECTORY_ENTRY_SIZE * count);
+		readFully(channel, slots, HEADER_SIZE);
+		slots.flip();
+		Map<Integer, DirectoryEntry> entries = new TreeMap<>();
+		for (int slot = 0; slot < count; slot++) {
+			var entry = new DirectoryEntry(slot, slots.getInt(), slots.getLong(), slots.getLong(), slots.getInt(), slots.getInt());
+			entries.put(entry.year(), entry);
+		}
+		directory = entries;
+		generation = fileGeneration;
+		slotCount = count;
+		slotCapacity = capacity;
+		return directory;
+	}
+
+	/**
+	 * Forget File Method
+	 *
+	 * The file is missing or unusable, it is replaced on the next write.
+	 *
+	 * @since 1.0
+	 */
+	private void forgetFile() {
+		directory = new TreeMap<>();
+		slotCount = 0;
+		slotCapacity = 0;
+	}
+
+	/**
+	 * Write Slot Method
+	 *
+	 * @param open store file
+	 * @param entry to write to its slot
+	 * @throws IOException if the file cannot be written
+	 * @since 1.0
+	 */
+	private void writeSlot(FileChannel channel, DirectoryEntry entry) throws IOException {
+		var slot = ByteBuffer.allocate(DIRECTORY_ENTRY_SIZE)
+				.putInt(entry.year())
+				.putLong(entry.fetchedAt())
+				.putLong(entry.offset())
+				.putInt(entry.length())
+				.putInt(entry.crc())
+				.flip();
+		writeFully(channel, slot, HEADER_SIZE + (long) DIRECTORY_ENTRY_SIZE * entry.slot());
+		directory.put(entry.year(), entry);
+	}
+
+	/**
+	 * Remove Slot Method
+	 *
+	 * Move the last slot into the slot of the year being removed so the used slots stay together.
+	 *
+	 * @param open store file
+	 * @param entry to remove
+	 * @throws IOException if the file cannot be written
+	 * @since 1.0
+	 */
+	private void removeSlot(FileChannel channel, DirectoryEntry entry) throws IOException {
+		directory.remove(entry.year());
+		int last = slotCount - 1;
+		if (entry.slot() != last) {
+			for (var other : directory.values()) {
+				if (other.slot() == last) {
+					writeSlot(channel, new DirectoryEntry(entry.slot(), other.year(), other.fetchedAt(), other.offset(), other.length(), other.crc()));
+					break;
+				}
+			}
+		}
+		slotCount = last;
+		writeHeader(channel);
+	}
+
+	/**
+	 * Write Header Method
+	 *
+	 * Move the generation on and write the header, then force the file to disk.
+	 *
+	 * @param open store file
+	 * @throws IOException if the file cannot be written
+	 * @since 1.0
+	 */
+	private void writeHeader(FileChannel channel) throws IOException {
+		generation++;
+		var header = ByteBuffer.allocate(HEADER_SIZE - GENERATION_POSITION)
+				.putInt(generation)
+				.putInt(slotCount)
+				.putInt(slotCapacity)
+				.flip();
+		writeFully(channel, header, GENERATION_POSITION);
+		channel.force(false);
+	}
+
+	/**
+	 * Compact If Wasteful Method
+	 *
+	 * Rewrite the file without the records which have been replaced once they take up more
+	 * than half of it.
+	 *
+	 * @param open store file
+	 * @throws IOException if the file cannot be written
+	 * @since 1.0
+	 */
+	private void compactIfWasteful(FileChannel channel) throws IOException {
+		long used = HEADER_SIZE + (long) DIRECTORY_ENTRY_SIZE * slotCapacity;
+		for (var entry : directory.values()) {
+			used += entry.length();
+		}
+		long waste = channel.size() - used;
+		if (waste > MIN_WASTE && waste > used) {
+			logger.info("Compacting {} ({} of {} bytes unused)", filePath, waste, channel.size());
+			writeFile(readAllRecords(channel));
+		}
+	}
+
+	/**
+	 * Read Record Method
+	 *
+	 * Reads the bytes of one record and checks them against the checksum in the directory.
+	 *
+	 * @param open store file
+	 * @param directory entry
+	 * @return record bytes
+	 * @throws IOException if the record cannot be read or is damaged
+	 * @since 1.0
+	 */
+	private static byte[] readRecord(FileChannel channel, DirectoryEntry entry) throws IOException {
+		var buffer = ByteBuffer.allocate(entry.length());
+		if (readFully(channel, buffer, entry.offset()) < entry.length()) throw new IOException("unexpected end of file");
+		byte[] record = buffer.array();
+		if (checksum(record) != entry.crc()) throw new IOException("checksum mismatch");
+		return record;
+	}
+
+	/**
+	 * Read All Records Method
+	 *
+	 * Reads every undamaged record in the file, used before the file is rewritten.
+	 *
+	 * @param open store file
+	 * @return records keyed by year
+	 * @since 1.0
+	 */
+	private Map<Integer, RawRecord> readAllRecords(FileChannel channel) {
+		Map<Integer, RawRecord> records = new TreeMap<>();
+		for (var entry : directory.values()) {
+			try {
+				records.put(entry.year(), new RawRecord(readRecord(channel, entry), entry.fetchedAt()));
+			} catch (IOException e) {
+				logger.warn("Discarding bank holidays for year {} from {} - {}", entry.year(), filePath, e.getMessage());
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Write File Method
+	 *
+	 * Writes the header, a directory with room to grow and the records to a temporary file and
+	 * moves it over the store file. Must be called while holding the lock.
+	 *
+	 * @param records keyed by year
+	 * @throws IOException if the file cannot be written
+	 * @since 1.0
+	 */
+	private void writeFile(Map<Integer, RawRecord> records) throws IOException {
+		int capacity = Math.max(MIN_CAPACITY, records.size() * 2);
+		Map<Integer, DirectoryEntry> entries = new TreeMap<>();
+		long offset = HEADER_SIZE + (long) DIRECTORY_ENTRY_SIZE * capacity;
+		int slot = 0;
+		for (var record : records.entrySet()) {
+			byte[] bytes = record.getValue().bytes();
+			entries.put(record.getKey(), new DirectoryEntry(slot++, record.getKey(), record.getValue().fetchedAt(), offset, bytes.length, checksum(bytes)));
+			offset += bytes.length;
+		}
+
+		int nextGeneration = generation + 1;
+		var bytes = new ByteArrayOutputStream();
+		try (var out = new DataOutputStream(bytes)) {
+			out.writeInt(MAGIC);
+			out.writeShort(FORMAT_VERSION);
+			out.writeInt(nextGeneration);
+			out.writeInt(entries.size());
+			out.writeInt(capacity);
+			for (var entry : entries.values()) {
+				out.writeInt(entry.year());
+				out.writeLong(entry.fetchedAt());
+				out.writeLong(entry.offset());
+				out.writeInt(entry.length());
+				out.writeInt(entry.crc());
+			}
+			out.write(new byte[DIRECTORY_ENTRY_SIZE * (capacity - entries.size())]);
+			for (var record : records.values()) {
+				out.write(record.bytes());
+			}
+		}
+
+		Path parent = filePath.toAbsolutePath().getParent();
+		Path tempFile = Files.createTempFile(parent, FILE_NAME, ".tmp");
+		try {
+			Files.write(tempFile, bytes.toByteArray());
+			try {
+				Files.move(tempFile, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, filePath, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+		directory = entries;
+		generation = nextGeneration;
+		slotCount = entries.size();
+		slotCapacity = capacity;
+	}
+
+	/*
+	 * positional channel helpers
+	 */
+	private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		int total = 0;
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position + total);
+			if (read < 0) break;
+			total += read;
+		}
+		return total;
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		long next = position;
+		while (buffer.hasRemaining()) {
+			next += channel.write(buffer, next);
+		}
+	}
+
+	private static int checksum(byte[] bytes) {
+		var crc = new CRC32();
+		crc.update(bytes);
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Encode Record Method
+	 *
+	 * Converts the validators and bank holidays for a year to bytes
+	 *
+	 * @param bank holidays
+	 * @param validators
+	 * @return record bytes
+	 * @throws IOException should not happen when writing to memory
+	 * @since 1.0
+	 */
+	private static byte[] encodeRecord(List<BankHoliday> bankHolidays, HolidayValidators validators) throws IOException {
+		var bytes = new ByteArrayOutputStream();
+		try (var out = new DataOutputStream(bytes)) {
+			writeString(out, validators.etag());
+			writeString(out, validators.lastModified());
+			out.writeShort(bankHolidays.size());
+			for (var bh : bankHolidays) {
+				out.writeInt(bh.getEpochDay());
+				out.writeByte((bh.isFixed() ? FLAG_FIXED : 0) | (bh.isGlobal() ? FLAG_GLOBAL : 0));
+				writeString(out, bh.getLocalName());
+				writeString(out, bh.getName());
+				writeString(out, bh.getCountryCode());
+				writeString(out, bh.getType());
+				out.writeByte(bh.getRegions());
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Decode Holidays Method
+	 *
+	 * Reads the list of bank holidays which follows the validators in a record
+	 *
+	 * @param record stream positioned after the validators
+	 * @return bank holidays
+	 * @throws IOException if the record is badly formed
+	 * @since 1.0
+	 */
+	private static List<BankHoliday> decodeHolidays(DataInputStream in) throws IOException {
+		int count = in.readUnsignedShort();
+		List<BankHoliday> bankHolidays = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int epochDay = in.readInt();
+			int flags = in.readByte();
+			var builder = new BankHoliday.Builder()
+					.epochDay(epochDay)
+					.fixed((flags & FLAG_FIXED) != 0)
+					.global((flags & FLAG_GLOBAL) != 0)
+					.localName(readString(in))
+					.name(readString(in))
+					.countryCode(readString(in))
+					.type(readString(in))
+					.regions(in.readUnsignedByte());
+			bankHolidays.add(builder.build());
+		}
+		return Collections.unmodifiableList(bankHolidays);
+	}
+
+	/*
+	 * nullable string helpers
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) out.writeUTF(value);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	/**
+	 * To String Method
+	 *
+	 * @return string representation of the object
+	 * @since 1.0
+	 */
+	@Override
+	public String toString() {
+		return String.format("BankHolidayDiskStore [path=%s]", filePath);
+	}
+}
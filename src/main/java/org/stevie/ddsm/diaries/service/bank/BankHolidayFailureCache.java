@@ -0,0 +1,135 @@
+/**
+ * <h3>Bank Holiday Failure Cache Class</h3>
+ * 
+ * <p>When the bank holidays for a year cannot be fetched the failure is remembered here as a
+ * negative entry. Until the entry expires any lookup for that year fails straight away instead of
+ * waiting for another network timeout. Each consecutive failure for the same year doubles the
+ * expiry up to a maximum, so a machine that is offline does not keep retrying the REST API.</p>
+ * 
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bank Holiday Failure Cache Class
+ * 
+ * Negative cache with expiry and exponential backoff
+ * 
+ */
+public final class BankHolidayFailureCache {
+
+	/*
+	 * logging
+	 */
+	private static Logger logger = LoggerFactory.getLogger(BankHolidayFailureCache.class);
+
+	/*
+	 * number of consecutive failures and when the year may be fetched again
+	 */
+	private record FailedFetch(int failures, long retryAtNanos) {
+	}
+
+	/*
+	 * failed years
+	 */
+	private final ConcurrentMap<Integer, FailedFetch> failedYears = new ConcurrentHashMap<>();
+
+	/*
+	 * expiry after the first failure and the upper limit of the backoff
+	 */
+	private final Duration initialExpiry;
+	private final Duration maxExpiry;
+
+	/**
+	 * Copy Constructor
+	 * 
+	 * @param expiry after the first failure
+	 * @param maximum expiry after repeated failures
+	 * @since 1.0
+	 */
+	public BankHolidayFailureCache(Duration initialExpiry, Duration maxExpiry) {
+		this.initialExpiry = Objects.requireNonNull(initialExpiry);
+		this.maxExpiry = Objects.requireNonNull(maxExpiry);
+		if (initialExpiry.isNegative() || maxExpiry.compareTo(initialExpiry) < 0)
+			throw new IllegalArgumentException("max expiry should not be less than initial expiry");
+	}
+
+	/**
+	 * Record Failure Method
+	 * 
+	 * Remember that the year could not be fetched. The expiry doubles with each consecutive
+	 * failure.
+	 * 
+	 * @param year that failed
+	 * @since 1.0
+	 */
+	public void recordFailure(int year) {
+		var failed = failedYears.compute(year, (y, previous) -> {
+			int failures = previous == null ? 1 : previous.failures() + 1;
+			return new FailedFetch(failures, System.nanoTime() + expiryFor(failures).toNanos());
+		});
+		logger.warn("Bank holidays for year {} unavailable after {} attempt(s), next attempt in {} seconds", 
+				year, failed.failures(), expiryFor(failed.failures()).toSeconds());
+	}
+
+	/**
+	 * Record Success Method
+	 * 
+	 * Forget any failures for the year
+	 * 
+	 * @param year that was fetched
+	 * @since 1.0
+	 */
+	public void recordSuccess(int year) {
+		failedYears.remove(year);
+	}
+
+	/**
+	 * Retry After Method
+	 * 
+	 * If the year failed recently return how long it is until it may be fetched again.
+	 * 
+	 * @param year
+	 * @return time remaining or empty if the year may be fetched now
+	 * @since 1.0
+	 */
+	public Optional<Duration> retryAfter(int year) {
+		var failed = failedYears.get(year);
+		if (failed == null) return Optional.empty();
+		long remaining = failed.retryAtNanos() - System.nanoTime();
+		return remaining > 0 ? Optional.of(Duration.ofNanos(remaining)) : Optional.empty();
+	}
+
+	/**
+	 * Clear Method
+	 * 
+	 * Forget all failures
+	 * 
+	 * @since 1.0
+	 */
+	public void clear() {
+		failedYears.clear();
+	}
+
+	/**
+	 * Expiry For Method
+	 * 
+	 * @param number of consecutive failures
+	 * @return expiry of the negative entry
+	 * @since 1.0
+	 */
+	private Duration expiryFor(int failures) {
+		var expiry = initialExpiry.multipliedBy(1L << Math.min(failures - 1, 20));
+		return expiry.compareTo(maxExpiry) > 0 ? maxExpiry : expiry;
+	}
+}
@@ -0,0 +1,257 @@
+/**
+ * <h3>Bank Holiday Index Class</h3>
+ *
+ * <p>When the bank holidays for a year are put in the cache they are also compiled into
+ * a day-of-year bit set. Each bit represents one day of the year (366 bits to allow for leap
+ * years). Checking whether a date is a bank holiday is then a single bit test which does not
+ * allocate any objects. There is one bit set for each {@link HolidayRegion}, laid out one after
+ * the other in a single array, so holidays for every region are indexed from the same fetch.
+ * Methods without a region answer for England. The class is immutable once it is constructed.</p>
+ *
+ * <p>An index also records the regions it is complete for. Bank holidays fetched from the REST
+ * API cover every region, those calculated offline only cover England and Wales, and a region
+ * which is not covered has no bank holidays in the index even though it may have some.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Bank Holiday Index Class
+ *
+ * Immutable day-of-year index for the bank holidays in a single year.
+ *
+ */
+public final class BankHolidayIndex {
+
+	/*
+	 * number of days in a leap year
+	 */
+	private static final int DAYS_IN_YEAR = 366;
+
+	/*
+	 * words in the bit set of one region
+	 */
+	private static final int WORDS_PER_REGION = (DAYS_IN_YEAR + Long.SIZE - 1) / Long.SIZE;
+
+	/*
+	 * region answered by the methods without a region
+	 */
+	private static final HolidayRegion DEFAULT_REGION = HolidayRegion.ENGLAND;
+
+	/*
+	 * the year this index applies to
+	 */
+	private final int year;
+
+	/*
+	 * bit n of the words for a region is set if day of year n+1 is a bank holiday in the
+	 * region (6 words = 384 bits per region)
+	 */
+	private final long[] days;
+
+	/*
+	 * mask of the regions the bank holidays were complete for
+	 */
+	private final int coveredRegions;
+
+	/**
+	 * Copy Constructor
+	 *
+	 * Marked private to force users of the class to use the static factory method
+	 *
+	 * @param year of the index
+	 * @param compiled bit set
+	 * @param regions covered
+	 */
+	private BankHolidayIndex(int year, long[] days, int coveredRegions) {
+		this.year = year;
+		this.days = days;
+		this.coveredRegions = coveredRegions;
+	}
+
+	/**
+	 * Static Factory Method
+	 *
+	 * Compiles the bank holidays for a year into a bit set for each region. Any bank holidays 
+	 * which do not fall in the specified year are ignored.
+	 *
+	 * @param bank holidays to compile
+	 * @param year
+	 * @return new bank holiday index
+	 * @since 1.0
+	 */
+	public static BankHolidayIndex of(List<BankHoliday> bankHolidays, int year) {
+		return of(bankHolidays, year, HolidayRegion.ALL);
+	}
+
+	/**
+	 * Static Factory Method
+	 *
+	 * Compiles bank holidays which are only complete for some regions, such as those calculated
+	 * offline.
+	 *
+	 * @param bank holidays to compile
+	 * @param year
+	 * @param mask of the regions the bank holidays are complete for
+	 * @return new bank holiday index
+	 * @since 1.0
+	 */
+	public static BankHolidayIndex of(List<BankHoliday> bankHolidays, int year, int coveredRegions) {
+		Objects.requireNonNull(bankHolidays);
+		var regions = HolidayRegion.values();
+		long[] days = new long[WORDS_PER_REGION * regions.length];
+		var firstDay = LocalDate.ofYearDay(year, 1);
+		long start = firstDay.toEpochDay();
+		int length = firstDay.lengthOfYear();
+		for (BankHoliday bh : bankHolidays) {
+			if (!bh.hasDate()) continue;
+			long bit = bh.getEpochDay() - start;
+			if (bit >= 0 && bit < length) {
+				for (var region : regions) {
+					if (bh.isObservedIn(region)) {
+						days[region.ordinal() * WORDS_PER_REGION + (int) (bit >>> 6)] |= 1L << bit;
+					}
+				}
+			}
+		}
+		return new BankHolidayIndex(year, days, coveredRegions & HolidayRegion.ALL);
+	}
+
+	/**
+	 * Contains Method
+	 *
+	 * Return true if the given date is a bank holiday in England. Dates in other years always
+	 * return false.
+	 *
+	 * @param date to check
+	 * @return true if the date is a bank holiday
+	 * @since 1.0
+	 */
+	public boolean contains(LocalDate date) {
+		return contains(date, DEFAULT_REGION);
+	}
+
+	/**
+	 * Contains Method
+	 *
+	 * Return true if the given date is a bank holiday in the region. Dates in other years 
+	 * always return false.
+	 *
+	 * @param date to check
+	 * @param region
+	 * @return true if the date is a bank holiday in the region
+	 * @since 1.0
+	 */
+	public boolean contains(LocalDate date, HolidayRegion region) {
+		if (date.getYear() != this.year) return false;
+		return containsDayOfYear(date.getDayOfYear(), region);
+	}
+
+	/**
+	 * Contains Day Of Year Method
+	 *
+	 * Return true if the given day of the year (1-366) is a bank holiday in England.
+	 *
+	 * @param day of the year
+	 * @return true if the day is a bank holiday
+	 * @since 1.0
+	 */
+	public boolean containsDayOfYear(int dayOfYear) {
+		return containsDayOfYear(dayOfYear, DEFAULT_REGION);
+	}
+
+	/**
+	 * Contains Day Of Year Method
+	 *
+	 * Return true if the given day of the year (1-366) is a bank holiday in the region.
+	 *
+	 * @param day of the year
+	 * @param region
+	 * @return true if the day is a bank holiday in the region
+	 * @since 1.0
+	 */
+	public boolean containsDayOfYear(int dayOfYear, HolidayRegion region) {
+		int bit = dayOfYear - 1;
+		return (days[region.ordinal() * WORDS_PER_REGION + (bit >>> 6)] & (1L << bit)) != 0;
+	}
+
+	/**
+	 * Same Days Method
+	 *
+	 * Compare the bit set of one region with another index word by word.
+	 *
+	 * @param other index to compare with
+	 * @param region to compare
+	 * @return true if both indexes hold the same bank holidays in the region
+	 * @since 1.0
+	 */
+	boolean sameDays(BankHolidayIndex other, HolidayRegion region) {
+		int first = region.ordinal() * WORDS_PER_REGION;
+		return Arrays.equals(days, first, first + WORDS_PER_REGION, other.days, first, first + WORDS_PER_REGION);
+	}
+
+	/**
+	 * Covers Method
+	 *
+	 * @param region
+	 * @return true if the index is complete for the region
+	 * @since 1.0
+	 */
+	public boolean covers(HolidayRegion region) {
+		return region.in(coveredRegions);
+	}
+
+	/**
+	 * Year Getter
+	 *
+	 * @return the year this index applies to
+	 * @since 1.0
+	 */
+	public int getYear() {
+		return year;
+	}
+
+	/**
+	 * Size Method
+	 *
+	 * @return the number of bank holidays in England in the index
+	 * @since 1.0
+	 */
+	public int size() {
+		return size(DEFAULT_REGION);
+	}
+
+	/**
+	 * Size Method
+	 *
+	 * @param region
+	 * @return the number of bank holidays in the region in the index
+	 * @since 1.0
+	 */
+	public int size(HolidayRegion region) {
+		int count = 0;
+		int first = region.ordinal() * WORDS_PER_REGION;
+		for (int word = first; word < first + WORDS_PER_REGION; word++) {
+			count += Long.bitCount(days[word]);
+		}
+		return count;
+	}
+
+	/**
+	 * To String Method
+	 *
+	 * @return string representation of the object
+	 * @since 1.0
+	 */
+	@Override
+	public String toString() {
+		return String.format("BankHolidayIndex [year=%d, size=%d]", year, size());
+	}
+}
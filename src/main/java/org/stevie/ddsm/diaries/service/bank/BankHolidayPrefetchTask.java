@@ -0,0 +1,150 @@
+/**
+ * <h3>Bank Holiday Prefetch Task</h3>
+ *
+ * <p>The main form lets the user pick a year five years either side of the current year. This task
+ * runs when the main form is loaded and warms the {@link BankHolidayCache} for every year in that
+ * window so that validating the form never has to wait for the REST API. Years are resolved in
+ * parallel with a small concurrency bound through the holiday source chain, on the shared
+ * {@link HolidayFetchExecutor} rather than threads of its own. All of it runs as background
+ * work, so it never holds more than the background share of the executor's permits.
+ * When online, years which are only known from the {@link EnglandWalesHolidayRules} or are due a
+ * refresh are then fetched from the REST API together as one bulk load by the
+ * {@link ReactiveBankHolidayService}, so the whole window costs about one round trip. The task
+ * reports its progress
+ * through the standard {@link javafx.concurrent.Worker} properties.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.stevie.ddsm.diaries.service.internet.InternetService;
+
+import javafx.concurrent.Task;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bank Holiday Prefetch Task
+ *
+ * Subclass of {@link javafx.concurrent.Task}. The value of the task is the number of years
+ * which are in the cache when it finishes.
+ *
+ */
+public final class BankHolidayPrefetchTask extends Task<Integer> {
+
+	/*
+	 * logging
+	 */
+	private static Logger logger = LoggerFactory.getLogger(BankHolidayPrefetchTask.class);
+
+	/*
+	 * year window to prefetch (inclusive)
+	 */
+	private final int firstYear;
+	private final int lastYear;
+
+	/*
+	 * maximum number of years loaded at the same time
+	 */
+	private final int maxConcurrency;
+
+	/**
+	 * Copy Constructor
+	 *
+	 * @param first year to prefetch
+	 * @param last year to prefetch
+	 * @param maximum number of years loaded at the same time
+	 * @throws IllegalArgumentException if the window or concurrency is invalid
+	 * @since 1.0
+	 */
+	public BankHolidayPrefetchTask(int firstYear, int lastYear, int maxConcurrency) {
+		if (lastYear < firstYear)
+			throw new IllegalArgumentException("last year should not be before first year");
+		if (maxConcurrency < 1)
+			throw new IllegalArgumentException("max concurrency should be at least 1");
+		this.firstYear = firstYear;
+		this.lastYear = lastYear;
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/**
+	 * Call Method
+	 *
+	 * Load every year in the window which is not already cached. Years already on disk are
+	 * loaded without a network call and other years are calculated from the offline rules. If
+	 * there is an Internet connection calculated years are then fetched from the REST API in
+	 * one bulk load, with any years which fail logged individually.
+	 *
+	 * @return number of years in the cache
+	 */
+	@Override
+	protected Integer call() throws Exception {
+
+		int total = lastYear - firstYear + 1;
+		updateProgress(0, total);
+		updateMessage("Loading bank holidays...");
+		logger.info("Prefetching bank holidays for years {} to {}", firstYear, lastYear);
+
+		/*
+		 * check the connection once rather than letting every year time out
+		 */
+		boolean online;
+		try {
+			online = InternetService.isInternetAvailable();
+		} catch (IOException e) {
+			online = false;
+		}
+		final boolean fetchOnline = online;
+
+		/*
+		 * resolve every year through the source chain with the same concurrency bound as the
+		 * bulk load. Any I/O runs on the shared holiday fetch executor as background work, this
+		 * thread only counts the results as they arrive.
+		 */
+		int loaded = 0;
+		int done = 0;
+		var resolved = ReactiveBankHolidayService.inBackground(Flux.range(firstYear, total)
+				.flatMap(year -> ReactiveBankHolidayService.resolve(year)
+						.map(index -> true)
+						.onErrorResume(e -> {
+							logger.error("Bank holiday prefetch failed for year {} with exception {}", year, e.toString());
+							return Mono.just(false);
+						}), maxConcurrency));
+		for (boolean inCache : resolved.toIterable()) {
+			if (inCache) loaded++;
+			updateProgress(++done, total);
+			updateMessage(String.format("Bank holidays loaded for %d of %d years", loaded, total));
+			/*
+			 * leaving the loop cancels the years still being resolved
+			 */
+			if (isCancelled()) break;
+		}
+
+		/*
+		 * fetch every year which is missing or only calculated in one merged stream
+		 */
+		if (fetchOnline && !isCancelled()) {
+			updateMessage("Fetching bank holidays...");
+			var results = ReactiveBankHolidayService.inBackground(ReactiveBankHolidayService.loadYears(
+					Flux.range(firstYear, total).filter(year -> !BankHolidayCache.isInCache(year) || BankHolidayCache.isRefreshDue(year)),
+					maxConcurrency)).collectList().block();
+			for (var result : results) {
+				if (!result.loaded()) {
+					logger.warn("Bank holidays for year {} could not be fetched, retry after {}", result.year(), result.retryAfter());
+				}
+			}
+			loaded = (int) IntStream.rangeClosed(firstYear, lastYear).filter(BankHolidayCache::isInCache).count();
+			updateMessage(String.format("Bank holidays loaded for %d of %d years", loaded, total));
+		}
+
+		logger.info("Bank holidays prefetched for {} of {} years", loaded, total);
+		return loaded;
+	}
+
+}
@@ -7,24 +7,35 @@
  * given date is a bank holiday. This allows the main application to reschedule any diary dates 
  * to the following week usually.</p>
  * 
+ * <p>The methods of this class block the calling thread and are kept for the JavaFX edge of 
+ * the application. Code which can compose asynchronous results should use the 
+ * {@link ReactiveBankHolidayService}, which answers the same questions without blocking and
+ * performs the REST fetches for both.</p>
+ * 
  * @author Stephen
  * @version 1.0
  * 
  */
 package org.stevie.ddsm.diaries.service.bank;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.Collections;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javafx.application.Platform;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
 /**
  * Bank Holiday Service Class
  * 
@@ -38,6 +49,40 @@ public final class BankHolidayService {
 	 */
 	private static Logger logger = LoggerFactory.getLogger(BankHolidayService.class);
 
+	/*
+	 * application scoped executor for all bank holiday I/O. Set by {@link BankHolidayConfiguration}
+	 * when the application context starts.
+	 */
+	private static volatile HolidayFetchExecutor fetchExecutor;
+
+	/*
+	 * reactive view of the fetch executor, built once per executor and rebuilt when the
+	 * executor is replaced
+	 */
+	private static volatile Scheduler fetchScheduler;
+	private static volatile Scheduler backgroundFetchScheduler;
+
+	/*
+	 * years which could not be fetched recently. Lookups for these years fail fast until the
+	 * negative entry expires.
+	 */
+	private static volatile BankHolidayFailureCache failureCache = new BankHolidayFailureCache(Duration.ofSeconds(30), Duration.ofMinutes(10));
+
+	/*
+	 * tiers asked for a year in order, cheapest first. Replaced by {@link BankHolidayConfiguration}
+	 * when the application context starts.
+	 */
+	private static volatile HolidaySourceChain sourceChain = HolidaySourceChain.standard(EnglandWalesHolidayRules.withKnownProclamations());
+
+	/*
+	 * Static Constructor
+	 * 
+	 * Years the cache finds due for a refresh are reloaded in the background by the reactive service.
+	 */
+	static {
+		BankHolidayCache.setRefreshHandler(ReactiveBankHolidayService::refreshInBackground);
+	}
+
 	/**
 	 * Default Constructor
 	 * 
@@ -57,109 +102,464 @@ public final class BankHolidayService {
 	 * 
 	 * @param date to check
 	 * @return true if date is on a bank holiday
+	 * @throws BankHolidaysUnavailableException if the bank holidays for the year could not be loaded
 	 * @since 1.0
 	 */
 	public static boolean isBankHoliday(LocalDate date) {
+		return isBankHoliday(date, HolidayRegion.ENGLAND);
+	}
+
+	/**
+	 * Is A Bank Holiday Method
+	 * 
+	 * Return true if given date is a bank holiday in a region. Every region is cached from
+	 * the same fetch. A year calculated offline only covers England and Wales, for the other
+	 * regions the year is fetched from the REST API.
+	 * 
+	 * @param date to check
+	 * @param region to check
+	 * @return true if date is on a bank holiday in the region
+	 * @throws BankHolidaysUnavailableException if the bank holidays for the year could not be loaded
+	 * @since 1.0
+	 */
+	public static boolean isBankHoliday(LocalDate date, HolidayRegion region) {
 		
 		/*
-		 * store year in local variable
+		 * Resolve the year through the source chain. The cheapest tier which has the year 
+		 * answers, usually memory. Every tier returns a compiled day-of-year index so the 
+		 * check is a single bit test.
 		 */
-		int year = date.getYear();
+		return resolveIndex(date.getYear(), region).contains(date, region);
+
+	}
+
+	/**
+	 * Are Bank Holidays Method
+	 * 
+	 * Check a batch of dates in England in one call. The source chain is only consulted when 
+	 * the year changes from one date to the next, so dates grouped by year are resolved once 
+	 * per year.
+	 * 
+	 * @param dates to check
+	 * @return array with true at each position holding a bank holiday
+	 * @throws BankHolidaysUnavailableException if the bank holidays for a year could not be loaded
+	 * @since 1.0
+	 */
+	public static boolean[] areBankHolidays(LocalDate... dates) {
+		return areBankHolidays(HolidayRegion.ENGLAND, dates);
+	}
+
+	/**
+	 * Are Bank Holidays Method
+	 * 
+	 * Check a batch of dates in a region in one call.
+	 * 
+	 * @param region to check
+	 * @param dates to check
+	 * @return array with true at each position holding a bank holiday in the region
+	 * @throws BankHolidaysUnavailableException if the bank holidays for a year could not be loaded
+	 * @since 1.0
+	 */
+	public static boolean[] areBankHolidays(HolidayRegion region, LocalDate... dates) {
+		return areBankHolidays(Arrays.asList(dates), region);
+	}
+
+	/**
+	 * Are Bank Holidays Method
+	 * 
+	 * Check a collection of dates in England in one call, in iteration order.
+	 * 
+	 * @param dates to check
+	 * @return array with true at each position holding a bank holiday
+	 * @throws BankHolidaysUnavailableException if the bank holidays for a year could not be loaded
+	 * @since 1.0
+	 */
+	public static boolean[] areBankHolidays(Collection<LocalDate> dates) {
+		return areBankHolidays(dates, HolidayRegion.ENGLAND);
+	}
+
+	/**
+	 * Are Bank Holidays Method
+	 * 
+	 * Check a collection of dates in a region in one call, in iteration order.
+	 * 
+	 * @param dates to check
+	 * @param region to check
+	 * @return array with true at each position holding a bank holiday in the region
+	 * @throws BankHolidaysUnavailableException if the bank holidays for a year could not be loaded
+	 * @since 1.0
+	 */
+	public static boolean[] areBankHolidays(Collection<LocalDate> dates, HolidayRegion region) {
+		var result = new boolean[dates.size()];
+		BankHolidayIndex index = null;
+		int i = 0;
+		for (var date : dates) {
+			int year = date.getYear();
+			if (index == null || index.getYear() != year) index = resolveIndex(year, region);
+			result[i++] = index.contains(date, region);
+		}
+		return result;
+	}
+
+	/**
+	 * Get Bank Holidays Between Method
+	 * 
+	 * List the bank holidays in England from one date to another, both inclusive, in date order.
+	 * 
+	 * @param first date of the range
+	 * @param last date of the range
+	 * @return bank holidays in the range
+	 * @throws IllegalArgumentException if the range ends before it starts
+	 * @throws BankHolidaysUnavailableException if the bank holidays for a year could not be loaded
+	 * @since 1.0
+	 */
+	public static List<BankHoliday> getBankHolidaysBetween(LocalDate from, LocalDate to) {
+		return getBankHolidaysBetween(from, to, HolidayRegion.ENGLAND);
+	}
+
+	/**
+	 * Get Bank Holidays Between Method
+	 * 
+	 * List the bank holidays in a region from one date to another, both inclusive, in date 
+	 * order. Each year in the range is resolved through the source chain once, and fetched 
+	 * from the REST API if the tier which answered does not cover the region.
+	 * 
+	 * @param first date of the range
+	 * @param last date of the range
+	 * @param region
+	 * @return bank holidays in the range
+	 * @throws IllegalArgumentException if the range ends before it starts
+	 * @throws BankHolidaysUnavailableException if the bank holidays for a year could not be loaded
+	 * @since 1.0
+	 */
+	public static List<BankHoliday> getBankHolidaysBetween(LocalDate from, LocalDate to, HolidayRegion region) {
+		if (to.isBefore(from))
+			throw new IllegalArgumentException("End of range must not be before the start");
+
+		List<BankHoliday> result = new ArrayList<>();
+		long first = from.toEpochDay();
+		long last = to.toEpochDay();
+		for (int year = from.getYear(); year <= to.getYear(); year++) {
+			for (var bh : bankHolidaysForYear(year, region)) {
+				long day = bh.getEpochDay();
+				if (bh.isObservedIn(region) && day >= first && day <= last) result.add(bh);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Find First Non Bank Holiday Method
+	 * 
+	 * Scan the days from one date to another, both inclusive, and return the first which is 
+	 * not a bank holiday in England and matches the condition.
+	 * 
+	 * @param first date to consider
+	 * @param last date to consider
+	 * @param condition the date must also meet, for example a day of the week
+	 * @return first matching date which is not a bank holiday, or empty if there is none
+	 * @throws BankHolidaysUnavailableException if the bank holidays for a year could not be loaded
+	 * @since 1.0
+	 */
+	public static Optional<LocalDate> findFirstNonBankHoliday(LocalDate from, LocalDate to, Predicate<LocalDate> condition) {
+		return findFirstNonBankHoliday(from, to, condition, HolidayRegion.ENGLAND);
+	}
+
+	/**
+	 * Find First Non Bank Holiday Method
+	 * 
+	 * Scan the days from one date to another, both inclusive, and return the first which is 
+	 * not a bank holiday in the region and matches the condition. Each year is resolved once 
+	 * and bank holidays are skipped with a bit test, so a date object is only made for the 
+	 * days the condition is asked about.
+	 * 
+	 * @param first date to consider
+	 * @param last date to consider
+	 * @param condition the date must also meet, for example a day of the week
+	 * @param region to check
+	 * @return first matching date which is not a bank holiday, or empty if there is none
+	 * @throws BankHolidaysUnavailableException if the bank holidays for a year could not be loaded
+	 * @since 1.0
+	 */
+	public static Optional<LocalDate> findFirstNonBankHoliday(LocalDate from, LocalDate to, Predicate<LocalDate> condition, HolidayRegion region) {
+		for (int year = from.getYear(); year <= to.getYear(); year++) {
+			var index = resolveIndex(year, region);
+			int firstDay = year == from.getYear() ? from.getDayOfYear() : 1;
+			int lastDay = year == to.getYear() ? to.getDayOfYear() : Year.of(year).length();
+			for (int day = firstDay; day <= lastDay; day++) {
+				if (index.containsDayOfYear(day, region)) continue;
+				var date = LocalDate.ofYearDay(year, day);
+				if (condition.test(date)) return Optional.of(date);
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Resolve Index Method
+	 * 
+	 * @param year
+	 * @return day-of-year index for the year from the cheapest tier which has it
+	 * @throws BankHolidaysUnavailableException if no tier could answer
+	 * @since 1.0
+	 */
+	private static BankHolidayIndex resolveIndex(int year) {
+		BankHolidayIndex index = sourceChain.resolve(year);
 
 		/*
-		 * Create empty list
+		 * no tier could answer so tell the caller the data is missing
 		 */
-		List<BankHoliday> bankHolidays = Collections.emptyList();
-		
+		if (index == null) {
+			throw new BankHolidaysUnavailableException(year, failureCache.retryAfter(year).orElse(Duration.ZERO));
+		}
+		return index;
+	}
+
+	/**
+	 * Resolve Index Method
+	 * 
+	 * If the year was calculated offline the other regions are fetched from the REST API. 
+	 * The wait is bounded by the fetch budget, and the JavaFX application thread never waits:
+	 * the fetch is started in the background and the year reported unavailable for now.
+	 * 
+	 * @param year
+	 * @param region the index must cover
+	 * @return day-of-year index for the year which is complete for the region
+	 * @throws BankHolidaysUnavailableException if no tier could answer for the region
+	 * @since 1.0
+	 */
+	private static BankHolidayIndex resolveIndex(int year, HolidayRegion region) {
+		var index = resolveIndex(year);
+		if (index.covers(region)) return index;
+
 		/*
-		 * Check if the bank holidays for this year are in the cache
+		 * the year was calculated offline, only the REST API has the other regions
 		 */
-		if (BankHolidayCache.isInCache(year)) { //year is in the cache
-			try {
-				/*
-				 * retrieve the bank holidays from memory
-				 */
-				bankHolidays = BankHolidayCache.getBankHolidaysFromCache(year);
-			} catch (CacheFailureException e) {
-				/*
-				 * This should never happen. Check whether a year is in the cache
-				 * first before attempting to retrieve it. Log the error. 
-				 */
-				logger.error("Cache retrieval failed for year {}", year);
-			}
+		var fetch = ReactiveBankHolidayService.fetchFromRest(year);
+		if (Platform.isFxApplicationThread()) {
+			logger.warn("Bank holidays for year {} in {} are not cached, fetching them in the background", year, region);
+			fetch.subscribe(fetched -> { }, e -> logger.error("Background fetch of bank holidays for year {} failed - {}", year, e.toString()));
+			throw new BankHolidaysUnavailableException(year, failureCache.retryAfter(year).orElse(Duration.ZERO));
 		}
-		else { //year is not in the cache
+		BankHolidayIndex fetched;
+		try {
+			fetched = fetch.block(FetchBankHolidaysTask.getPolicy().budget());
+		} catch (IllegalStateException e) {
 			/*
-			 * create the background task to fetch thye bank holidays from the REST
-			 * API
+			 * the budget ran out while waiting
 			 */
-			FetchBankHolidaysTask task = new FetchBankHolidaysTask(year);
-			
+			fetched = null;
+		}
+		if (fetched == null || !fetched.covers(region)) {
+			throw new BankHolidaysUnavailableException(year, failureCache.retryAfter(year).orElse(Duration.ZERO));
+		}
+		return fetched;
+	}
+
+	/**
+	 * Bank Holidays For Year Method
+	 * 
+	 * Resolving the year puts it in memory. If the year is evicted again before its list is 
+	 * read it is resolved once more rather than failing the caller.
+	 * 
+	 * @param year
+	 * @param region the bank holidays must cover
+	 * @return bank holidays for the year in date order, resolved through the source chain
+	 * @throws BankHolidaysUnavailableException if no tier could answer for the region
+	 * @since 1.0
+	 */
+	private static List<BankHoliday> bankHolidaysForYear(int year, HolidayRegion region) {
+		for (int attempt = 1; ; attempt++) {
+			resolveIndex(year, region);
+			var bankHolidays = BankHolidayCache.peekBankHolidays(year);
+			if (bankHolidays != null) return bankHolidays;
+			if (attempt == 2) {
+				throw new BankHolidaysUnavailableException(year, failureCache.retryAfter(year).orElse(Duration.ZERO));
+			}
+			logger.warn("Bank holidays for year {} were evicted before they were read, resolving them again", year);
+		}
+	}
+
+	/**
+	 * Get Source Statistics Method
+	 * 
+	 * @return hit and latency counters for each tier of the source chain
+	 * @since 1.0
+	 */
+	public static List<HolidaySourceStatistics> getSourceStatistics() {
+		return sourceChain.getStatistics();
+	}
+
+	/**
+	 * Set Source Chain Method
+	 * 
+	 * Called by {@link BankHolidayConfiguration} with the chain built from application.properties.
+	 * 
+	 * @param holiday source chain
+	 * @since 1.0
+	 */
+	static void setSourceChain(HolidaySourceChain chain) {
+		sourceChain = Objects.requireNonNull(chain);
+	}
+
+	/**
+	 * Get Source Chain Method
+	 * 
+	 * @return tiers the bank holidays are resolved through
+	 * @since 1.0
+	 */
+	static HolidaySourceChain getSourceChain() {
+		return sourceChain;
+	}
+
+	/**
+	 * Get Failure Cache Method
+	 * 
+	 * @return negative cache for failed years
+	 * @since 1.0
+	 */
+	static BankHolidayFailureCache getFailureCache() {
+		return failureCache;
+	}
+
+	/**
+	 * Set Failure Cache Method
+	 * 
+	 * Called by {@link BankHolidayConfiguration} with the expiry settings from application.properties.
+	 * 
+	 * @param negative cache for failed years
+	 * @since 1.0
+	 */
+	static void setFailureCache(BankHolidayFailureCache cache) {
+		failureCache = Objects.requireNonNull(cache);
+	}
+
+	/**
+	 * Set Fetch Executor Method
+	 * 
+	 * Called by {@link BankHolidayConfiguration} when the application context starts.
+	 * 
+	 * @param application scoped executor
+	 * @since 1.0
+	 */
+	static void setFetchExecutor(HolidayFetchExecutor executor) {
+		synchronized (BankHolidayService.class) {
+			var previous = fetchScheduler;
+			var previousBackground = backgroundFetchScheduler;
+			fetchExecutor = executor;
+			fetchScheduler = executor == null ? null : Schedulers.fromExecutor(executor);
+			backgroundFetchScheduler = executor == null ? null : Schedulers.fromExecutor(executor.background());
 			/*
-			 * if the background task fails log an error
+			 * disposing the old schedulers does not shut down their executor
 			 */
-			task.setOnFailed(ev -> {
-				logger.error("Bank holiday task failed while trying to retrieve bank holidays for year {} ", year);
-			});
-			
-			try (ExecutorService executor = Executors.newCachedThreadPool()) {
-				/*
-				 * submit the task
-				 */
-				executor.submit(task);
-				/*
-				 * retrieve the result. If it takes longer than ten seconds throw 
-				 * a {@link TimeoutException}
-				 */
-				bankHolidays = task.get(10, TimeUnit.SECONDS);
-			} catch (InterruptedException e) {
-				/*
-				 * Thrown when a thread is waiting, sleeping, or otherwise occupied
-			 	 * and the thread is interrupted.
-				 */
-				logger.error("Bank holiday task cancelled while trying to retrieve bank holidays for year {}", year);
-				Thread.currentThread().interrupt();
-			} catch (ExecutionException e) {
-				/*
-				 * Exception thrown when attempting to retrieve the result of a task 
-				 * that aborted by throwing an exception. This exception can be inspected using 
-				 * the {@link #getCause()} method.
-				 */
-				logger.error("Bank holiday task failed while trying to retrieve bank holidays for year {}", year);
-			} catch (TimeoutException e) {
-				/*
-				 * Exception thrown when a blocking operation times out.  Blocking
-				 * operations for which a timeout is specified need a means to
-				 * indicate that the timeout has occurred. 
-				 */
-				logger.error("Bank holiday task timed out while trying to retrieve bank holidays for year {}", year);
+			if (previous != null) previous.dispose();
+			if (previousBackground != null) previousBackground.dispose();
+		}
+	}
+
+	/**
+	 * Get Fetch Executor Method
+	 * 
+	 * Returns the executor used for all bank holiday I/O. If the service is used without a 
+	 * Spring application context a default executor is created on first use.
+	 * 
+	 * @return application scoped executor
+	 * @since 1.0
+	 */
+	public static HolidayFetchExecutor getFetchExecutor() {
+		var executor = fetchExecutor;
+		if (executor == null) {
+			synchronized (BankHolidayService.class) {
+				executor = fetchExecutor;
+				if (executor == null) {
+					executor = new HolidayFetchExecutor(4);
+					fetchExecutor = executor;
+				}
 			}
-			
 		}
-		/*
-		 * check if the date is in the list of bank holiday using JDK 8 lambda expression
-		 */
-		return bankHolidays.stream().anyMatch(bh -> bh.getDate().isEqual(date));
+		return executor;
+	}
+
+	/**
+	 * Get Fetch Scheduler Method
+	 * 
+	 * Reactive code schedules its bank holiday I/O through this scheduler so that it runs on
+	 * the shared {@link HolidayFetchExecutor} and is counted by its gauges. The scheduler is 
+	 * created once for the current executor.
+	 * 
+	 * @return scheduler backed by the application scoped executor
+	 * @since 1.0
+	 */
+	static Scheduler getFetchScheduler() {
+		var scheduler = fetchScheduler;
+		if (scheduler == null) {
+			synchronized (BankHolidayService.class) {
+				scheduler = fetchScheduler;
+				if (scheduler == null) {
+					scheduler = Schedulers.fromExecutor(getFetchExecutor());
+					fetchScheduler = scheduler;
+				}
+			}
+		}
+		return scheduler;
+	}
 
+	/**
+	 * Get Background Fetch Scheduler Method
+	 * 
+	 * Like {@link #getFetchScheduler()} but the work is submitted as background work, which only
+	 * gets the background share of the executor's permits.
+	 * 
+	 * @return scheduler backed by the background view of the application scoped executor
+	 * @since 1.0
+	 */
+	static Scheduler getBackgroundFetchScheduler() {
+		var scheduler = backgroundFetchScheduler;
+		if (scheduler == null) {
+			synchronized (BankHolidayService.class) {
+				scheduler = backgroundFetchScheduler;
+				if (scheduler == null) {
+					scheduler = Schedulers.fromExecutor(getFetchExecutor().background());
+					backgroundFetchScheduler = scheduler;
+				}
+			}
+		}
+		return scheduler;
 	}
 
 	/**
 	 * Get Next Non Bank Holiday Method
 	 * 
-	 * Loop through dates by week until we find a date which is not a bank holiday.
-	 * Uses imperative style.
+	 * Loop through dates by week until we find a date which is not a bank holiday in England.
 	 * 
 	 * @param bank holiday date
 	 * @return next non bank holiday
+	 * @throws BankHolidaysUnavailableException if the bank holidays for the year could not be loaded
 	 */
 	public static LocalDate getNextNonBankHoliday(LocalDate bankHoliday) {
+		return getNextNonBankHoliday(bankHoliday, HolidayRegion.ENGLAND);
+	}
+
+	/**
+	 * Get Next Non Bank Holiday Method
+	 * 
+	 * Loop through dates by week until we find a date which is not a bank holiday in the 
+	 * region. The year is resolved once and the loop stops when it leaves the month.
+	 * 
+	 * @param bank holiday date
+	 * @param region to check
+	 * @return next non bank holiday
+	 * @throws BankHolidaysUnavailableException if the bank holidays for the year could not be loaded
+	 */
+	public static LocalDate getNextNonBankHoliday(LocalDate bankHoliday, HolidayRegion region) {
 		int storeMonth = bankHoliday.getMonthValue();
+		var index = resolveIndex(bankHoliday.getYear(), region);
 		var currentDate = bankHoliday;
 		/*
 		 * loop through until the next non bank holiday
 		 * is found
 		 */
-		while (isBankHoliday(currentDate) && currentDate.getMonthValue() == storeMonth) {
+		while (currentDate.getMonthValue() == storeMonth && index.contains(currentDate, region)) {
 			currentDate = currentDate.plusWeeks(1L);
 		}
 		return currentDate;
@@ -0,0 +1,67 @@
+/**
+ * Bank Holidays Unavailable Exception Class
+ * 
+ * Unchecked exception thrown when the bank holidays for a year are not in the cache and could
+ * not be fetched. Rather than treating every date in the year as a normal working day the caller
+ * is told that the data is missing so the user can input the bank holidays manually.
+ * 
+ * @author Stephen
+ * @version 1.0
+ * 
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.Duration;
+
+/**
+ * Bank Holidays Unavailable Exception Class
+ * 
+ * Thrown when the bank holidays for a year cannot be loaded
+ * 
+ */
+public final class BankHolidaysUnavailableException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * information applicable to this exception 
+	 */
+	private final int year;
+	private final Duration retryAfter;
+
+	/**
+	 * Copy Constructor
+	 * 
+	 * Constructor must be called with the year that could not be loaded and how long it will be
+	 * before the bank holidays are fetched again.
+	 *  
+	 * @param year
+	 * @param time until the next fetch attempt
+	 * @since 1.0
+	 */
+	public BankHolidaysUnavailableException(int year, Duration retryAfter) {
+		super(String.format("Bank holidays for year %d are not available, next attempt in %d seconds", year, retryAfter.toSeconds()));
+		this.year = year;
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * Year Getter
+	 * 
+	 * @return year
+	 * @since 1.0
+	 */
+	public int getYear() {
+		return this.year;
+	}
+
+	/**
+	 * Retry After Getter
+	 * 
+	 * @return time until the bank holidays are fetched again
+	 * @since 1.0
+	 */
+	public Duration getRetryAfter() {
+		return this.retryAfter;
+	}
+}
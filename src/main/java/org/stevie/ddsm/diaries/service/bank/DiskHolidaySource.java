@@ -0,0 +1,60 @@
+/**
+ * <h3>Disk Holiday Source Class</h3>
+ *
+ * <p>Second tier of the holiday source chain. Reads a year back from the
+ * {@link BankHolidayDiskStore} behind the cache and puts it in memory.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Disk Holiday Source Class
+ *
+ * Holiday source backed by the persistent tier of the cache.
+ *
+ */
+public final class DiskHolidaySource implements HolidaySource {
+
+	/**
+	 * Name Method
+	 *
+	 * @return source name
+	 * @since 1.0
+	 */
+	@Override
+	public String name() {
+		return "disk";
+	}
+
+	/**
+	 * Resolve Method
+	 *
+	 * @param year
+	 * @return index read from disk or null if the year is not on disk
+	 * @since 1.0
+	 */
+	@Override
+	public BankHolidayIndex resolve(int year) {
+		return BankHolidayCache.getBankHolidayIndexFromDisk(year);
+	}
+
+	/**
+	 * Resolve Async Method
+	 *
+	 * The store file is read on the shared holiday fetch executor so the caller's thread is
+	 * never blocked on disk I/O.
+	 *
+	 * @param year
+	 * @return index read from disk or empty if the year is not on disk
+	 * @since 1.0
+	 */
+	@Override
+	public Mono<BankHolidayIndex> resolveAsync(int year) {
+		return Mono.deferContextual(context -> Mono.fromSupplier(() -> resolve(year))
+				.subscribeOn(ReactiveBankHolidayService.fetchScheduler(context)));
+	}
+}
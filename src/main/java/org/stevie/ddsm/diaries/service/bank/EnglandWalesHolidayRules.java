@@ -0,0 +1,332 @@
+/**
+ * <h3>England And Wales Holiday Rules Class</h3>
+ *
+ * <p>Calculates the bank holidays in England and Wales from the rules in the Banking and Financial
+ * Dealings Act 1971 and the royal proclamations made under it, without any network or file access.
+ * It is used when the REST API cannot be reached so that diaries can still be generated offline.</p>
+ *
+ * <p>The regular holidays are New Year's Day, Good Friday and Easter Monday (worked out from the
+ * date of Easter), the first Monday in May, the last Monday in May, the last Monday in August,
+ * Christmas Day and Boxing Day. When New Year's Day, Christmas Day or Boxing Day falls at a weekend
+ * the holiday is taken on the next weekday which is not already a holiday. One-off holidays and
+ * moved holidays announced by proclamation are added with {@link #addProclamation(Proclamation)},
+ * those already announced are included by {@link #withKnownProclamations()}.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * England And Wales Holiday Rules Class
+ *
+ * Offline source of bank holidays for the years the application accepts.
+ *
+ */
+public final class EnglandWalesHolidayRules {
+
+	/*
+	 * range of years the rules are used for, the same range the main form accepts
+	 */
+	public static final int FIRST_YEAR = 2000;
+	public static final int LAST_YEAR = 2500;
+
+	/*
+	 * fields given to every calculated bank holiday so they match the REST API data
+	 */
+	private static final String COUNTRY_CODE = "GB";
+	private static final String TYPE = "Public";
+	private static final int REGIONS = HolidayRegion.ENGLAND.bit() | HolidayRegion.WALES.bit();
+
+	/*
+	 * one-off and moved holidays
+	 */
+	private final List<Proclamation> proclamations = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Proclamation Record
+	 *
+	 * A bank holiday announced by royal proclamation. If the proclamation moves a regular
+	 * holiday the date it replaces is given, otherwise it is an extra holiday.
+	 *
+	 * @param date of the holiday
+	 * @param name of the holiday
+	 * @param replaces date of the regular holiday which is moved, or null
+	 */
+	public record Proclamation(LocalDate date, String name, LocalDate replaces) {
+
+		/**
+		 * Compact Constructor
+		 *
+		 * @throws IllegalArgumentException if a moved holiday changes year
+		 * @since 1.0
+		 */
+		public Proclamation {
+			Objects.requireNonNull(date);
+			Objects.requireNonNull(name);
+			if (replaces != null && replaces.getYear() != date.getYear())
+				throw new IllegalArgumentException("a holiday can only be moved within the same year");
+		}
+
+		/**
+		 * Static Factory Method
+		 *
+		 * @param date of the extra holiday
+		 * @param name of the holiday
+		 * @return new proclamation
+		 * @since 1.0
+		 */
+		public static Proclamation extra(LocalDate date, String name) {
+			return new Proclamation(date, name, null);
+		}
+
+		/**
+		 * Static Factory Method
+		 *
+		 * @param date of the regular holiday
+		 * @param new date of the holiday
+		 * @param name of the holiday
+		 * @return new proclamation
+		 * @since 1.0
+		 */
+		public static Proclamation moved(LocalDate from, LocalDate to, String name) {
+			return new Proclamation(to, name, from);
+		}
+	}
+
+	/**
+	 * Default Constructor
+	 *
+	 * Rules without any proclamations
+	 *
+	 * @since 1.0
+	 */
+	public EnglandWalesHolidayRules() {
+
+	}
+
+	/**
+	 * Static Factory Method
+	 *
+	 * Rules including the proclamations made since 2000.
+	 *
+	 * @return new rules
+	 * @since 1.0
+	 */
+	public static EnglandWalesHolidayRules withKnownProclamations() {
+		var rules = new EnglandWalesHolidayRules();
+		rules.addProclamation(Proclamation.moved(LocalDate.of(2002, 5, 27), LocalDate.of(2002, 6, 4), "Spring Bank Holiday"));
+		rules.addProclamation(Proclamation.extra(LocalDate.of(2002, 6, 3), "Golden Jubilee Bank Holiday"));
+		rules.addProclamation(Proclamation.extra(LocalDate.of(2011, 4, 29), "Royal Wedding Bank Holiday"));
+		rules.addProclamation(Proclamation.moved(LocalDate.of(2012, 5, 28), LocalDate.of(2012, 6, 4), "Spring Bank Holiday"));
+		rules.addProclamation(Proclamation.extra(LocalDate.of(2012, 6, 5), "Diamond Jubilee Bank Holiday"));
+		rules.addProclamation(Proclamation.moved(LocalDate.of(2020, 5, 4), LocalDate.of(2020, 5, 8), "Early May Bank Holiday (VE Day)"));
+		rules.addProclamation(Proclamation.moved(LocalDate.of(2022, 5, 30), LocalDate.of(2022, 6, 2), "Spring Bank Holiday"));
+		rules.addProclamation(Proclamation.extra(LocalDate.of(2022, 6, 3), "Platinum Jubilee Bank Holiday"));
+		rules.addProclamation(Proclamation.extra(LocalDate.of(2022, 9, 19), "State Funeral of Queen Elizabeth II"));
+		rules.addProclamation(Proclamation.extra(LocalDate.of(2023, 5, 8), "Coronation of King Charles III"));
+		return rules;
+	}
+
+	/**
+	 * Add Proclamation Method
+	 *
+	 * Add a one-off or moved holiday. It is included the next time the year is calculated, years
+	 * already in the cache are not changed.
+	 *
+	 * @param proclamation
+	 * @since 1.0
+	 */
+	public void addProclamation(Proclamation proclamation) {
+		proclamations.add(Objects.requireNonNull(proclamation));
+	}
+
+	/**
+	 * Get Proclamations Method
+	 *
+	 * @return the proclamations used by these rules
+	 * @since 1.0
+	 */
+	public List<Proclamation> getProclamations() {
+		return Collections.unmodifiableList(proclamations);
+	}
+
+	/**
+	 * Supports Method
+	 *
+	 * @param year
+	 * @return true if the rules can calculate the year
+	 * @since 1.0
+	 */
+	public boolean supports(int year) {
+		return year >= FIRST_YEAR && year <= LAST_YEAR;
+	}
+
+	/**
+	 * Regions Getter
+	 *
+	 * @return mask of the regions the calculated bank holidays are complete for
+	 * @since 1.0
+	 */
+	public int getRegions() {
+		return REGIONS;
+	}
+
+	/**
+	 * Bank Holidays For Method
+	 *
+	 * Calculate the bank holidays for a year in ascending date order.
+	 *
+	 * @param year
+	 * @return bank holidays for the year
+	 * @throws IllegalArgumentException if the year is outside the supported range
+	 * @since 1.0
+	 */
+	public List<BankHoliday> bankHolidaysFor(int year) {
+		if (!supports(year))
+			throw new IllegalArgumentException(String.format("Year should be between %d and %d", FIRST_YEAR, LAST_YEAR));
+
+		List<BankHoliday> bankHolidays = new ArrayList<>(12);
+
+		/*
+		 * Easter based holidays
+		 */
+		var easter = easterSunday(year);
+		add(bankHolidays, easter.minusDays(2), "Good Friday");
+		add(bankHolidays, easter.plusDays(1), "Easter Monday");
+
+		/*
+		 * Monday holidays
+		 */
+		add(bankHolidays, LocalDate.of(year, Month.MAY, 1).with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY)), "Early May Bank Holiday");
+		add(bankHolidays, LocalDate.of(year, Month.MAY, 1).with(TemporalAdjusters.lastInMonth(DayOfWeek.MONDAY)), "Spring Bank Holiday");
+		add(bankHolidays, LocalDate.of(year, Month.AUGUST, 1).with(TemporalAdjusters.lastInMonth(DayOfWeek.MONDAY)), "Summer Bank Holiday");
+
+		/*
+		 * proclamations for the year, moved holidays replace the regular date
+		 */
+		for (var proclamation : proclamations) {
+			if (proclamation.date().getYear() != year) continue;
+			if (proclamation.replaces() != null) {
+				bankHolidays.removeIf(bh -> bh.getDate().equals(proclamation.replaces()));
+			}
+			add(bankHolidays, proclamation.date(), proclamation.name());
+		}
+
+		/*
+		 * fixed date holidays. Those on a weekday keep their date, then those at a weekend are
+		 * given substitute days, so Boxing Day on a Monday stays on the Monday when Christmas
+		 * Day is a Sunday.
+		 */
+		LocalDate[] fixedDates = {
+				LocalDate.of(year, Month.JANUARY, 1),
+				LocalDate.of(year, Month.DECEMBER, 25),
+				LocalDate.of(year, Month.DECEMBER, 26)};
+		String[] fixedNames = {"New Year's Day", "Christmas Day", "Boxing Day"};
+		for (int i = 0; i < fixedDates.length; i++) {
+			if (!isWeekend(fixedDates[i])) add(bankHolidays, fixedDates[i], fixedNames[i]);
+		}
+		for (int i = 0; i < fixedDates.length; i++) {
+			if (isWeekend(fixedDates[i])) addSubstitute(bankHolidays, fixedDates[i], fixedNames[i]);
+		}
+
+		bankHolidays.sort(Comparator.comparing(BankHoliday::getDate));
+		return Collections.unmodifiableList(bankHolidays);
+	}
+
+	/**
+	 * Easter Sunday Method
+	 *
+	 * Date of Easter Sunday in the Gregorian calendar (anonymous Gregorian algorithm).
+	 *
+	 * @param year
+	 * @return Easter Sunday
+	 * @since 1.0
+	 */
+	static LocalDate easterSunday(int year) {
+		int a = year % 19;
+		int b = year / 100;
+		int c = year % 100;
+		int d = b / 4;
+		int e = b % 4;
+		int f = (b + 8) / 25;
+		int g = (b - f + 1) / 3;
+		int h = (19 * a + b - d - g + 15) % 30;
+		int i = c / 4;
+		int k = c % 4;
+		int l = (32 + 2 * e + 2 * i - h - k) % 7;
+		int m = (a + 11 * h + 22 * l) / 451;
+		int month = (h + l - 7 * m + 114) / 31;
+		int day = (h + l - 7 * m + 114) % 31 + 1;
+		return LocalDate.of(year, month, day);
+	}
+
+	/**
+	 * Add Substitute Method
+	 *
+	 * Add the substitute day for a fixed date holiday which falls on a Saturday or Sunday. It
+	 * is taken on the next weekday which is not already a holiday.
+	 *
+	 * @param bank holidays so far
+	 * @param date of the holiday
+	 * @param name of the holiday
+	 * @since 1.0
+	 */
+	private static void addSubstitute(List<BankHoliday> bankHolidays, LocalDate date, String name) {
+		var observed = date;
+		while (isWeekend(observed) || contains(bankHolidays, observed)) {
+			observed = observed.plusDays(1);
+		}
+		add(bankHolidays, observed, name);
+	}
+
+	/*
+	 * helpers
+	 */
+	private static boolean isWeekend(LocalDate date) {
+		var day = date.getDayOfWeek();
+		return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+	}
+
+	private static boolean contains(List<BankHoliday> bankHolidays, LocalDate date) {
+		for (var bh : bankHolidays) {
+			if (bh.getDate().equals(date)) return true;
+		}
+		return false;
+	}
+
+	private static void add(List<BankHoliday> bankHolidays, LocalDate date, String name) {
+		bankHolidays.add(new BankHoliday.Builder()
+				.date(date)
+				.localName(name)
+				.name(name)
+				.countryCode(COUNTRY_CODE)
+				.fixed(false)
+				.global(false)
+				.regions(REGIONS)
+				.type(TYPE)
+				.build());
+	}
+
+	/**
+	 * To String Method
+	 *
+	 * @return string representation of the object
+	 * @since 1.0
+	 */
+	@Override
+	public String toString() {
+		return String.format("EnglandWalesHolidayRules [years=%d-%d, proclamations=%d]", FIRST_YEAR, LAST_YEAR, proclamations.size());
+	}
+}
@@ -11,16 +11,20 @@
 */
 package org.stevie.ddsm.diaries.service.bank;
 
-import java.util.Comparator;
+import java.time.Duration;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import javafx.concurrent.Task;
-import reactor.netty.http.client.HttpClient;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 /**
  * Fetch Bank Holiday Class
@@ -37,37 +41,29 @@ public final class FetchBankHolidaysTask extends Task<List<BankHoliday>> {
 	private static Logger logger = LoggerFactory.getLogger(FetchBankHolidaysTask.class);
 
 	/*
-	 * reactive version of RestTemplate which is no longer supported. It is used to make 
-	 * network calls to nager date api
+	 * client for the nager date api, shared by all tasks. The default client is only created
+	 * when it is first needed, and closed here when it is replaced as nothing else owns it.
 	 */
-	private static WebClient webClient;
-	
+	private static volatile NagerDateClient client;
+	private static boolean ownsClient;
+
 	/*
-	 * the year to fetch holidays for
+	 * timeouts and retries for every request, and the breaker shared by all requests
 	 */
-	private Integer year;
+	private static volatile HolidayFetchPolicy policy = HolidayFetchPolicy.DEFAULT;
+	private static volatile HolidayCircuitBreaker circuitBreaker = new HolidayCircuitBreaker(5, Duration.ofSeconds(30));
 
 	/*
-	 * Static Constructor
-	 * 
-	 * Ensure the web client is only created once when the class is first used.
+	 * counters
 	 */
-	static {
-		
-		/*
-		 * create the http client
-		 */
-		HttpClient httpClient = HttpClient.create()
-				.doOnConnected(conn -> logger.info("Connected to internet!"));
-
-		/*
-		 * create the web client
-		 */
-		webClient = WebClient.builder()
-				.baseUrl("https://date.nager.at/api/v3")
-		        .clientConnector(new ReactorClientHttpConnector(httpClient))
-		        .build();	
-	}
+	private static final LongAdder attempts = new LongAdder();
+	private static final LongAdder retries = new LongAdder();
+	private static final LongAdder failures = new LongAdder();
+	
+	/*
+	 * the year to fetch holidays for
+	 */
+	private Integer year;
 
 	/**
 	 * Copy Constructor
@@ -82,45 +78,303 @@ public final class FetchBankHolidaysTask extends Task<List<BankHoliday>> {
 		this.year = year;
 	}
 	
+	/**
+	 * Set Client Method
+	 * 
+	 * Replace the client used by all tasks. Called by {@link BankHolidayConfiguration}. The
+	 * caller stays responsible for closing the client. If the client being replaced is the
+	 * default one made by this class its connection pool is released.
+	 * 
+	 * @param nager date client
+	 * @since 1.0
+	 */
+	static void setClient(NagerDateClient client) {
+		Objects.requireNonNull(client);
+		replaceClient(client);
+	}
+
+	/**
+	 * Reset Client Method
+	 * 
+	 * Go back to the default client, which is created again when it is next needed.
+	 * 
+	 * @since 1.0
+	 */
+	static void resetClient() {
+		replaceClient(null);
+	}
+
+	/**
+	 * Get Client Method
+	 * 
+	 * @return the client used by all tasks, the default client is created on first use
+	 * @since 1.0
+	 */
+	public static NagerDateClient getClient() {
+		var current = client;
+		if (current != null) return current;
+		synchronized (FetchBankHolidaysTask.class) {
+			if (client == null) {
+				client = NagerDateClient.create(NagerDateClient.DEFAULT_BASE_URL);
+				ownsClient = true;
+			}
+			return client;
+		}
+	}
+
+	/**
+	 * Peek Client Method
+	 * 
+	 * Like {@link #getClient()} but never creates the default client.
+	 * 
+	 * @return the client used by all tasks, or null if none has been created yet
+	 * @since 1.0
+	 */
+	public static NagerDateClient peekClient() {
+		return client;
+	}
+
+	/**
+	 * Replace Client Method
+	 * 
+	 * @param new client, or null for the default client
+	 * @since 1.0
+	 */
+	private static void replaceClient(NagerDateClient replacement) {
+		NagerDateClient owned;
+		synchronized (FetchBankHolidaysTask.class) {
+			owned = ownsClient ? client : null;
+			client = replacement;
+			ownsClient = false;
+		}
+		if (owned != null && owned != replacement) {
+			owned.close();
+		}
+	}
+
+	/**
+	 * Set Policy Method
+	 * 
+	 * Called by {@link BankHolidayConfiguration} with the settings from application.properties.
+	 * 
+	 * @param timeouts and retries
+	 * @since 1.0
+	 */
+	static void setPolicy(HolidayFetchPolicy policy) {
+		FetchBankHolidaysTask.policy = Objects.requireNonNull(policy);
+	}
+
+	/**
+	 * Get Policy Method
+	 * 
+	 * @return timeouts and retries used for every request
+	 * @since 1.0
+	 */
+	static HolidayFetchPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Set Circuit Breaker Method
+	 * 
+	 * Called by {@link BankHolidayConfiguration} with the settings from application.properties.
+	 * 
+	 * @param circuit breaker
+	 * @since 1.0
+	 */
+	static void setCircuitBreaker(HolidayCircuitBreaker breaker) {
+		FetchBankHolidaysTask.circuitBreaker = Objects.requireNonNull(breaker);
+	}
+
+	/**
+	 * Get Circuit Breaker Method
+	 * 
+	 * @return the breaker shared by all requests
+	 * @since 1.0
+	 */
+	public static HolidayCircuitBreaker getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	/**
+	 * Get Statistics Method
+	 * 
+	 * @return attempt, retry and breaker counters
+	 * @since 1.0
+	 */
+	public static HolidayFetchStatistics getStatistics() {
+		var breaker = circuitBreaker;
+		return new HolidayFetchStatistics(breaker.getState(), attempts.sum(), retries.sum(), failures.sum(),
+				breaker.getRejectedCount(), breaker.getOpenedCount());
+	}
+
 	/**
 	 * Call Method
 	 * 
-	 * Overrides the {@link javafx.concurrent.Task#call()} method. It makes an http request to
-	 * the nager date rest api. It waits for the json response which is converted into a 
-	 * reactor flux. The flux is filtered to include only bank holidays in England. These
-	 * are then sorted into ascending date order. If this is successful the bank holidays
-	 * are put in memory for subsequent access. If there is a fault an error is written to the log file.
+	 * Overrides the {@link javafx.concurrent.Task#call()} method. Blocks the background thread
+	 * until {@link #fetch(int)} completes, for callers at the JavaFX edge of the application.
+	 * Every region is cached but only the bank holidays in England are returned.
 	 * 
-	 * @return a list of bank holidays for specified year 
+	 * @return a list of bank holidays in England for specified year 
 	 * 
 	 */
 	@Override
 	protected List<BankHoliday> call() throws Exception {
-		
-		/*
-		 * log message
-		 */
-		logger.info("Retrieving bank holidays for year {}", this.year);
-		
-		/*
-		 * rest api call
-		 */
-		return webClient.get()
-				.uri("/PublicHolidays/{year}/GB", this.year).accept(MediaType.APPLICATION_JSON)
-				.retrieve()
-			    .bodyToFlux(BankHoliday.class)
-			    .filter(bh -> {
-			        	if (bh.getCounties() == null) return true;
-			        	for (var county : bh.getCounties()) {
-			        		if (county.contains("GB-ENG")) 
-			        			return true;
-			        	}
-			        	return false;
-			        })
-			    .collectSortedList(Comparator.comparing(BankHoliday::getDate))
-			    .doOnSuccess(list -> BankHolidayCache.putBankHolidaysInCache(list, this.year))
-			    .doOnError(e -> logger.error("Error retrieving bank holidays from REST API exception was {}", e))
-			    .block();
+		return fetch(this.year)
+				.map(list -> list.stream().filter(bh -> bh.isObservedIn(HolidayRegion.ENGLAND)).toList())
+				.block();
+	}
+
+	/**
+	 * Fetch Method
+	 * 
+	 * It makes an http request to the nager date rest api. If the year is already cached the 
+	 * request is conditional on the validators sent with the cached copy. A 304 Not Modified 
+	 * response only extends the lifetime of the cached copy, nothing is read or rebuilt. If
+	 * the copy was evicted in the meantime it is read back from disk, or if that is gone too
+	 * the year is requested once more without validators. 
+	 * Otherwise the json response is converted into the bank holidays in every region in 
+	 * ascending date order, which are put in memory for subsequent access. The cache is updated 
+	 * on the thread which received the response, it only changes memory and queues the disk 
+	 * write on the shared {@link HolidayFetchExecutor}. Hopping to that executor here could 
+	 * deadlock a caller blocking on the fetch while holding one of its permits. 
+	 * 
+	 * Each attempt is limited by the attempt timeout of the {@link HolidayFetchPolicy} and 
+	 * transient failures are retried with jittered exponential backoff. If the circuit breaker
+	 * is open the fetch fails straight away with a {@link BankHolidaysUnavailableException}.
+	 * If there is a fault an error is written to the log file.
+	 * 
+	 * @param the year to fetch the bank holidays for
+	 * @return a list of bank holidays for specified year, nothing happens until it is subscribed to
+	 * @since 1.0
+	 */
+	static Mono<List<BankHoliday>> fetch(int year) {
+		return Mono.defer(() -> request(year, BankHolidayCache.getValidators(year)))
+			.flatMap(result -> {
+				if (result.isNotModified()) {
+					var kept = revalidated(year);
+					if (kept != null) return Mono.just(kept);
+					/*
+					 * the copy the server confirmed has gone from memory and disk, so ask for
+					 * the whole document once more through the same breaker and retries
+					 */
+					logger.warn("Bank holidays for year {} left the cache during revalidation, fetching them again", year);
+					return request(year, HolidayValidators.NONE).map(full -> cached(year, full));
+				}
+				return Mono.just(cached(year, result));
+			})
+			.doOnError(e -> logger.error("Error retrieving bank holidays from REST API exception was {}", e.toString()));
+	}
+
+	/**
+	 * Request Method
+	 * 
+	 * One request for a year as seen by the circuit breaker: acquire the breaker, make the 
+	 * attempts with their timeout and backoff and record the outcome in the breaker.
+	 * 
+	 * @param the year to fetch the bank holidays for
+	 * @param validators to send with the request
+	 * @return result of the request, nothing happens until it is subscribed to
+	 * @since 1.0
+	 */
+	private static Mono<HolidayFetchResult> request(int year, HolidayValidators validators) {
+		return Mono.defer(() -> {
+			
+			/*
+			 * fail fast while the API is known to be down
+			 */
+			var breaker = circuitBreaker;
+			if (!breaker.tryAcquire()) {
+				return Mono.error(new BankHolidaysUnavailableException(year, breaker.retryAfter()));
+			}
+			
+			/*
+			 * log message
+			 */
+			logger.info("Retrieving bank holidays for year {}", year);
+			
+			/*
+			 * rest api call, each attempt with its own timeout
+			 */
+			var fetchPolicy = policy;
+			var fetchClient = getClient();
+			return Mono.defer(() -> {
+						attempts.increment();
+						return fetchClient.fetchPublicHolidays(year, validators);
+					})
+					.timeout(fetchPolicy.attemptTimeout())
+					.retryWhen(Retry.backoff(fetchPolicy.maxRetries(), fetchPolicy.initialBackoff())
+							.maxBackoff(fetchPolicy.maxBackoff())
+							.jitter(fetchPolicy.jitter())
+							.filter(FetchBankHolidaysTask::isTransient)
+							.doBeforeRetry(signal -> {
+								retries.increment();
+								logger.warn("Retrying bank holidays for year {} after {}", year, signal.failure().toString());
+							})
+							.onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+					.doOnSuccess(result -> breaker.recordSuccess())
+					.doOnError(e -> {
+						failures.increment();
+						/*
+						 * only failures which say the API is unhealthy count against the breaker,
+						 * any answer from the server shows it is up
+						 */
+						if (isTransient(e)) breaker.recordFailure();
+						else breaker.recordSuccess();
+					})
+					/*
+					 * a cancelled request says nothing about the API, a caller whose budget
+					 * runs out records the failure itself
+					 */
+					.doOnCancel(breaker::release);
+		});
+	}
+
+	/**
+	 * Revalidated Method
+	 * 
+	 * Extend the lifetime of a year the server answered with 304 Not Modified. If the year was
+	 * evicted from memory while the request was made it is read back from the disk store first.
+	 * 
+	 * @param year
+	 * @return bank holidays of the year, or null if the year is no longer cached anywhere
+	 * @since 1.0
+	 */
+	private static List<BankHoliday> revalidated(int year) {
+		if (BankHolidayCache.extendLifetime(year) || (BankHolidayCache.getBankHolidayIndexFromDisk(year) != null && BankHolidayCache.extendLifetime(year))) {
+			return BankHolidayCache.peekBankHolidays(year);
+		}
+		return null;
+	}
+
+	/**
+	 * Cached Method
+	 * 
+	 * @param year
+	 * @param result of a request which returned the bank holidays
+	 * @return bank holidays of the year, now in the cache
+	 * @since 1.0
+	 */
+	private static List<BankHoliday> cached(int year, HolidayFetchResult result) {
+		BankHolidayCache.putBankHolidaysInCache(result.bankHolidays(), year, result.validators());
+		return result.bankHolidays();
+	}
+
+	/**
+	 * Is Transient Method
+	 * 
+	 * @param failure of a request
+	 * @return true if the failure may go away on a retry: a timeout, a connection error, or a
+	 * 429 or 5xx response
+	 * @since 1.0
+	 */
+	static boolean isTransient(Throwable e) {
+		if (e instanceof TimeoutException || e instanceof WebClientRequestException) return true;
+		if (e instanceof WebClientResponseException response) {
+			int status = response.getStatusCode().value();
+			return status == 429 || status >= 500;
+		}
+		return false;
 	}
 
 }
@@ -0,0 +1,251 @@
+/**
+ * <h3>Gov.uk Holiday Importer Class</h3>
+ *
+ * <p>Imports the bank-holidays.json document published by gov.uk, which lists the bank holidays
+ * of every division (England and Wales, Scotland and Northern Ireland) for several years in one
+ * file. A local copy lets machines with no Internet access fill the cache for every year it
+ * covers.</p>
+ *
+ * <p>The document is read with the Jackson streaming parser one token at a time, so no tree of
+ * the whole file is built. Each event is added straight to the holidays of its year and a holiday
+ * observed by more than one division becomes one {@link BankHoliday} for all of its regions. When
+ * the document has been read every year is put in the {@link BankHolidayCache}.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Gov.uk Holiday Importer Class
+ *
+ * Streaming reader for the gov.uk bank holidays document.
+ *
+ */
+public final class GovUkHolidayImporter {
+
+	/*
+	 * logging
+	 */
+	private static Logger logger = LoggerFactory.getLogger(GovUkHolidayImporter.class);
+
+	/*
+	 * parsers are created from one shared factory
+	 */
+	private static final JsonFactory jsonFactory = new JsonFactory();
+
+	/*
+	 * fields given to every imported bank holiday so they match the REST API data
+	 */
+	private static final String COUNTRY_CODE = "GB";
+	private static final String TYPE = "Public";
+
+	/**
+	 * Holiday Key Record
+	 *
+	 * Identifies a holiday within a year so that divisions observing the same holiday share it
+	 *
+	 * @param epochDay date of the holiday
+	 * @param title name of the holiday
+	 */
+	private record HolidayKey(int epochDay, String title) {
+	}
+
+	/**
+	 * Private Constructor
+	 *
+	 * Static methods only
+	 *
+	 * @since 1.0
+	 */
+	private GovUkHolidayImporter() {
+
+	}
+
+	/**
+	 * Import Into Cache Method
+	 *
+	 * Read the document and put the bank holidays of every year it covers in the cache. Years
+	 * already in the cache are replaced.
+	 *
+	 * @param stream of the gov.uk document, not closed by this method
+	 * @return bank holidays in every region keyed by year
+	 * @throws IOException if the stream cannot be read or is not a gov.uk document
+	 * @since 1.0
+	 */
+	public static SortedMap<Integer, List<BankHoliday>> importIntoCache(InputStream in) throws IOException {
+		var years = read(in);
+		years.forEach((year, holidays) -> BankHolidayCache.putBankHolidaysInCache(holidays, year));
+		logger.info("Imported gov.uk bank holidays for {} year(s)", years.size());
+		return years;
+	}
+
+	/**
+	 * Read Method
+	 *
+	 * Read the document without touching the cache.
+	 *
+	 * @param stream of the gov.uk document, not closed by this method
+	 * @return bank holidays in every region in ascending date order keyed by year
+	 * @throws IOException if the stream cannot be read or is not a gov.uk document
+	 * @since 1.0
+	 */
+	public static SortedMap<Integer, List<BankHoliday>> read(InputStream in) throws IOException {
+		/*
+		 * regions of each holiday, built up as the divisions are read
+		 */
+		var regionsByYear = new TreeMap<Integer, Map<HolidayKey, Integer>>();
+
+		try (JsonParser parser = jsonFactory.createParser(in)) {
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+
+			/*
+			 * the top level object holds one object per division
+			 */
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String division = parser.currentName();
+				expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+				int regions = regionsOf(division);
+				if (regions == 0) {
+					logger.warn("Skipping unknown gov.uk division {}", division);
+					parser.skipChildren();
+					continue;
+				}
+				readDivision(parser, regions, regionsByYear);
+			}
+			expect(parser, parser.currentToken(), JsonToken.END_OBJECT);
+		}
+
+		/*
+		 * build the holidays of each year in date order
+		 */
+		var years = new TreeMap<Integer, List<BankHoliday>>();
+		regionsByYear.forEach((year, holidays) -> years.put(year, holidays.entrySet().stream()
+				.map(entry -> new BankHoliday.Builder()
+						.epochDay(entry.getKey().epochDay())
+						.localName(entry.getKey().title())
+						.name(entry.getKey().title())
+						.countryCode(COUNTRY_CODE)
+						.global(entry.getValue() == HolidayRegion.ALL)
+						.regions(entry.getValue())
+						.type(TYPE)
+						.build())
+				.sorted(Comparator.comparingInt(BankHoliday::getEpochDay))
+				.toList()));
+		return years;
+	}
+
+	/**
+	 * Read Division Method
+	 *
+	 * Read the events of one division, the parser is positioned at the start of its object
+	 *
+	 * @param parser
+	 * @param regions the division covers
+	 * @param holiday regions keyed by year, added to
+	 * @throws IOException if the document is malformed
+	 * @since 1.0
+	 */
+	private static void readDivision(JsonParser parser, int regions, Map<Integer, Map<HolidayKey, Integer>> regionsByYear) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.currentName();
+			JsonToken value = parser.nextToken();
+			if (!"events".equals(field)) {
+				parser.skipChildren();
+				continue;
+			}
+			expect(parser, value, JsonToken.START_ARRAY);
+			while (parser.nextToken() == JsonToken.START_OBJECT) {
+				readEvent(parser, regions, regionsByYear);
+			}
+			expect(parser, parser.currentToken(), JsonToken.END_ARRAY);
+		}
+		expect(parser, parser.currentToken(), JsonToken.END_OBJECT);
+	}
+
+	/**
+	 * Read Event Method
+	 *
+	 * Read one event and record its division against the holiday
+	 *
+	 * @param parser positioned at the start of the event object
+	 * @param regions the division covers
+	 * @param holiday regions keyed by year, added to
+	 * @throws IOException if the event has no title or date
+	 * @since 1.0
+	 */
+	private static void readEvent(JsonParser parser, int regions, Map<Integer, Map<HolidayKey, Integer>> regionsByYear) throws IOException {
+		String title = null;
+		String date = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.currentName();
+			parser.nextToken();
+			switch (field) {
+				case "title" -> title = parser.getValueAsString();
+				case "date" -> date = parser.getValueAsString();
+				default -> parser.skipChildren();
+			}
+		}
+		if (title == null || date == null)
+			throw new JsonParseException(parser, "gov.uk event without a title or date");
+
+		LocalDate holidayDate;
+		try {
+			holidayDate = LocalDate.parse(date);
+		} catch (DateTimeParseException e) {
+			throw new JsonParseException(parser, "invalid gov.uk event date " + date, e);
+		}
+		regionsByYear.computeIfAbsent(holidayDate.getYear(), year -> new LinkedHashMap<>())
+			.merge(new HolidayKey(Math.toIntExact(holidayDate.toEpochDay()), title.strip()), regions, (a, b) -> a | b);
+	}
+
+	/**
+	 * Regions Of Method
+	 *
+	 * @param gov.uk division name
+	 * @return mask of the regions the division covers, zero if it is not known
+	 * @since 1.0
+	 */
+	private static int regionsOf(String division) {
+		return switch (division) {
+			case "england-and-wales" -> HolidayRegion.ENGLAND.bit() | HolidayRegion.WALES.bit();
+			case "scotland" -> HolidayRegion.SCOTLAND.bit();
+			case "northern-ireland" -> HolidayRegion.NORTHERN_IRELAND.bit();
+			default -> 0;
+		};
+	}
+
+	/**
+	 * Expect Method
+	 *
+	 * @param parser
+	 * @param token found
+	 * @param token the document should have
+	 * @throws JsonParseException if they differ
+	 * @since 1.0
+	 */
+	private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws JsonParseException {
+		if (actual != expected)
+			throw new JsonParseException(parser, "not a gov.uk bank holidays document, expected " + expected + " but found " + actual);
+	}
+}
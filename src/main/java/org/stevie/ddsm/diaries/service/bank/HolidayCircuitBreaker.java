@@ -0,0 +1,245 @@
+/**
+ * <h3>Holiday Circuit Breaker Class</h3>
+ *
+ * <p>Protects the application from a REST API which is down or hanging. The breaker starts
+ * closed and lets every request through. After a number of consecutive transient failures it
+ * opens and requests are refused straight away, so lookups fall through to the other holiday
+ * sources instead of waiting for more timeouts. Once the open duration has passed the breaker is
+ * half open and lets a single trial request through: if it succeeds the breaker closes, otherwise
+ * it opens again.</p>
+ *
+ * <p>Unlike the {@link BankHolidayFailureCache}, which remembers failures per year, the breaker
+ * covers the API as a whole.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holiday Circuit Breaker Class
+ *
+ * Consecutive failure circuit breaker for the REST API.
+ *
+ */
+public final class HolidayCircuitBreaker {
+
+	/*
+	 * logging
+	 */
+	private static Logger logger = LoggerFactory.getLogger(HolidayCircuitBreaker.class);
+
+	/**
+	 * State Enum
+	 *
+	 * Whether requests are let through
+	 */
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	/*
+	 * settings
+	 */
+	private final int failureThreshold;
+	private final Duration openDuration;
+	private final LongSupplier nanoTime;
+
+	/*
+	 * state, guarded by this
+	 */
+	private State state = State.CLOSED;
+	private int consecutiveFailures;
+	private long openedAtNanos;
+	private boolean trialInFlight;
+
+	/*
+	 * counters
+	 */
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder opened = new LongAdder();
+
+	/**
+	 * Copy Constructor
+	 *
+	 * @param number of consecutive failures which opens the breaker
+	 * @param how long the breaker stays open before a trial request
+	 * @throws IllegalArgumentException if the settings are invalid
+	 * @since 1.0
+	 */
+	public HolidayCircuitBreaker(int failureThreshold, Duration openDuration) {
+		this(failureThreshold, openDuration, System::nanoTime);
+	}
+
+	/**
+	 * Copy Constructor
+	 *
+	 * @param number of consecutive failures which opens the breaker
+	 * @param how long the breaker stays open before a trial request
+	 * @param source of the time in nanoseconds
+	 * @since 1.0
+	 */
+	HolidayCircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoTime) {
+		if (failureThreshold < 1)
+			throw new IllegalArgumentException("failure threshold should be at least 1");
+		if (openDuration.isNegative())
+			throw new IllegalArgumentException("open duration should not be negative");
+		this.failureThreshold = failureThreshold;
+		this.openDuration = openDuration;
+		this.nanoTime = Objects.requireNonNull(nanoTime);
+	}
+
+	/**
+	 * Try Acquire Method
+	 *
+	 * Ask to make a request. A half open breaker lets one trial request through at a time.
+	 * Every caller which is given permission must later call {@link #recordSuccess()},
+	 * {@link #recordFailure()} or {@link #release()}.
+	 *
+	 * @return true if the request may be made
+	 * @since 1.0
+	 */
+	public synchronized boolean tryAcquire() {
+		if (state == State.OPEN && nanoTime.getAsLong() - openedAtNanos >= openDuration.toNanos()) {
+			state = State.HALF_OPEN;
+		}
+		if (state == State.CLOSED) return true;
+		if (state == State.HALF_OPEN && !trialInFlight) {
+			trialInFlight = true;
+			return true;
+		}
+		rejected.increment();
+		return false;
+	}
+
+	/**
+	 * Is Call Permitted Method
+	 *
+	 * Like {@link #tryAcquire()} but does not take the trial request of a half open breaker.
+	 * Used to skip the REST API before joining or starting a fetch. A refusal is counted as a
+	 * rejected request.
+	 *
+	 * @return true if a request would probably be let through
+	 * @since 1.0
+	 */
+	public synchronized boolean isCallPermitted() {
+		boolean permitted = switch (state) {
+			case CLOSED -> true;
+			case OPEN -> nanoTime.getAsLong() - openedAtNanos >= openDuration.toNanos();
+			case HALF_OPEN -> !trialInFlight;
+		};
+		if (!permitted) rejected.increment();
+		return permitted;
+	}
+
+	/**
+	 * Record Success Method
+	 *
+	 * The API answered, so the breaker closes.
+	 *
+	 * @since 1.0
+	 */
+	public synchronized void recordSuccess() {
+		if (state != State.CLOSED) {
+			logger.info("Bank holiday API reachable again, closing circuit breaker");
+		}
+		state = State.CLOSED;
+		consecutiveFailures = 0;
+		trialInFlight = false;
+	}
+
+	/**
+	 * Record Failure Method
+	 *
+	 * A request failed with a transient error. A failed trial, or reaching the failure
+	 * threshold, opens the breaker.
+	 *
+	 * @since 1.0
+	 */
+	public synchronized void recordFailure() {
+		consecutiveFailures++;
+		trialInFlight = false;
+		if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+			logger.warn("Bank holiday API failed {} time(s) in a row, opening circuit breaker for {} seconds",
+					consecutiveFailures, openDuration.toSeconds());
+			state = State.OPEN;
+			openedAtNanos = nanoTime.getAsLong();
+			opened.increment();
+		}
+	}
+
+	/**
+	 * Release Method
+	 *
+	 * A request was abandoned before the API answered, for example because its caller
+	 * cancelled it. Nothing is learned about the API so no failure is counted, a trial request
+	 * of a half open breaker is given up so another one can be made.
+	 *
+	 * @since 1.0
+	 */
+	public synchronized void release() {
+		trialInFlight = false;
+	}
+
+	/**
+	 * Retry After Method
+	 *
+	 * @return time until an open breaker lets a trial request through, zero if it is not open
+	 * @since 1.0
+	 */
+	public synchronized Duration retryAfter() {
+		if (state != State.OPEN) return Duration.ZERO;
+		long remaining = openDuration.toNanos() - (nanoTime.getAsLong() - openedAtNanos);
+		return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+	}
+
+	/**
+	 * State Getter
+	 *
+	 * @return current state
+	 * @since 1.0
+	 */
+	public synchronized State getState() {
+		return state;
+	}
+
+	/**
+	 * Get Rejected Count Method
+	 *
+	 * @return number of requests refused while the breaker was open
+	 * @since 1.0
+	 */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	/**
+	 * Get Opened Count Method
+	 *
+	 * @return number of times the breaker has opened
+	 * @since 1.0
+	 */
+	public long getOpenedCount() {
+		return opened.sum();
+	}
+
+	/**
+	 * To String Method
+	 *
+	 * @return string representation of the object
+	 * @since 1.0
+	 */
+	@Override
+	public synchronized String toString() {
+		return String.format("HolidayCircuitBreaker [state=%s, failureThreshold=%d, openDuration=%s, opened=%d, rejected=%d]",
+				state, failureThreshold, openDuration, getOpenedCount(), getRejectedCount());
+	}
+}
@@ -0,0 +1,280 @@
+/**
+ * <h3>Holiday Fetch Executor Class</h3>
+ *
+ * <p>All bank holiday I/O in the application is submitted to a single executor. Each task runs
+ * on its own virtual thread so a task blocked on the network does not tie up a platform thread.
+ * The number of tasks running at the same time is bounded by a semaphore, tasks waiting for a
+ * permit are counted as queued. Background work such as the prefetch of the main form and the
+ * write behind of the cache is submitted through {@link #background()}, which only lets it hold
+ * half of the permits so that lookups the user is waiting for are never queued behind it.
+ * The executor is created as a Spring bean by
+ * {@link BankHolidayConfiguration} and shut down when the application stops.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holiday Fetch Executor Class
+ *
+ * Application scoped, bounded executor for bank holiday I/O built on virtual threads.
+ *
+ */
+public final class HolidayFetchExecutor implements Executor, AutoCloseable {
+
+	/*
+	 * logging
+	 */
+	private static Logger logger = LoggerFactory.getLogger(HolidayFetchExecutor.class);
+
+	/*
+	 * how long to wait for running tasks when shutting down
+	 */
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 5L;
+
+	/*
+	 * one virtual thread per submitted task
+	 */
+	private final ExecutorService executor;
+
+	/*
+	 * limits the number of tasks running at the same time
+	 */
+	private final Semaphore permits;
+
+	/*
+	 * maximum number of tasks running at the same time
+	 */
+	private final int maxConcurrency;
+
+	/*
+	 * limits the share of the permits background tasks can hold
+	 */
+	private final Semaphore backgroundPermits;
+
+	/*
+	 * view of this executor which submits background tasks
+	 */
+	private final Executor background = this::executeInBackground;
+
+	/*
+	 * gauges: tasks waiting for a permit and tasks currently running
+	 */
+	private final AtomicInteger queuedTasks = new AtomicInteger();
+	private final AtomicInteger activeTasks = new AtomicInteger();
+
+	/**
+	 * Copy Constructor
+	 *
+	 * Creates the executor with the given concurrency bound
+	 *
+	 * @param maximum number of tasks running at the same time
+	 * @throws IllegalArgumentException if max concurrency is less than 1
+	 * @since 1.0
+	 */
+	public HolidayFetchExecutor(int maxConcurrency) {
+		if (maxConcurrency < 1)
+			throw new IllegalArgumentException("max concurrency should be at least 1");
+		this.maxConcurrency = maxConcurrency;
+		this.permits = new Semaphore(maxConcurrency, true);
+		this.backgroundPermits = new Semaphore(Math.max(1, maxConcurrency / 2), true);
+		this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("holiday-fetch-", 0).factory());
+	}
+
+	/**
+	 * Execute Method
+	 *
+	 * Submit a task for execution. The method returns immediately, the task waits on its own
+	 * virtual thread until a permit is available.
+	 *
+	 * @param task to run
+	 * @throws RejectedExecutionException if the executor has been shut down
+	 * @since 1.0
+	 */
+	@Override
+	public void execute(Runnable command) {
+		submit(command, false);
+	}
+
+	/**
+	 * Execute In Background Method
+	 *
+	 * Submit a task nobody is waiting for. It is queued like any other task but only runs
+	 * while fewer than half of the permits are held by background tasks, the other half is
+	 * always left for interactive lookups.
+	 *
+	 * @param task to run
+	 * @throws RejectedExecutionException if the executor has been shut down
+	 * @since 1.0
+	 */
+	public void executeInBackground(Runnable command) {
+		submit(command, true);
+	}
+
+	/**
+	 * Background Method
+	 *
+	 * @return executor which submits its tasks through {@link #executeInBackground(Runnable)}
+	 * @since 1.0
+	 */
+	public Executor background() {
+		return background;
+	}
+
+	/**
+	 * Submit Method
+	 *
+	 * @param task to run
+	 * @param true if the task should be limited to the background share of the permits
+	 * @throws RejectedExecutionException if the executor has been shut down
+	 * @since 1.0
+	 */
+	private void submit(Runnable command, boolean inBackground) {
+		Objects.requireNonNull(command);
+		queuedTasks.incrementAndGet();
+		try {
+			executor.execute(() -> runWithPermit(command, inBackground));
+		} catch (RejectedExecutionException e) {
+			queuedTasks.decrementAndGet();
+			throw e;
+		}
+	}
+
+	/**
+	 * Run With Permit Method
+	 *
+	 * Runs on the virtual thread. Waits for a permit, runs the task and keeps the gauges up to date.
+	 *
+	 * Background tasks take a background permit first, so they queue for the shared permits
+	 * no more than the background share at a time.
+	 *
+	 * @param task to run
+	 * @param true if the task should be limited to the background share of the permits
+	 * @since 1.0
+	 */
+	private void runWithPermit(Runnable command, boolean inBackground) {
+		try {
+			if (inBackground) backgroundPermits.acquire();
+			try {
+				permits.acquire();
+			} catch (InterruptedException e) {
+				if (inBackground) backgroundPermits.release();
+				throw e;
+			}
+		} catch (InterruptedException e) {
+			/*
+			 * the executor is shutting down before the task started
+			 */
+			queuedTasks.decrementAndGet();
+			Thread.currentThread().interrupt();
+			return;
+		}
+		queuedTasks.decrementAndGet();
+		activeTasks.incrementAndGet();
+		try {
+			command.run();
+		} finally {
+			activeTasks.decrementAndGet();
+			permits.release();
+			if (inBackground) backgroundPermits.release();
+		}
+	}
+
+	/**
+	 * Queue Depth Gauge
+	 *
+	 * @return number of tasks waiting for a permit
+	 * @since 1.0
+	 */
+	public int getQueueDepth() {
+		return queuedTasks.get();
+	}
+
+	/**
+	 * Active Task Gauge
+	 *
+	 * @return number of tasks currently running
+	 * @since 1.0
+	 */
+	public int getActiveTaskCount() {
+		return activeTasks.get();
+	}
+
+	/**
+	 * Max Concurrency Getter
+	 *
+	 * @return maximum number of tasks running at the same time
+	 * @since 1.0
+	 */
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/**
+	 * Background Concurrency Getter
+	 *
+	 * @return maximum number of background tasks running at the same time
+	 * @since 1.0
+	 */
+	public int getBackgroundConcurrency() {
+		return Math.max(1, maxConcurrency / 2);
+	}
+
+	/**
+	 * Is Shutdown Method
+	 *
+	 * @return true if the executor has been shut down
+	 * @since 1.0
+	 */
+	public boolean isShutdown() {
+		return executor.isShutdown();
+	}
+
+	/**
+	 * Close Method
+	 *
+	 * Stops accepting new tasks and waits a few seconds for running tasks to finish. Any tasks
+	 * still running after that are interrupted. Calling this method more than once has no effect.
+	 *
+	 * @since 1.0
+	 */
+	@Override
+	public void close() {
+		if (executor.isShutdown()) return;
+		logger.info("Shutting down holiday fetch executor (queued={}, active={})", getQueueDepth(), getActiveTaskCount());
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				logger.warn("Holiday fetch tasks still running after {} seconds, interrupting them", SHUTDOWN_TIMEOUT_SECONDS);
+				executor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * To String Method
+	 *
+	 * @return string representation of the object
+	 * @since 1.0
+	 */
+	@Override
+	public String toString() {
+		return String.format("HolidayFetchExecutor [maxConcurrency=%d, queued=%d, active=%d]", maxConcurrency, getQueueDepth(), getActiveTaskCount());
+	}
+}
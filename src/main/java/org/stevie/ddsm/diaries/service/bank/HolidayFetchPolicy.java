@@ -0,0 +1,59 @@
+/**
+ * <h3>Holiday Fetch Policy Record</h3>
+ *
+ * <p>Settings which control how a request to the REST API copes with a slow or failing server.
+ * Each attempt is abandoned after the attempt timeout. Transient failures (timeouts, connection
+ * errors, 429 and 5xx responses) are retried a bounded number of times with exponential backoff
+ * and random jitter, so many clients failing at once do not retry in step. The whole fetch,
+ * including retries, must finish within the budget.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Holiday Fetch Policy Record
+ *
+ * @param attemptTimeout longest a single request may take
+ * @param maxRetries number of retries after the first attempt
+ * @param initialBackoff delay before the first retry, doubled for each further retry
+ * @param maxBackoff upper limit of the delay between retries
+ * @param jitter fraction (0-1) of each delay which is randomised
+ * @param budget longest the whole fetch may take including retries
+ */
+public record HolidayFetchPolicy(Duration attemptTimeout, int maxRetries, Duration initialBackoff, Duration maxBackoff,
+		double jitter, Duration budget) {
+
+	/*
+	 * policy used until the application context configures the fetch
+	 */
+	public static final HolidayFetchPolicy DEFAULT = new HolidayFetchPolicy(Duration.ofSeconds(3), 2,
+			Duration.ofMillis(200), Duration.ofSeconds(2), 0.5, Duration.ofSeconds(10));
+
+	/**
+	 * Compact Constructor
+	 *
+	 * @throws IllegalArgumentException if the settings are invalid
+	 * @since 1.0
+	 */
+	public HolidayFetchPolicy {
+		Objects.requireNonNull(attemptTimeout);
+		Objects.requireNonNull(initialBackoff);
+		Objects.requireNonNull(maxBackoff);
+		Objects.requireNonNull(budget);
+		if (attemptTimeout.isZero() || attemptTimeout.isNegative())
+			throw new IllegalArgumentException("attempt timeout should be positive");
+		if (maxRetries < 0)
+			throw new IllegalArgumentException("max retries should not be negative");
+		if (maxBackoff.compareTo(initialBackoff) < 0)
+			throw new IllegalArgumentException("max backoff should not be less than initial backoff");
+		if (jitter < 0.0 || jitter > 1.0)
+			throw new IllegalArgumentException("jitter should be between 0 and 1");
+		if (budget.compareTo(attemptTimeout) < 0)
+			throw new IllegalArgumentException("budget should not be less than the attempt timeout");
+	}
+}
@@ -0,0 +1,42 @@
+/**
+ * <h3>Holiday Fetch Result Record</h3>
+ *
+ * <p>The outcome of a request to the REST API for one year. Either the bank holidays were sent,
+ * together with any validators for the next request, or the server answered 304 Not Modified
+ * and the copy already in the cache is still current.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.util.List;
+
+/**
+ * Holiday Fetch Result Record
+ *
+ * @param bankHolidays the bank holidays sent by the server, or null if they were not modified
+ * @param validators validators to send with the next request for the year
+ */
+public record HolidayFetchResult(List<BankHoliday> bankHolidays, HolidayValidators validators) {
+
+	/**
+	 * Static Factory Method
+	 *
+	 * @return result for a 304 Not Modified response
+	 * @since 1.0
+	 */
+	public static HolidayFetchResult notModified() {
+		return new HolidayFetchResult(null, HolidayValidators.NONE);
+	}
+
+	/**
+	 * Is Not Modified Method
+	 *
+	 * @return true if the server answered 304 Not Modified
+	 * @since 1.0
+	 */
+	public boolean isNotModified() {
+		return bankHolidays == null;
+	}
+}
@@ -0,0 +1,37 @@
+/**
+ * <h3>Holiday Fetch Statistics Record</h3>
+ *
+ * <p>A point in time copy of the counters kept for requests to the REST API: how many attempts
+ * were made, how many of them were retries, how many fetches failed after their retries, and the
+ * state of the {@link HolidayCircuitBreaker}.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+/**
+ * Holiday Fetch Statistics Record
+ *
+ * @param breakerState state of the circuit breaker
+ * @param attempts requests sent to the API
+ * @param retries attempts which were retries of a failed attempt
+ * @param failures fetches which failed after any retries
+ * @param rejected fetches refused because the breaker was open
+ * @param breakerOpened number of times the breaker has opened
+ */
+public record HolidayFetchStatistics(HolidayCircuitBreaker.State breakerState, long attempts, long retries, long failures,
+		long rejected, long breakerOpened) {
+
+	/**
+	 * To String Method
+	 *
+	 * @return string representation of the object
+	 * @since 1.0
+	 */
+	@Override
+	public String toString() {
+		return String.format("HolidayFetchStatistics [breakerState=%s, attempts=%d, retries=%d, failures=%d, rejected=%d, breakerOpened=%d]",
+				breakerState, attempts, retries, failures, rejected, breakerOpened);
+	}
+}
@@ -0,0 +1,66 @@
+/**
+ * <h3>Holiday Http Client Settings Record</h3>
+ *
+ * <p>Settings for the reactor-netty client used to reach the REST API. Connections are pooled
+ * and kept alive between requests so a bulk load or background refresh does not pay for a new
+ * TCP and TLS handshake per year. Idle connections are evicted before the server is likely to
+ * drop them, responses are requested gzip compressed, and both connecting and waiting for a
+ * response are bounded by a timeout.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Holiday Http Client Settings Record
+ *
+ * @param maxConnections size of the connection pool
+ * @param pendingAcquireMaxCount requests which may wait for a pooled connection
+ * @param pendingAcquireTimeout longest a request waits for a pooled connection
+ * @param maxIdleTime idle connections older than this are closed
+ * @param maxLifeTime connections older than this are closed once released
+ * @param evictionInterval how often idle connections are evicted in the background, zero for never
+ * @param connectTimeout longest a connection may take to open
+ * @param responseTimeout longest to wait for the response once the request is sent
+ * @param compress true to ask for gzip compressed responses
+ */
+public record HolidayHttpClientSettings(int maxConnections, int pendingAcquireMaxCount, Duration pendingAcquireTimeout,
+		Duration maxIdleTime, Duration maxLifeTime, Duration evictionInterval, Duration connectTimeout,
+		Duration responseTimeout, boolean compress) {
+
+	/*
+	 * settings used until the application context configures the client
+	 */
+	public static final HolidayHttpClientSettings DEFAULT = new HolidayHttpClientSettings(8, 64, Duration.ofSeconds(5),
+			Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofSeconds(2),
+			Duration.ofSeconds(3), true);
+
+	/**
+	 * Compact Constructor
+	 *
+	 * @throws IllegalArgumentException if the settings are invalid
+	 * @since 1.0
+	 */
+	public HolidayHttpClientSettings {
+		Objects.requireNonNull(pendingAcquireTimeout);
+		Objects.requireNonNull(maxIdleTime);
+		Objects.requireNonNull(maxLifeTime);
+		Objects.requireNonNull(evictionInterval);
+		Objects.requireNonNull(connectTimeout);
+		Objects.requireNonNull(responseTimeout);
+		if (maxConnections < 1)
+			throw new IllegalArgumentException("max connections should be at least 1");
+		if (pendingAcquireMaxCount < 1)
+			throw new IllegalArgumentException("pending acquire max count should be at least 1");
+		if (maxIdleTime.isZero() || maxIdleTime.isNegative() || maxLifeTime.isZero() || maxLifeTime.isNegative())
+			throw new IllegalArgumentException("connection idle and life times should be positive");
+		if (evictionInterval.isNegative())
+			throw new IllegalArgumentException("eviction interval should not be negative");
+		if (connectTimeout.isZero() || connectTimeout.isNegative() || responseTimeout.isZero() || responseTimeout.isNegative())
+			throw new IllegalArgumentException("connect and response timeouts should be positive");
+	}
+}
@@ -0,0 +1,46 @@
+/**
+ * <h3>Holiday Load Result Record</h3>
+ *
+ * <p>The outcome for one year of a bulk load by {@link ReactiveBankHolidayService#loadYears}.
+ * A bulk load reports a result for every year it was asked for, so a year which could not be
+ * fetched does not stop the others from loading.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.Duration;
+
+/**
+ * Holiday Load Result Record
+ *
+ * @param year the result is for
+ * @param loaded true if the year is now in the cache
+ * @param retryAfter how long until a failed year will be fetched again, zero if it loaded
+ */
+public record HolidayLoadResult(int year, boolean loaded, Duration retryAfter) {
+
+	/**
+	 * Static Factory Method
+	 *
+	 * @param year which loaded
+	 * @return result for a year now in the cache
+	 * @since 1.0
+	 */
+	public static HolidayLoadResult loaded(int year) {
+		return new HolidayLoadResult(year, true, Duration.ZERO);
+	}
+
+	/**
+	 * Static Factory Method
+	 *
+	 * @param year which could not be loaded
+	 * @param time until the year will be fetched again
+	 * @return result for a failed year
+	 * @since 1.0
+	 */
+	public static HolidayLoadResult failed(int year, Duration retryAfter) {
+		return new HolidayLoadResult(year, false, retryAfter);
+	}
+}
@@ -0,0 +1,122 @@
+/**
+ * <h3>Holiday Region Enum</h3>
+ *
+ * <p>The parts of the United Kingdom which have their own bank holidays. The nager date API lists
+ * the regions a holiday applies to as ISO 3166-2 subdivision codes, or no codes at all for a
+ * holiday in every region. A {@link BankHoliday} keeps its regions as a bit mask with one bit per
+ * constant, so the mask for all four regions fits in a byte.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+/**
+ * Holiday Region Enum
+ *
+ * Region of the United Kingdom with its subdivision code and mask bit.
+ *
+ */
+public enum HolidayRegion {
+
+	ENGLAND("GB-ENG"),
+	WALES("GB-WLS"),
+	SCOTLAND("GB-SCT"),
+	NORTHERN_IRELAND("GB-NIR");
+
+	/*
+	 * mask with the bit of every region set
+	 */
+	public static final int ALL = (1 << values().length) - 1;
+
+	/*
+	 * shared copy of the constants, values() clones the array on every call
+	 */
+	private static final HolidayRegion[] REGIONS = values();
+
+	/*
+	 * ISO 3166-2 subdivision code used by the REST API
+	 */
+	private final String code;
+
+	/**
+	 * Copy Constructor
+	 *
+	 * @param subdivision code
+	 * @since 1.0
+	 */
+	HolidayRegion(String code) {
+		this.code = code;
+	}
+
+	/**
+	 * Code Getter
+	 *
+	 * @return ISO 3166-2 subdivision code
+	 * @since 1.0
+	 */
+	public String getCode() {
+		return code;
+	}
+
+	/**
+	 * Bit Method
+	 *
+	 * @return the bit for this region in a region mask
+	 * @since 1.0
+	 */
+	public int bit() {
+		return 1 << ordinal();
+	}
+
+	/**
+	 * In Method
+	 *
+	 * @param region mask
+	 * @return true if the mask includes this region
+	 * @since 1.0
+	 */
+	public boolean in(int mask) {
+		return (mask & bit()) != 0;
+	}
+
+	/**
+	 * Mask Of Method
+	 *
+	 * Converts the subdivision codes sent by the REST API to a region mask. No codes means the
+	 * holiday applies in every region. Codes for other countries are ignored.
+	 *
+	 * @param subdivision codes, or null
+	 * @return region mask
+	 * @since 1.0
+	 */
+	public static int maskOf(String[] counties) {
+		if (counties == null) return ALL;
+		int mask = 0;
+		for (var county : counties) {
+			for (var region : REGIONS) {
+				if (region.code.equals(county)) mask |= region.bit();
+			}
+		}
+		return mask;
+	}
+
+	/**
+	 * Codes Of Method
+	 *
+	 * Converts a region mask back to subdivision codes in the same form as the REST API.
+	 *
+	 * @param region mask
+	 * @return subdivision codes in region order, or null if the mask includes every region
+	 * @since 1.0
+	 */
+	public static String[] codesOf(int mask) {
+		if ((mask & ALL) == ALL) return null;
+		var codes = new String[Integer.bitCount(mask & ALL)];
+		int i = 0;
+		for (var region : REGIONS) {
+			if (region.in(mask)) codes[i++] = region.code;
+		}
+		return codes;
+	}
+}
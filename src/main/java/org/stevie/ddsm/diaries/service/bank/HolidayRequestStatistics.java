@@ -0,0 +1,45 @@
+/**
+ * <h3>Holiday Request Statistics Record</h3>
+ *
+ * <p>A point in time copy of the timings kept by a {@link NagerDateClient} for every HTTP
+ * request it sends, measured from sending the request to receiving the response status.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.Duration;
+
+/**
+ * Holiday Request Statistics Record
+ *
+ * @param requests requests which received a response or failed
+ * @param errors requests which failed without a response
+ * @param total time spent waiting for responses
+ * @param slowest longest wait for a response
+ */
+public record HolidayRequestStatistics(long requests, long errors, Duration total, Duration slowest) {
+
+	/**
+	 * Average Method
+	 *
+	 * @return mean wait for a response, zero if no requests have been sent
+	 * @since 1.0
+	 */
+	public Duration average() {
+		return requests == 0 ? Duration.ZERO : total.dividedBy(requests);
+	}
+
+	/**
+	 * To String Method
+	 *
+	 * @return string representation of the object
+	 * @since 1.0
+	 */
+	@Override
+	public String toString() {
+		return String.format("HolidayRequestStatistics [requests=%d, errors=%d, averageMillis=%d, slowestMillis=%d]",
+				requests, errors, average().toMillis(), slowest.toMillis());
+	}
+}
@@ -0,0 +1,60 @@
+/**
+ * <h3>Holiday Source Interface</h3>
+ *
+ * <p>A tier which can supply the bank holidays for a year. Sources are arranged in a
+ * {@link HolidaySourceChain} from the cheapest to the most expensive: memory, disk, the offline
+ * rules and finally the REST API. The chain asks each source in turn and stops at the first one
+ * which answers. A source which answers makes sure the year is in the {@link BankHolidayCache}
+ * so the cheaper tiers can answer next time.</p>
+ *
+ * <p>Sources can also be asked without blocking through {@link #resolveAsync(int)}. By default
+ * this wraps {@link #resolve(int)}, which suits sources answering from memory. Sources doing
+ * I/O override it.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Holiday Source Interface
+ *
+ * One tier of the holiday source chain.
+ *
+ */
+public interface HolidaySource {
+
+	/**
+	 * Name Method
+	 *
+	 * @return short name of the source used in statistics and log messages
+	 * @since 1.0
+	 */
+	String name();
+
+	/**
+	 * Resolve Method
+	 *
+	 * Look up the bank holidays for a year.
+	 *
+	 * @param year
+	 * @return compiled index of the bank holidays, or null if this source cannot answer
+	 * @since 1.0
+	 */
+	BankHolidayIndex resolve(int year);
+
+	/**
+	 * Resolve Async Method
+	 *
+	 * Look up the bank holidays for a year without blocking the subscriber.
+	 *
+	 * @param year
+	 * @return compiled index of the bank holidays, or empty if this source cannot answer
+	 * @since 1.0
+	 */
+	default Mono<BankHolidayIndex> resolveAsync(int year) {
+		return Mono.fromSupplier(() -> resolve(year));
+	}
+}
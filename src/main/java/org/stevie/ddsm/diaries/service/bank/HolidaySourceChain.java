@@ -0,0 +1,200 @@
+/**
+ * <h3>Holiday Source Chain Class</h3>
+ *
+ * <p>Resolves the bank holidays for a year by asking an ordered list of {@link HolidaySource}
+ * tiers in turn, cheapest first, and returning the first answer. The standard chain is memory,
+ * disk, the offline rules and then the REST API. For every tier the chain counts the calls it
+ * answered and missed and keeps a histogram of how long each call took, so the cost of each tier
+ * can be seen with {@link #getStatistics()}. The chain can be resolved without blocking with
+ * {@link #resolveAsync(int)}, in which case the next tier is only subscribed to when the one
+ * before it completes empty.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Holiday Source Chain Class
+ *
+ * Ordered chain of holiday sources with per tier statistics.
+ *
+ */
+public final class HolidaySourceChain {
+
+	/*
+	 * logging
+	 */
+	private static Logger logger = LoggerFactory.getLogger(HolidaySourceChain.class);
+
+	/*
+	 * one latency bucket per power of two nanoseconds
+	 */
+	private static final int LATENCY_BUCKETS = Long.SIZE;
+
+	/*
+	 * tiers in the order they are asked
+	 */
+	private final Tier[] tiers;
+
+	/**
+	 * Tier Class
+	 *
+	 * A source and its counters
+	 */
+	private static final class Tier {
+		private final HolidaySource source;
+		private final LongAdder hits = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+		private final AtomicLongArray latency = new AtomicLongArray(LATENCY_BUCKETS);
+
+		private Tier(HolidaySource source) {
+			this.source = source;
+		}
+
+		private void record(long nanos, boolean hit) {
+			(hit ? hits : misses).increment();
+			latency.incrementAndGet(LATENCY_BUCKETS - 1 - Long.numberOfLeadingZeros(Math.max(nanos, 1L)));
+		}
+	}
+
+	/**
+	 * Copy Constructor
+	 *
+	 * @param sources in the order they should be asked
+	 * @throws IllegalArgumentException if there are no sources
+	 * @since 1.0
+	 */
+	public HolidaySourceChain(List<HolidaySource> sources) {
+		if (sources.isEmpty())
+			throw new IllegalArgumentException("a holiday source chain needs at least one source");
+		this.tiers = sources.stream().map(Tier::new).toArray(Tier[]::new);
+	}
+
+	/**
+	 * Static Factory Method
+	 *
+	 * The standard chain: memory, disk, the offline rules (if given) and the REST API.
+	 *
+	 * @param offline rules or null to leave the rules out of the chain
+	 * @return new chain
+	 * @since 1.0
+	 */
+	public static HolidaySourceChain standard(EnglandWalesHolidayRules rules) {
+		List<HolidaySource> sources = new ArrayList<>(4);
+		sources.add(new MemoryHolidaySource());
+		sources.add(new DiskHolidaySource());
+		if (rules != null) {
+			sources.add(new RulesHolidaySource(rules));
+		}
+		sources.add(new RestHolidaySource());
+		return new HolidaySourceChain(sources);
+	}
+
+	/**
+	 * Resolve Method
+	 *
+	 * Ask each tier in turn for the year. A tier which throws an exception is treated as
+	 * a miss and the next tier is asked.
+	 *
+	 * @param year
+	 * @return index from the first tier which answered, or null if none could
+	 * @since 1.0
+	 */
+	public BankHolidayIndex resolve(int year) {
+		for (Tier tier : tiers) {
+			long start = System.nanoTime();
+			BankHolidayIndex index;
+			try {
+				index = tier.source.resolve(year);
+			} catch (RuntimeException e) {
+				logger.error("Holiday source {} failed for year {} - {}", tier.source.name(), year, e.getMessage());
+				index = null;
+			}
+			tier.record(System.nanoTime() - start, index != null);
+			if (index != null) return index;
+		}
+		return null;
+	}
+
+	/**
+	 * Resolve Async Method
+	 *
+	 * Like {@link #resolve(int)} but asks each tier through {@link HolidaySource#resolveAsync(int)}.
+	 * A tier which signals an error is treated as a miss.
+	 *
+	 * @param year
+	 * @return index from the first tier which answered, or empty if none could
+	 * @since 1.0
+	 */
+	public Mono<BankHolidayIndex> resolveAsync(int year) {
+		return resolveAsync(year, 0);
+	}
+
+	/**
+	 * Resolve Async Method
+	 *
+	 * @param year
+	 * @param position of the tier to ask
+	 * @return index from the first tier from the position on which answered, or empty
+	 * @since 1.0
+	 */
+	private Mono<BankHolidayIndex> resolveAsync(int year, int position) {
+		if (position == tiers.length) return Mono.empty();
+		var tier = tiers[position];
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			return tier.source.resolveAsync(year)
+					.onErrorResume(e -> {
+						logger.error("Holiday source {} failed for year {} - {}", tier.source.name(), year, e.getMessage());
+						return Mono.empty();
+					})
+					.doOnNext(index -> tier.record(System.nanoTime() - start, true))
+					.switchIfEmpty(Mono.defer(() -> {
+						tier.record(System.nanoTime() - start, false);
+						return resolveAsync(year, position + 1);
+					}));
+		});
+	}
+
+	/**
+	 * Get Statistics Method
+	 *
+	 * @return counters for each tier in chain order
+	 * @since 1.0
+	 */
+	public List<HolidaySourceStatistics> getStatistics() {
+		List<HolidaySourceStatistics> statistics = new ArrayList<>(tiers.length);
+		for (Tier tier : tiers) {
+			long[] histogram = new long[LATENCY_BUCKETS];
+			for (int bucket = 0; bucket < LATENCY_BUCKETS; bucket++) {
+				histogram[bucket] = tier.latency.get(bucket);
+			}
+			statistics.add(new HolidaySourceStatistics(tier.source.name(), tier.hits.sum(), tier.misses.sum(), histogram));
+		}
+		return statistics;
+	}
+
+	/**
+	 * To String Method
+	 *
+	 * @return string representation of the object
+	 * @since 1.0
+	 */
+	@Override
+	public String toString() {
+		var names = new ArrayList<String>(tiers.length);
+		for (Tier tier : tiers) names.add(tier.source.name());
+		return String.format("HolidaySourceChain %s", names);
+	}
+}
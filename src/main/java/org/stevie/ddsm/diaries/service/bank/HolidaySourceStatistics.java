@@ -0,0 +1,69 @@
+/**
+ * <h3>Holiday Source Statistics Record</h3>
+ *
+ * <p>A point in time copy of the counters kept for one tier of the {@link HolidaySourceChain}:
+ * how often the tier answered and how long it took. Latencies are kept in a histogram with one
+ * bucket per power of two nanoseconds, bucket n counting calls which took from 2^n up to 2^(n+1)
+ * nanoseconds.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.Duration;
+
+/**
+ * Holiday Source Statistics Record
+ *
+ * @param source name of the tier
+ * @param hits calls the tier answered
+ * @param misses calls the tier could not answer
+ * @param latencyHistogram call count per power of two nanoseconds
+ */
+public record HolidaySourceStatistics(String source, long hits, long misses, long[] latencyHistogram) {
+
+	/**
+	 * Hit Rate Method
+	 *
+	 * @return fraction of calls the tier answered, or zero if it has not been called
+	 * @since 1.0
+	 */
+	public double hitRate() {
+		long calls = hits + misses;
+		return calls == 0 ? 0.0 : (double) hits / calls;
+	}
+
+	/**
+	 * Latency Percentile Method
+	 *
+	 * @param percentile between 0 and 100
+	 * @return upper bound of the histogram bucket holding the percentile, or zero if the tier has not been called
+	 * @since 1.0
+	 */
+	public Duration latencyPercentile(double percentile) {
+		long calls = hits + misses;
+		if (calls == 0) return Duration.ZERO;
+		long rank = (long) Math.ceil(percentile / 100.0 * calls);
+		long seen = 0;
+		for (int bucket = 0; bucket < latencyHistogram.length; bucket++) {
+			seen += latencyHistogram[bucket];
+			if (seen >= rank && seen > 0) {
+				return Duration.ofNanos(bucket >= 62 ? Long.MAX_VALUE : 1L << (bucket + 1));
+			}
+		}
+		return Duration.ofNanos(Long.MAX_VALUE);
+	}
+
+	/**
+	 * To String Method
+	 *
+	 * @return string representation of the object
+	 * @since 1.0
+	 */
+	@Override
+	public String toString() {
+		return String.format("HolidaySourceStatistics [source=%s, hits=%d, misses=%d, hitRate=%.2f, p50<=%dus, p99<=%dus]",
+				source, hits, misses, hitRate(), latencyPercentile(50).toNanos() / 1000, latencyPercentile(99).toNanos() / 1000);
+	}
+}
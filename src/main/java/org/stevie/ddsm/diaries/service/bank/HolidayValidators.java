@@ -0,0 +1,35 @@
+/**
+ * <h3>Holiday Validators Record</h3>
+ *
+ * <p>The HTTP cache validators (ETag and Last-Modified) returned by the REST API with the bank
+ * holidays for a year. They are kept with the year in the cache and sent back when the year is
+ * refreshed, so the API can answer 304 Not Modified instead of sending the holidays again.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+/**
+ * Holiday Validators Record
+ *
+ * @param etag entity tag exactly as sent by the server, or null
+ * @param lastModified Last-Modified header exactly as sent by the server, or null
+ */
+public record HolidayValidators(String etag, String lastModified) {
+
+	/*
+	 * no validators, the year is fetched unconditionally
+	 */
+	public static final HolidayValidators NONE = new HolidayValidators(null, null);
+
+	/**
+	 * Is Empty Method
+	 *
+	 * @return true if there are no validators to send
+	 * @since 1.0
+	 */
+	public boolean isEmpty() {
+		return etag == null && lastModified == null;
+	}
+}
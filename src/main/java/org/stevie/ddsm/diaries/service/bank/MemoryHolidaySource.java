@@ -0,0 +1,42 @@
+/**
+ * <h3>Memory Holiday Source Class</h3>
+ *
+ * <p>First tier of the holiday source chain. Answers from the years held in memory by the
+ * {@link BankHolidayCache}.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+/**
+ * Memory Holiday Source Class
+ *
+ * Holiday source backed by the memory tier of the cache.
+ *
+ */
+public final class MemoryHolidaySource implements HolidaySource {
+
+	/**
+	 * Name Method
+	 *
+	 * @return source name
+	 * @since 1.0
+	 */
+	@Override
+	public String name() {
+		return "memory";
+	}
+
+	/**
+	 * Resolve Method
+	 *
+	 * @param year
+	 * @return index from memory or null if the year is not in memory
+	 * @since 1.0
+	 */
+	@Override
+	public BankHolidayIndex resolve(int year) {
+		return BankHolidayCache.getBankHolidayIndexFromMemory(year);
+	}
+}
@@ -0,0 +1,283 @@
+/**
+ * <h3>Nager Date Client Class</h3>
+ *
+ * <p>Client for the public holidays endpoint of the nager date REST API. When the cache already
+ * holds a year the validators it was sent with are passed back as If-None-Match and
+ * If-Modified-Since headers. A 304 Not Modified response is returned without reading a body, so a
+ * refresh of a year which has not changed costs one header-only round trip. Full responses hold
+ * the bank holidays of every {@link HolidayRegion}, each with its region mask, sorted into date
+ * order, so one request serves every region.</p>
+ *
+ * <p>The client keeps its own pool of connections sized by {@link HolidayHttpClientSettings},
+ * which is released when the client is closed. The time taken by every request is recorded and
+ * available from {@link #getRequestStatistics()}.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Nager Date Client Class
+ *
+ * Reactive client for the nager date public holidays endpoint.
+ *
+ */
+public final class NagerDateClient implements AutoCloseable {
+
+	/*
+	 * logger
+	 */
+	private static Logger logger = LoggerFactory.getLogger(NagerDateClient.class);
+
+	/*
+	 * address of the public API
+	 */
+	public static final String DEFAULT_BASE_URL = "https://date.nager.at/api/v3";
+
+	/*
+	 * reactive version of RestTemplate which is no longer supported. It is used to make 
+	 * network calls to nager date api
+	 */
+	private final WebClient webClient;
+
+	/*
+	 * address of the API, for log messages
+	 */
+	private final String baseUrl;
+
+	/*
+	 * connection pool owned by this client, null if the web client was supplied
+	 */
+	private final ConnectionProvider connectionProvider;
+
+	/*
+	 * request timings
+	 */
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong slowestNanos = new AtomicLong();
+
+	/**
+	 * Copy Constructor
+	 *
+	 * @param web client with the base URL of the API
+	 * @param base URL of the API
+	 * @since 1.0
+	 */
+	public NagerDateClient(WebClient webClient, String baseUrl) {
+		this.webClient = Objects.requireNonNull(webClient);
+		this.baseUrl = Objects.requireNonNull(baseUrl);
+		this.connectionProvider = null;
+	}
+
+	/**
+	 * Copy Constructor
+	 *
+	 * Used by the static factory method, every request sent through the http client is timed.
+	 *
+	 * @param http client
+	 * @param base URL of the API
+	 * @param connection pool of the http client, released when the client is closed
+	 * @since 1.0
+	 */
+	private NagerDateClient(HttpClient httpClient, String baseUrl, ConnectionProvider connectionProvider) {
+		this.webClient = WebClient.builder()
+				.baseUrl(baseUrl)
+				.clientConnector(new ReactorClientHttpConnector(httpClient))
+				.filter(this::timed)
+				.build();
+		this.baseUrl = baseUrl;
+		this.connectionProvider = connectionProvider;
+	}
+
+	/**
+	 * Static Factory Method
+	 *
+	 * Create a client for the API at the given address with the default settings.
+	 *
+	 * @param base URL of the API
+	 * @return new client
+	 * @since 1.0
+	 */
+	public static NagerDateClient create(String baseUrl) {
+		return create(baseUrl, HolidayHttpClientSettings.DEFAULT);
+	}
+
+	/**
+	 * Static Factory Method
+	 *
+	 * Create a client for the API at the given address with its own connection pool.
+	 *
+	 * @param base URL of the API
+	 * @param connection pool, timeout and compression settings
+	 * @return new client
+	 * @since 1.0
+	 */
+	public static NagerDateClient create(String baseUrl, HolidayHttpClientSettings settings) {
+
+		/*
+		 * create the connection pool, idle connections are evicted before the server drops them
+		 */
+		var provider = ConnectionProvider.builder("ddsm-holidays")
+				.maxConnections(settings.maxConnections())
+				.pendingAcquireMaxCount(settings.pendingAcquireMaxCount())
+				.pendingAcquireTimeout(settings.pendingAcquireTimeout())
+				.maxIdleTime(settings.maxIdleTime())
+				.maxLifeTime(settings.maxLifeTime())
+				.evictInBackground(settings.evictionInterval())
+				.build();
+
+		/*
+		 * create the http client
+		 */
+		HttpClient httpClient = HttpClient.create(provider)
+				.keepAlive(true)
+				.compress(settings.compress())
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(settings.connectTimeout().toMillis()))
+				.responseTimeout(settings.responseTimeout())
+				.doOnConnected(conn -> logger.info("Connected to internet!"));
+
+		/*
+		 * create the web client
+		 */
+		return new NagerDateClient(httpClient, Objects.requireNonNull(baseUrl), provider);
+	}
+
+	/**
+	 * Fetch Public Holidays Method
+	 *
+	 * Request the bank holidays in every region for a year. If validators are given the request is
+	 * conditional and the result may be not modified.
+	 *
+	 * @param year to fetch
+	 * @param validators from the previous response for the year
+	 * @return mono of the fetch result, failing with a WebClientResponseException for an error status
+	 * @since 1.0
+	 */
+	public Mono<HolidayFetchResult> fetchPublicHolidays(int year, HolidayValidators validators) {
+		return webClient.get()
+				.uri("/PublicHolidays/{year}/GB", year).accept(MediaType.APPLICATION_JSON)
+				.headers(headers -> {
+					if (validators.etag() != null) headers.set(HttpHeaders.IF_NONE_MATCH, validators.etag());
+					if (validators.lastModified() != null) headers.set(HttpHeaders.IF_MODIFIED_SINCE, validators.lastModified());
+				})
+				.exchangeToMono(response -> {
+
+					/*
+					 * not modified so there is no body to read
+					 */
+					if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+						logger.info("Bank holidays for year {} not modified", year);
+						return response.releaseBody().thenReturn(HolidayFetchResult.notModified());
+					}
+					if (response.statusCode().isError()) {
+						return response.createError();
+					}
+
+					var headers = response.headers().asHttpHeaders();
+					var received = new HolidayValidators(headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
+					return response.bodyToFlux(BankHoliday.class)
+							.filter(bh -> bh.getRegions() != 0)
+							.collectSortedList(Comparator.comparing(BankHoliday::getDate))
+							.map(list -> new HolidayFetchResult(list, received));
+				});
+	}
+
+	/**
+	 * Timed Method
+	 *
+	 * Send a request and record how long the response took to arrive.
+	 *
+	 * @param request to send
+	 * @param next exchange in the chain
+	 * @return response
+	 * @since 1.0
+	 */
+	private Mono<ClientResponse> timed(ClientRequest request, ExchangeFunction next) {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			return next.exchange(request)
+					.doOnSuccess(response -> {
+						long elapsed = record(start, false);
+						logger.debug("{} {} answered {} in {} ms", request.method(), request.url(), 
+								response == null ? null : response.statusCode(), elapsed / 1_000_000);
+					})
+					.doOnError(e -> record(start, true));
+		});
+	}
+
+	/**
+	 * Record Method
+	 *
+	 * @param start of the request in nanoseconds
+	 * @param true if the request failed without a response
+	 * @return time the request took in nanoseconds
+	 * @since 1.0
+	 */
+	private long record(long start, boolean failed) {
+		long elapsed = System.nanoTime() - start;
+		requests.increment();
+		if (failed) errors.increment();
+		totalNanos.add(elapsed);
+		slowestNanos.accumulateAndGet(elapsed, Math::max);
+		return elapsed;
+	}
+
+	/**
+	 * Get Request Statistics Method
+	 *
+	 * @return timings of the requests sent by this client
+	 * @since 1.0
+	 */
+	public HolidayRequestStatistics getRequestStatistics() {
+		return new HolidayRequestStatistics(requests.sum(), errors.sum(), Duration.ofNanos(totalNanos.sum()),
+				Duration.ofNanos(slowestNanos.get()));
+	}
+
+	/**
+	 * Close Method
+	 *
+	 * Release the connection pool of a client made by {@link #create(String, HolidayHttpClientSettings)}.
+	 *
+	 * @since 1.0
+	 */
+	@Override
+	public void close() {
+		if (connectionProvider != null) connectionProvider.dispose();
+	}
+
+	/**
+	 * To String Method
+	 *
+	 * @return string representation of the object
+	 * @since 1.0
+	 */
+	@Override
+	public String toString() {
+		return String.format("NagerDateClient [baseUrl=%s]", baseUrl);
+	}
+}
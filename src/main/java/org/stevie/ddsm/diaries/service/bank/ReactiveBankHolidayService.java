@@ -0,0 +1,443 @@
+/**
+ * <h3>Reactive Bank Holiday Service Class</h3>
+ *
+ * <p>Non-blocking version of the {@link BankHolidayService}. Every method returns a {@link Mono}
+ * or {@link Flux} which resolves the year through the same source chain and cache, asking each
+ * tier without blocking: memory and the offline rules answer straight away, the disk store is read
+ * on the bounded elastic scheduler and the REST API is called through the reactive web client all
+ * the way to the caller. Nothing happens until the result is subscribed to, so diary generation
+ * can compose these calls without tying up a thread per lookup.</p>
+ *
+ * <p>This class also owns the REST fetches for both services. Only one fetch runs per year at a
+ * time and callers which miss the cache while it runs share its result. The outcome of each fetch
+ * is recorded in the failure cache so years which failed recently are not asked for again until
+ * the negative entry expires. Many years can be fetched at once with {@link #loadYears}, which
+ * merges the requests with a bound on how many run at the same time.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.ContextView;
+
+/**
+ * Reactive Bank Holiday Service Class
+ *
+ * Provide a non-blocking service for checking whether a date falls on a bank holiday.
+ *
+ */
+public final class ReactiveBankHolidayService {
+
+	/*
+	 * logging
+	 */
+	private static Logger logger = LoggerFactory.getLogger(ReactiveBankHolidayService.class);
+
+	/*
+	 * fetches currently running keyed by year. Used so that concurrent and repeated cache
+	 * misses for the same year share one network call.
+	 */
+	private static final ConcurrentMap<Integer, Mono<BankHolidayIndex>> inFlightFetches = new ConcurrentHashMap<>();
+
+	/*
+	 * reactor context key which marks a lookup as background work
+	 */
+	private static final String BACKGROUND = ReactiveBankHolidayService.class.getName() + ".background";
+
+	/**
+	 * Default Constructor
+	 *
+	 * Prevents any one from creating instances of this class.
+	 *
+	 * @since 1.0
+	 */
+	private ReactiveBankHolidayService() {
+
+	}
+
+	/**
+	 * Resolve Method
+	 *
+	 * Resolve the year through the source chain, cheapest tier first.
+	 *
+	 * @param year
+	 * @return compiled index of the bank holidays for the year, or an error of
+	 * {@link BankHolidaysUnavailableException} if no tier could answer
+	 * @since 1.0
+	 */
+	public static Mono<BankHolidayIndex> resolve(int year) {
+		return BankHolidayService.getSourceChain().resolveAsync(year)
+				.switchIfEmpty(Mono.error(() -> new BankHolidaysUnavailableException(year,
+						BankHolidayService.getFailureCache().retryAfter(year).orElse(Duration.ZERO))));
+	}
+
+	/**
+	 * Resolve Method
+	 *
+	 * Like {@link #resolve(int)} but a year calculated offline, which only covers England and
+	 * Wales, is fetched from the REST API when another region is asked for.
+	 *
+	 * @param year
+	 * @param region the index must cover
+	 * @return index of the year which is complete for the region, or an error if it could not be loaded
+	 * @since 1.0
+	 */
+	static Mono<BankHolidayIndex> resolve(int year, HolidayRegion region) {
+		return resolve(year).flatMap(index -> index.covers(region) ? Mono.just(index)
+				: fetchFromRest(year).filter(fetched -> fetched.covers(region))
+						.switchIfEmpty(Mono.error(() -> new BankHolidaysUnavailableException(year,
+								BankHolidayService.getFailureCache().retryAfter(year).orElse(Duration.ZERO)))));
+	}
+
+	/**
+	 * Is A Bank Holiday Method
+	 *
+	 * @param date to check
+	 * @return true if date is on a bank holiday
+	 * @since 1.0
+	 */
+	public static Mono<Boolean> isBankHoliday(LocalDate date) {
+		return isBankHoliday(date, HolidayRegion.ENGLAND);
+	}
+
+	/**
+	 * Is A Bank Holiday Method
+	 *
+	 * @param date to check
+	 * @param region to check
+	 * @return true if date is on a bank holiday in the region
+	 * @since 1.0
+	 */
+	public static Mono<Boolean> isBankHoliday(LocalDate date, HolidayRegion region) {
+		return resolve(date.getYear(), region).map(index -> index.contains(date, region));
+	}
+
+	/**
+	 * Are Bank Holidays Method
+	 *
+	 * Check a stream of dates. Runs of dates in the same year are resolved once.
+	 *
+	 * @param dates to check
+	 * @return true or false for each date, in the same order
+	 * @since 1.0
+	 */
+	public static Flux<Boolean> areBankHolidays(Flux<LocalDate> dates) {
+		return dates.bufferUntilChanged(LocalDate::getYear)
+				.concatMap(sameYear -> resolve(sameYear.get(0).getYear())
+						.flatMapIterable(index -> sameYear.stream().map(index::contains).toList()));
+	}
+
+	/**
+	 * Get Bank Holidays Between Method
+	 *
+	 * @param first date of the range
+	 * @param last date of the range
+	 * @return bank holidays in England in the range in date order
+	 * @since 1.0
+	 */
+	public static Flux<BankHoliday> getBankHolidaysBetween(LocalDate from, LocalDate to) {
+		return getBankHolidaysBetween(from, to, HolidayRegion.ENGLAND);
+	}
+
+	/**
+	 * Get Bank Holidays Between Method
+	 *
+	 * @param first date of the range
+	 * @param last date of the range
+	 * @param region
+	 * @return bank holidays in the region in the range in date order
+	 * @since 1.0
+	 */
+	public static Flux<BankHoliday> getBankHolidaysBetween(LocalDate from, LocalDate to, HolidayRegion region) {
+		if (to.isBefore(from))
+			return Flux.error(new IllegalArgumentException("End of range must not be before the start"));
+
+		return Flux.range(from.getYear(), to.getYear() - from.getYear() + 1)
+				.concatMap(year -> resolve(year, region)
+						.flatMapIterable(index -> {
+							List<BankHoliday> bankHolidays = BankHolidayCache.peekBankHolidays(year);
+							if (bankHolidays == null)
+								throw new BankHolidaysUnavailableException(year, Duration.ZERO);
+							return bankHolidays;
+						}))
+				.filter(bh -> bh.isObservedIn(region) && bh.getEpochDay() >= from.toEpochDay() && bh.getEpochDay() <= to.toEpochDay());
+	}
+
+	/**
+	 * Find First Non Bank Holiday Method
+	 *
+	 * @param first date to consider
+	 * @param last date to consider
+	 * @param condition the date must also meet
+	 * @return first matching date which is not a bank holiday, or empty if there is none
+	 * @see BankHolidayService#findFirstNonBankHoliday(LocalDate, LocalDate, Predicate)
+	 * @since 1.0
+	 */
+	public static Mono<LocalDate> findFirstNonBankHoliday(LocalDate from, LocalDate to, Predicate<LocalDate> condition) {
+		return Flux.range(from.getYear(), Math.max(0, to.getYear() - from.getYear() + 1))
+				.concatMap(year -> resolve(year)
+						.flatMapMany(index -> {
+							int firstDay = year == from.getYear() ? from.getDayOfYear() : 1;
+							int lastDay = year == to.getYear() ? to.getDayOfYear() : LocalDate.of(year, 12, 31).getDayOfYear();
+							return Flux.range(firstDay, Math.max(0, lastDay - firstDay + 1))
+									.filter(day -> !index.containsDayOfYear(day))
+									.map(day -> LocalDate.ofYearDay(year, day));
+						}))
+				.filter(condition)
+				.next();
+	}
+
+	/**
+	 * Get Next Non Bank Holiday Method
+	 *
+	 * @param bank holiday date
+	 * @return the same weekday in following weeks of the month until it is not a bank holiday
+	 * @see BankHolidayService#getNextNonBankHoliday(LocalDate)
+	 * @since 1.0
+	 */
+	public static Mono<LocalDate> getNextNonBankHoliday(LocalDate bankHoliday) {
+		return resolve(bankHoliday.getYear()).map(index -> {
+			var currentDate = bankHoliday;
+			while (currentDate.getMonthValue() == bankHoliday.getMonthValue() && index.contains(currentDate)) {
+				currentDate = currentDate.plusWeeks(1L);
+			}
+			return currentDate;
+		});
+	}
+
+	/**
+	 * Load Years Method
+	 *
+	 * Fetch a range of years from the REST API, running up to the given number of requests at
+	 * the same time. Each year is put in the cache as its response arrives and reported as soon
+	 * as it finishes, so the results are in completion order rather than year order. Years which
+	 * are already cached and not due a refresh complete without a network call.
+	 *
+	 * @param first year to load
+	 * @param last year to load
+	 * @param maximum number of requests running at the same time
+	 * @return one result for each year
+	 * @throws IllegalArgumentException if the range or concurrency is invalid
+	 * @since 1.0
+	 */
+	public static Flux<HolidayLoadResult> loadYears(int firstYear, int lastYear, int maxConcurrency) {
+		if (lastYear < firstYear)
+			throw new IllegalArgumentException("last year should not be before first year");
+		return loadYears(Flux.range(firstYear, lastYear - firstYear + 1), maxConcurrency);
+	}
+
+	/**
+	 * Load Years Method
+	 *
+	 * @param years to load
+	 * @param maximum number of requests running at the same time
+	 * @return one result for each year, in completion order
+	 * @throws IllegalArgumentException if the concurrency is invalid
+	 * @see #loadYears(int, int, int)
+	 * @since 1.0
+	 */
+	public static Flux<HolidayLoadResult> loadYears(Flux<Integer> years, int maxConcurrency) {
+		if (maxConcurrency < 1)
+			throw new IllegalArgumentException("max concurrency should be at least 1");
+		return years.flatMap(year -> fetchFromRest(year)
+				.map(index -> HolidayLoadResult.loaded(year))
+				.switchIfEmpty(Mono.fromSupplier(() -> HolidayLoadResult.failed(year,
+						BankHolidayService.getFailureCache().retryAfter(year).orElse(Duration.ZERO)))),
+				maxConcurrency);
+	}
+
+	/**
+	 * In Background Method
+	 *
+	 * Mark a lookup as background work nobody is waiting for, such as the prefetch of the main
+	 * form. Any I/O it does on the {@link HolidayFetchExecutor} is limited to the background
+	 * share of its permits.
+	 *
+	 * @param lookup to mark
+	 * @return the same lookup running as background work
+	 * @since 1.0
+	 */
+	public static <T> Mono<T> inBackground(Mono<T> lookup) {
+		return lookup.contextWrite(context -> context.put(BACKGROUND, Boolean.TRUE));
+	}
+
+	/**
+	 * In Background Method
+	 *
+	 * @param lookups to mark
+	 * @return the same lookups running as background work
+	 * @since 1.0
+	 */
+	public static <T> Flux<T> inBackground(Flux<T> lookups) {
+		return lookups.contextWrite(context -> context.put(BACKGROUND, Boolean.TRUE));
+	}
+
+	/**
+	 * Fetch Scheduler Method
+	 *
+	 * @param context of the subscriber
+	 * @return background fetch scheduler if the lookup was marked by {@link #inBackground},
+	 * otherwise the interactive one
+	 * @since 1.0
+	 */
+	static Scheduler fetchScheduler(ContextView context) {
+		return context.getOrDefault(BACKGROUND, Boolean.FALSE)
+				? BankHolidayService.getBackgroundFetchScheduler()
+				: BankHolidayService.getFetchScheduler();
+	}
+
+	/**
+	 * Fetch From REST Method
+	 *
+	 * Used by {@link RestHolidaySource}. Fetch a year from the REST API unless it failed
+	 * recently or the circuit breaker is open, in which case complete empty straight away
+	 * rather than waiting for another network timeout. Joins any fetch already running for
+	 * the year.
+	 *
+	 * @param year to fetch
+	 * @return index of the fetched year or empty if it could not be fetched
+	 * @since 1.0
+	 */
+	static Mono<BankHolidayIndex> fetchFromRest(int year) {
+		return Mono.defer(() -> {
+			if (BankHolidayService.getFailureCache().retryAfter(year).isPresent()) return Mono.empty();
+			/*
+			 * an open breaker says nothing about this year so it is not negatively cached
+			 */
+			if (!FetchBankHolidaysTask.getCircuitBreaker().isCallPermitted()) return Mono.empty();
+			return inFlightFetches.computeIfAbsent(year, ReactiveBankHolidayService::startFetch);
+		});
+	}
+
+	/**
+	 * Get Fetch Statistics Method
+	 *
+	 * @return attempt, retry and circuit breaker counters of the REST API client
+	 * @since 1.0
+	 */
+	public static HolidayFetchStatistics getFetchStatistics() {
+		return FetchBankHolidaysTask.getStatistics();
+	}
+
+	/**
+	 * Refresh In Background Method
+	 *
+	 * Called by the cache when a lookup finds a year older than the refresh interval. The year
+	 * is fetched again while the cache keeps serving the old entry. If the year failed recently
+	 * nothing is started, a fetch already running for the year is joined.
+	 *
+	 * @param year to reload
+	 * @since 1.0
+	 */
+	static void refreshInBackground(int year) {
+		if (BankHolidayService.getFailureCache().retryAfter(year).isPresent()) {
+			BankHolidayCache.refreshFinished(year);
+			return;
+		}
+		logger.info("Refreshing bank holidays for year {} in the background", year);
+		fetchFromRest(year)
+			/*
+			 * start on the shared executor as background work, the cache checks may read the
+			 * disk store
+			 */
+			.subscribeOn(BankHolidayService.getBackgroundFetchScheduler())
+			.doFinally(signal -> {
+				BankHolidayCache.refreshFinished(year);
+				if (BankHolidayCache.isRefreshDue(year)) {
+					logger.warn("Background refresh of bank holidays for year {} failed, serving cached copy", year);
+				}
+			})
+			.subscribe(index -> { }, e -> logger.error("Background refresh of bank holidays for year {} could not start - {}", year, e.toString()));
+	}
+
+	/**
+	 * Start Fetch Method
+	 *
+	 * Build the shared fetch for a year. It runs once when first subscribed to and replays its
+	 * result to every caller which joined it. The budget of the {@link HolidayFetchPolicy}
+	 * bounds the whole fetch including its retries, running out of budget counts as a failure
+	 * of the API. Its outcome is recorded before the callers see the result, and it is
+	 * deregistered once it finishes. A fetch the circuit breaker refused, for example because
+	 * another lookup holds the trial request of a half open breaker, completes empty without
+	 * recording an outcome, it says nothing about the year.
+	 *
+	 * @param year to fetch
+	 * @return shared fetch
+	 * @since 1.0
+	 */
+	private static Mono<BankHolidayIndex> startFetch(int year) {
+		return Mono.defer(() -> {
+			/*
+			 * the previous fetch may have completed between the cache check and registering
+			 * this one so check the cache again
+			 */
+			if (BankHolidayCache.isInCache(year) && !BankHolidayCache.isRefreshDue(year)) {
+				return Mono.justOrEmpty(BankHolidayCache.peekBankHolidayIndex(year));
+			}
+			var budget = FetchBankHolidaysTask.getPolicy().budget();
+			return FetchBankHolidaysTask.fetch(year)
+					.timeout(budget, Mono.error(() -> {
+						/*
+						 * the request was cancelled without an answer, the API is hanging
+						 */
+						FetchBankHolidaysTask.getCircuitBreaker().recordFailure();
+						return new TimeoutException("no answer within " + budget);
+					}))
+					.then(Mono.fromSupplier(() -> BankHolidayCache.peekBankHolidayIndex(year)))
+					.onErrorResume(TimeoutException.class, e -> {
+						/*
+						 * record a timeout straight away so that other lookups do not wait
+						 * for the same hung request
+						 */
+						logger.error("Bank holiday fetch timed out while trying to retrieve bank holidays for year {}", year);
+						BankHolidayService.getFailureCache().recordFailure(year);
+						return Mono.empty();
+					});
+		})
+			.onErrorResume(e -> !(e instanceof BankHolidaysUnavailableException), e -> {
+				logger.error("Bank holiday fetch failed while trying to retrieve bank holidays for year {}", year);
+				return Mono.empty();
+			})
+			.doOnSuccess(index -> recordOutcome(year))
+			.onErrorResume(BankHolidaysUnavailableException.class, e -> {
+				logger.info("Circuit breaker refused the fetch of bank holidays for year {}", year);
+				return Mono.empty();
+			})
+			.doFinally(signal -> inFlightFetches.remove(year))
+			.cache();
+	}
+
+	/**
+	 * Record Outcome Method
+	 *
+	 * Called when a fetch has finished. If the year is now in the cache any failures are
+	 * forgotten, otherwise a negative entry is recorded unless one was already recorded when
+	 * the fetch timed out.
+	 *
+	 * @param year the fetch was loading
+	 * @since 1.0
+	 */
+	private static void recordOutcome(int year) {
+		var failureCache = BankHolidayService.getFailureCache();
+		if (BankHolidayCache.isInCache(year) && !BankHolidayCache.isRefreshDue(year)) {
+			failureCache.recordSuccess(year);
+		} else if (failureCache.retryAfter(year).isEmpty()) {
+			failureCache.recordFailure(year);
+		}
+	}
+}
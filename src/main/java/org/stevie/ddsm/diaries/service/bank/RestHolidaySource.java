@@ -0,0 +1,57 @@
+/**
+ * <h3>REST Holiday Source Class</h3>
+ *
+ * <p>Last tier of the holiday source chain. Fetches a year from the nager date REST API through
+ * the {@link ReactiveBankHolidayService}, which shares one request between concurrent lookups for the
+ * same year and fails fast for years which failed recently.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * REST Holiday Source Class
+ *
+ * Holiday source backed by the REST API.
+ *
+ */
+public final class RestHolidaySource implements HolidaySource {
+
+	/**
+	 * Name Method
+	 *
+	 * @return source name
+	 * @since 1.0
+	 */
+	@Override
+	public String name() {
+		return "rest";
+	}
+
+	/**
+	 * Resolve Method
+	 *
+	 * @param year
+	 * @return fetched index or null if the year could not be fetched
+	 * @since 1.0
+	 */
+	@Override
+	public BankHolidayIndex resolve(int year) {
+		return ReactiveBankHolidayService.fetchFromRest(year).block();
+	}
+
+	/**
+	 * Resolve Async Method
+	 *
+	 * @param year
+	 * @return fetched index or empty if the year could not be fetched
+	 * @since 1.0
+	 */
+	@Override
+	public Mono<BankHolidayIndex> resolveAsync(int year) {
+		return ReactiveBankHolidayService.fetchFromRest(year);
+	}
+}
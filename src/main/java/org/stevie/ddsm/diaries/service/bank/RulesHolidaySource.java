@@ -0,0 +1,76 @@
+/**
+ * <h3>Rules Holiday Source Class</h3>
+ *
+ * <p>Third tier of the holiday source chain. Calculates a year from the
+ * {@link EnglandWalesHolidayRules} without any I/O. The result is put in the cache as if it was
+ * fetched long ago, so the cache replaces it from the REST API in the background once the API
+ * can be reached. Lookups are therefore answered straight away even on a cold start. The rules
+ * only cover England and Wales, so a calculated year is marked as covering those regions only.
+ * A lookup for Scotland or Northern Ireland goes on to the REST API instead of being told there
+ * are no bank holidays, and the year is kept in memory only so it is never read back from disk
+ * as if it were complete.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rules Holiday Source Class
+ *
+ * Holiday source backed by the offline England and Wales rules.
+ *
+ */
+public final class RulesHolidaySource implements HolidaySource {
+
+	/*
+	 * logging
+	 */
+	private static Logger logger = LoggerFactory.getLogger(RulesHolidaySource.class);
+
+	/*
+	 * the rules used to calculate a year
+	 */
+	private final EnglandWalesHolidayRules rules;
+
+	/**
+	 * Copy Constructor
+	 *
+	 * @param offline rules
+	 * @since 1.0
+	 */
+	public RulesHolidaySource(EnglandWalesHolidayRules rules) {
+		this.rules = Objects.requireNonNull(rules);
+	}
+
+	/**
+	 * Name Method
+	 *
+	 * @return source name
+	 * @since 1.0
+	 */
+	@Override
+	public String name() {
+		return "rules";
+	}
+
+	/**
+	 * Resolve Method
+	 *
+	 * @param year
+	 * @return calculated index or null if the rules do not cover the year
+	 * @since 1.0
+	 */
+	@Override
+	public BankHolidayIndex resolve(int year) {
+		if (!rules.supports(year)) return null;
+		logger.info("Calculating bank holidays for year {} from the offline rules", year);
+		BankHolidayCache.putCalculatedBankHolidaysInCache(rules.bankHolidaysFor(year), year, rules.getRegions());
+		return BankHolidayCache.peekBankHolidayIndex(year);
+	}
+}
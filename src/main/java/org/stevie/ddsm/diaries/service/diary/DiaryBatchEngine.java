@@ -0,0 +1,304 @@
+/**
+ * <h3>Diary Batch Engine Class</h3>
+ *
+ * <p>Generates the recording and duplication diaries of many magazine editions in one run. The
+ * configurations are read from a batch file one line at a time (see {@link RotaConfiguration})
+ * and generated concurrently on virtual threads. Every configuration looks its bank holidays up
+ * in the one shared {@link BankHolidayCache}, and each year is resolved once per run before any
+ * configuration for that year is generated, so thousands of configurations for a handful of
+ * years cost a handful of lookups through the holiday sources.</p>
+ *
+ * <p>The entries are written to the output as each configuration completes, so memory use does
+ * not grow with the size of the batch. A line which cannot be parsed or generated is logged and
+ * counted without stopping the run. A {@link DiaryBatchReport} with the throughput and latency
+ * of the run is returned at the end.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.diary;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayCache;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Diary Batch Engine Class
+ *
+ * One run of the batch engine. Static methods start a run.
+ *
+ */
+public final class DiaryBatchEngine {
+
+	/*
+	 * logging
+	 */
+	private static Logger logger = LoggerFactory.getLogger(DiaryBatchEngine.class);
+
+	/*
+	 * first line of the output
+	 */
+	public static final String HEADER = "name,year,month,recordingDate,edition,compiler,collectDate,barcodingDate,duplicationDate";
+
+	/**
+	 * Generated Record
+	 *
+	 * The diaries of one configuration and how long they took to generate
+	 */
+	private record Generated(RotaConfiguration configuration, GeneratedDiaries diaries, long nanos) {
+	}
+
+	/*
+	 * years resolved during this run
+	 */
+	private final ConcurrentMap<Integer, CompletableFuture<Void>> resolvedYears = new ConcurrentHashMap<>();
+
+	/*
+	 * destination of the entries, only written from one thread at a time
+	 */
+	private final Writer out;
+
+	/*
+	 * counters
+	 */
+	private final LongAdder failed = new LongAdder();
+	private long[] latencies = new long[1024];
+	private int generated;
+
+	/**
+	 * Copy Constructor
+	 *
+	 * @param destination of the entries
+	 * @since 1.0
+	 */
+	private DiaryBatchEngine(Writer out) {
+		this.out = out;
+	}
+
+	/**
+	 * Run File Method
+	 *
+	 * Generate the diaries of every configuration in a batch file and write them to the
+	 * output file, replacing it if it exists. Blocks until the run has finished.
+	 *
+	 * @param batch file of configurations
+	 * @param output file of diary entries
+	 * @param maximum number of configurations generated at the same time
+	 * @return report of the run
+	 * @throws IOException if either file cannot be opened or written
+	 * @since 1.0
+	 */
+	public static DiaryBatchReport runFile(Path input, Path output, int maxConcurrency) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+			var lines = Flux.using(() -> Files.lines(input), Flux::fromStream, Stream::close);
+			return run(lines, writer, maxConcurrency).block();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Run Method
+	 *
+	 * Generate the diaries of every configuration line and write their entries to the output as
+	 * each configuration completes. The output is flushed but not closed.
+	 *
+	 * @param lines of a batch file
+	 * @param destination of the entries
+	 * @param maximum number of configurations generated at the same time
+	 * @return report of the run, nothing happens until it is subscribed to
+	 * @throws IllegalArgumentException if the concurrency is not positive
+	 * @since 1.0
+	 */
+	public static Mono<DiaryBatchReport> run(Flux<String> lines, Writer out, int maxConcurrency) {
+		if (maxConcurrency < 1)
+			throw new IllegalArgumentException("max concurrency should be at least 1");
+
+		return Mono.defer(() -> {
+			var engine = new DiaryBatchEngine(out);
+			return Mono.using(Executors::newVirtualThreadPerTaskExecutor,
+					executor -> engine.generateAll(lines, Schedulers.fromExecutorService(executor, "ddsm-batch"), maxConcurrency),
+					ExecutorService::shutdown);
+		});
+	}
+
+	/**
+	 * Generate All Method
+	 *
+	 * @param lines of a batch file
+	 * @param scheduler to generate on
+	 * @param maximum number of configurations generated at the same time
+	 * @return report of the run
+	 * @since 1.0
+	 */
+	private Mono<DiaryBatchReport> generateAll(Flux<String> lines, Scheduler scheduler, int maxConcurrency) {
+		var start = System.nanoTime();
+		return Mono.fromRunnable(() -> write(HEADER))
+				.thenMany(lines.index()
+						.filter(line -> RotaConfiguration.isConfigurationLine(line.getT2()))
+						.flatMap(line -> Mono.fromCallable(() -> generate(line.getT2()))
+								.subscribeOn(scheduler)
+								.onErrorResume(e -> {
+									logger.error("Could not generate rota on line {} - {}", line.getT1() + 1, e.toString());
+									failed.increment();
+									return Mono.empty();
+								}), maxConcurrency))
+				/*
+				 * flatMap emits one result at a time so the output and latencies need no locking
+				 */
+				.doOnNext(this::write)
+				.then(Mono.fromCallable(() -> {
+					out.flush();
+					var report = report(System.nanoTime() - start);
+					logger.info("{}", report);
+					return report;
+				}));
+	}
+
+	/**
+	 * Generate Method
+	 *
+	 * @param configuration line
+	 * @return generated diaries of the configuration
+	 * @since 1.0
+	 */
+	private Generated generate(String line) {
+		var configuration = RotaConfiguration.parse(line);
+		long start = System.nanoTime();
+		resolveYear(configuration.settings().year());
+		var diaries = DiaryGenerationService.generate(configuration.settings());
+		return new Generated(configuration, diaries, System.nanoTime() - start);
+	}
+
+	/**
+	 * Resolve Year Method
+	 *
+	 * Make sure the bank holidays of a year are in the cache. The first configuration for a
+	 * year resolves it, any others for the same year wait for that lookup instead of starting
+	 * their own. If the lookup they waited for fails they try the year again themselves, so a
+	 * configuration is only counted as failed by its own lookup.
+	 *
+	 * @param year to resolve
+	 * @since 1.0
+	 */
+	private void resolveYear(int year) {
+		var resolving = new CompletableFuture<Void>();
+		var existing = resolvedYears.putIfAbsent(year, resolving);
+		if (existing != null) {
+			try {
+				existing.join();
+			} catch (CompletionException e) {
+				resolveYear(year);
+			}
+			return;
+		}
+		try {
+			BankHolidayService.isBankHoliday(LocalDate.of(year, 1, 1));
+			resolving.complete(null);
+		} catch (RuntimeException e) {
+			/*
+			 * let a later configuration try the year again
+			 */
+			resolvedYears.remove(year, resolving);
+			resolving.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Write Method
+	 *
+	 * Write the entries of one configuration, one line per month, and record its latency.
+	 *
+	 * @param generated diaries
+	 * @since 1.0
+	 */
+	private void write(Generated result) {
+		var name = result.configuration().name();
+		/*
+		 * read the fields straight from the immutable results rather than building entry records
+		 */
+		var recording = result.diaries().recording().getResult();
+		var duplication = result.diaries().duplication().getResult();
+		var line = new StringBuilder(128);
+		for (int i = 0; i < recording.size(); i++) {
+			line.setLength(0);
+			line.append(name).append(',').append(recording.getYear()).append(',').append(recording.month(i)).append(',')
+				.append(recording.recordingDate(i)).append(',').append(recording.edition(i)).append(',').append(recording.compiler(i)).append(',')
+				.append(LocalDate.ofEpochDay(duplication.collectEpochDay(i))).append(',')
+				.append(LocalDate.ofEpochDay(duplication.barcodingEpochDay(i))).append(',')
+				.append(LocalDate.ofEpochDay(duplication.duplicationEpochDay(i)));
+			write(line.toString());
+		}
+		if (generated == latencies.length) latencies = Arrays.copyOf(latencies, generated * 2);
+		latencies[generated++] = result.nanos();
+	}
+
+	/**
+	 * Write Method
+	 *
+	 * @param line to write
+	 * @throws UncheckedIOException if the output cannot be written
+	 * @since 1.0
+	 */
+	private void write(String line) {
+		try {
+			out.write(line);
+			out.write(System.lineSeparator());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Report Method
+	 *
+	 * @param elapsed time of the run in nanoseconds
+	 * @return report of the run
+	 * @since 1.0
+	 */
+	private DiaryBatchReport report(long elapsed) {
+		var sorted = Arrays.copyOf(latencies, generated);
+		Arrays.sort(sorted);
+		return new DiaryBatchReport(generated, failed.sum(), Duration.ofNanos(elapsed),
+				percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 1.0));
+	}
+
+	/**
+	 * Percentile Method
+	 *
+	 * @param sorted latencies
+	 * @param fraction of the latencies at or below the result
+	 * @return latency at the percentile, zero if there are none
+	 * @since 1.0
+	 */
+	private static Duration percentile(long[] sorted, double fraction) {
+		if (sorted.length == 0) return Duration.ZERO;
+		int rank = (int) Math.ceil(fraction * sorted.length);
+		return Duration.ofNanos(sorted[Math.max(0, rank - 1)]);
+	}
+}
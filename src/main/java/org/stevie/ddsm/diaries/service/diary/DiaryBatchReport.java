@@ -0,0 +1,49 @@
+/**
+ * <h3>Diary Batch Report Record</h3>
+ *
+ * <p>Summary of a run of the {@link DiaryBatchEngine}: how many configurations were generated or
+ * failed, how long the whole run took and the latency of generating a single configuration.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.diary;
+
+import java.time.Duration;
+
+/**
+ * Diary Batch Report Record
+ *
+ * @param generated configurations whose diaries were written
+ * @param failed configurations which could not be parsed or generated
+ * @param elapsed wall clock time of the run
+ * @param medianLatency median time to generate one configuration
+ * @param p95Latency 95th percentile time to generate one configuration
+ * @param maxLatency longest time to generate one configuration
+ */
+public record DiaryBatchReport(long generated, long failed, Duration elapsed, Duration medianLatency,
+		Duration p95Latency, Duration maxLatency) {
+
+	/**
+	 * Throughput Method
+	 *
+	 * @return configurations generated per second
+	 * @since 1.0
+	 */
+	public double throughput() {
+		return elapsed.isZero() ? 0.0 : generated * 1_000_000_000.0 / elapsed.toNanos();
+	}
+
+	/**
+	 * To String Method
+	 *
+	 * @return string representation of the object
+	 * @since 1.0
+	 */
+	@Override
+	public String toString() {
+		return String.format("DiaryBatchReport [generated=%d, failed=%d, elapsedMillis=%d, perSecond=%.1f, medianMicros=%d, p95Micros=%d, maxMicros=%d]",
+				generated, failed, elapsed.toMillis(), throughput(), medianLatency.toNanos() / 1000,
+				p95Latency.toNanos() / 1000, maxLatency.toNanos() / 1000);
+	}
+}
@@ -0,0 +1,41 @@
+/**
+ * <h3>Diary Configuration Class</h3>
+ *
+ * <p>The diary generation service is used from the controllers through static methods, so the
+ * objects it depends on are created here as Spring beans and handed to the service when the
+ * application context starts. Settings are read from application.properties.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.diary;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Diary Configuration Class
+ *
+ * Spring configuration for the diary generation service.
+ *
+ */
+@Configuration
+public class DiaryConfiguration {
+
+	/**
+	 * Diary Generation Cache Bean
+	 *
+	 * Memoises generated diaries by their inputs and the bank holiday data version.
+	 *
+	 * @param maximum number of generated diaries kept
+	 * @return generation cache
+	 * @since 1.0
+	 */
+	@Bean
+	public DiaryGenerationCache diaryGenerationCache(@Value("${ddsm.diaries.cache.max-entries:64}") int maxEntries) {
+		var cache = new DiaryGenerationCache(maxEntries);
+		DiaryGenerationService.setGenerationCache(cache);
+		return cache;
+	}
+}
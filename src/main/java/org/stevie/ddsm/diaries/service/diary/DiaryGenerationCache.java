@@ -0,0 +1,153 @@
+/**
+ * <h3>Diary Generation Cache Class</h3>
+ *
+ * <p>Remembers the diaries generated from a set of inputs so that generating them again costs a
+ * lookup. The key is the {@link DiarySettings} (year, January date, edition and compilers) together
+ * with the data version of the {@link BankHolidayCache}. When any bank holidays change the version
+ * moves on, so diaries generated from the old bank holidays are never returned again and age out
+ * of the cache.</p>
+ *
+ * <p>Recording and duplication diaries are generated and kept together, so showing the
+ * duplication rota straight after the recording rota for the same inputs reuses the recording
+ * diary. The cache holds at most a configured number of entries, the least recently used entry is
+ * evicted when it is full.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.diary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.stevie.ddsm.diaries.domain.DiarySettings;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayCache;
+
+/**
+ * Diary Generation Cache Class
+ *
+ * Bounded least recently used cache of generated diaries.
+ *
+ */
+public final class DiaryGenerationCache {
+
+	/*
+	 * inputs the diaries were generated from
+	 */
+	private record Key(DiarySettings settings, long holidayVersion) {
+	}
+
+	/*
+	 * generated diaries in least recently used order, guarded by this
+	 */
+	private final LinkedHashMap<Key, GeneratedDiaries> entries;
+
+	/*
+	 * maximum number of entries
+	 */
+	private final int maxEntries;
+
+	/*
+	 * counters
+	 */
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Copy Constructor
+	 *
+	 * @param maximum number of entries
+	 * @throws IllegalArgumentException if the maximum is not positive
+	 * @since 1.0
+	 */
+	public DiaryGenerationCache(int maxEntries) {
+		if (maxEntries < 1)
+			throw new IllegalArgumentException("max entries should be at least 1");
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, GeneratedDiaries> eldest) {
+				boolean full = size() > DiaryGenerationCache.this.maxEntries;
+				if (full) evictions.increment();
+				return full;
+			}
+		};
+	}
+
+	/**
+	 * Get Or Generate Method
+	 *
+	 * Return the diaries generated from the same inputs and bank holidays, generating them if
+	 * they are not in the cache. Generation happens outside the lock so other lookups are not
+	 * held up by it. Generating can load a year into the bank holiday cache, which moves its
+	 * version on, so the diaries are generated once more against the new version and only
+	 * stored if the version then holds still.
+	 *
+	 * @param settings to generate from
+	 * @return generated diaries
+	 * @since 1.0
+	 */
+	public GeneratedDiaries getOrGenerate(DiarySettings settings) {
+		long version = BankHolidayCache.getVersion();
+		synchronized (this) {
+			var cached = entries.get(new Key(Objects.requireNonNull(settings), version));
+			if (cached != null) {
+				hits.increment();
+				return cached;
+			}
+		}
+		misses.increment();
+		var generated = DiaryGenerationService.generate(settings);
+		long after = BankHolidayCache.getVersion();
+		if (after != version) {
+			/*
+			 * the bank holidays changed while generating, usually because a year was loaded
+			 */
+			version = after;
+			generated = DiaryGenerationService.generate(settings);
+			after = BankHolidayCache.getVersion();
+			if (after != version) return generated;
+		}
+		var key = new Key(settings, version);
+		synchronized (this) {
+			var existing = entries.putIfAbsent(key, generated);
+			return existing != null ? existing : generated;
+		}
+	}
+
+	/**
+	 * Clear Method
+	 *
+	 * Forget every entry.
+	 *
+	 * @since 1.0
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Size Method
+	 *
+	 * @return number of entries
+	 * @since 1.0
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Get Statistics Method
+	 *
+	 * @return snapshot of the cache counters
+	 * @since 1.0
+	 */
+	public DiaryGenerationCacheStatistics getStatistics() {
+		return new DiaryGenerationCacheStatistics(hits.sum(), misses.sum(), evictions.sum(), size());
+	}
+}
@@ -0,0 +1,43 @@
+/**
+ * <h3>Diary Generation Cache Statistics Record</h3>
+ *
+ * <p>A point in time copy of the counters kept by the {@link DiaryGenerationCache}.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.diary;
+
+/**
+ * Diary Generation Cache Statistics Record
+ *
+ * @param hits lookups answered from the cache
+ * @param misses lookups which generated the diaries
+ * @param evictions entries removed to stay within the maximum size
+ * @param size entries in the cache
+ */
+public record DiaryGenerationCacheStatistics(long hits, long misses, long evictions, int size) {
+
+	/**
+	 * Hit Rate Method
+	 *
+	 * @return fraction of lookups answered from the cache, or zero if there have been none
+	 * @since 1.0
+	 */
+	public double hitRate() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0.0 : (double) hits / lookups;
+	}
+
+	/**
+	 * To String Method
+	 *
+	 * @return string representation of the object
+	 * @since 1.0
+	 */
+	@Override
+	public String toString() {
+		return String.format("DiaryGenerationCacheStatistics [hits=%d, misses=%d, evictions=%d, size=%d, hitRate=%.2f]",
+				hits, misses, evictions, size, hitRate());
+	}
+}
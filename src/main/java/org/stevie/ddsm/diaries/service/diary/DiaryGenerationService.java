@@ -0,0 +1,158 @@
+/**
+ * <h3>Diary Generation Service Class</h3>
+ *
+ * <p>Generates the recording and duplication diaries for a range of years in parallel. The
+ * settings of the first year are carried forward with {@link DiarySettings#forYear(int)}, so the
+ * edition numbering and compiler alternation continue from each December into the following
+ * January. Each year only depends on the bank holidays of that year, so the years are generated
+ * at the same time on virtual threads and each result is emitted as soon as it is ready.</p>
+ *
+ * <p>Diaries generated for the user interface go through a {@link DiaryGenerationCache} so that
+ * generating them again from the same inputs costs a lookup.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.diary;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.stevie.ddsm.diaries.domain.DiarySettings;
+import org.stevie.ddsm.diaries.domain.DuplicationDiary;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Diary Generation Service Class
+ *
+ * Static methods which generate diaries outside the user interface.
+ *
+ */
+public final class DiaryGenerationService {
+
+	/*
+	 * logging
+	 */
+	private static Logger logger = LoggerFactory.getLogger(DiaryGenerationService.class);
+
+	/*
+	 * generated diaries by their inputs, replaced by {@link DiaryConfiguration}
+	 */
+	private static volatile DiaryGenerationCache generationCache = new DiaryGenerationCache(64);
+
+	/**
+	 * Default Constructor
+	 *
+	 * Prevent end users from creating objects from this class
+	 *
+	 * @since 1.0
+	 */
+	private DiaryGenerationService() {
+
+	}
+
+	/**
+	 * Generate Method
+	 *
+	 * Generate the recording diary and the duplication diary for one year. Blocks while the
+	 * bank holidays are resolved.
+	 *
+	 * @param settings of the year
+	 * @return generated diaries
+	 * @since 1.0
+	 */
+	public static GeneratedDiaries generate(DiarySettings settings) {
+		/*
+		 * generate the recording diary
+		 */
+		var recordingDiary = settings.recordingDiary();
+		recordingDiary.generateDiary();
+
+		/*
+		 * generate the duplication diary from the recording diary
+		 */
+		var duplicationDiary = new DuplicationDiary.DuplicationDiaryBuilder()
+				.recordingDiary(recordingDiary)
+				.build();
+		duplicationDiary.setYear(settings.year());
+		duplicationDiary.generateDiary();
+
+		return new GeneratedDiaries(recordingDiary, duplicationDiary);
+	}
+
+	/**
+	 * Generate Cached Method
+	 *
+	 * Like {@link #generate(DiarySettings)} but returns the diaries already generated from the
+	 * same inputs and bank holidays if there are any. The diaries returned may be shared so they
+	 * should not be generated again by the caller, a diary which is to be regenerated should be
+	 * copied first.
+	 *
+	 * @param settings of the year
+	 * @return generated diaries
+	 * @since 1.0
+	 */
+	public static GeneratedDiaries generateCached(DiarySettings settings) {
+		return generationCache.getOrGenerate(settings);
+	}
+
+	/**
+	 * Set Generation Cache Method
+	 *
+	 * Called by {@link DiaryConfiguration} with the settings from application.properties.
+	 *
+	 * @param generation cache
+	 * @since 1.0
+	 */
+	static void setGenerationCache(DiaryGenerationCache cache) {
+		generationCache = Objects.requireNonNull(cache);
+	}
+
+	/**
+	 * Get Generation Cache Statistics Method
+	 *
+	 * @return snapshot of the generation cache counters
+	 * @since 1.0
+	 */
+	public static DiaryGenerationCacheStatistics getGenerationCacheStatistics() {
+		return generationCache.getStatistics();
+	}
+
+	/**
+	 * Generate Years Method
+	 *
+	 * Generate the diaries for every year from the year of the settings to the last year. Each
+	 * year is generated on its own virtual thread, at most max concurrency at a time. Results
+	 * are emitted in the order they complete, not year order. The virtual thread executor is
+	 * shut down once the flux terminates or is cancelled.
+	 *
+	 * @param settings of the first year
+	 * @param last year to generate, inclusive
+	 * @param maximum number of years generated at the same time
+	 * @return diaries of each year as they complete, nothing happens until it is subscribed to
+	 * @throws IllegalArgumentException if the last year is before the first or the concurrency is not positive
+	 * @since 1.0
+	 */
+	public static Flux<GeneratedDiaries> generateYears(DiarySettings first, int lastYear, int maxConcurrency) {
+		if (lastYear < first.year())
+			throw new IllegalArgumentException("last year should not be before the first year");
+		if (maxConcurrency < 1)
+			throw new IllegalArgumentException("max concurrency should be at least 1");
+
+		return Flux.using(Executors::newVirtualThreadPerTaskExecutor,
+				executor -> {
+					var scheduler = Schedulers.fromExecutorService(executor, "ddsm-diaries");
+					logger.info("Generating diaries for {} to {}", first.year(), lastYear);
+					return Flux.range(first.year(), lastYear - first.year() + 1)
+							.flatMap(year -> Mono.fromCallable(() -> generate(first.forYear(year)))
+									.subscribeOn(scheduler), maxConcurrency);
+				},
+				ExecutorService::shutdown);
+	}
+}
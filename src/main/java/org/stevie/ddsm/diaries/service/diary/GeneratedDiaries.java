@@ -0,0 +1,31 @@
+/**
+ * <h3>Generated Diaries Record</h3>
+ *
+ * <p>The recording diary and the duplication diary generated for one year.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.diary;
+
+import org.stevie.ddsm.diaries.domain.DuplicationDiary;
+import org.stevie.ddsm.diaries.domain.RecordingDiary;
+
+/**
+ * Generated Diaries Record
+ *
+ * @param recording generated recording diary
+ * @param duplication duplication diary generated from the recording diary
+ */
+public record GeneratedDiaries(RecordingDiary recording, DuplicationDiary duplication) {
+
+	/**
+	 * Year Method
+	 *
+	 * @return year of the diaries
+	 * @since 1.0
+	 */
+	public int year() {
+		return recording.getYear();
+	}
+}
@@ -0,0 +1,78 @@
+/**
+ * <h3>Rota Configuration Record</h3>
+ *
+ * <p>One line of a batch file: a named sound-magazine edition with the settings its rotas are
+ * generated from. Lines have the form</p>
+ *
+ * <pre>name, yyyy-MM-dd, edition, compiler 1, compiler 2</pre>
+ *
+ * <p>where the date is the recording date of the January edition and the edition is its number.
+ * Blank lines and lines starting with # are ignored.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.diary;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import org.stevie.ddsm.diaries.domain.DiarySettings;
+
+/**
+ * Rota Configuration Record
+ *
+ * @param name of the magazine edition
+ * @param settings its diaries are generated from
+ */
+public record RotaConfiguration(String name, DiarySettings settings) {
+
+	/*
+	 * fields are separated by a comma and optional white space
+	 */
+	private static final Pattern SEPARATOR = Pattern.compile("\\s*,\\s*");
+
+	/**
+	 * Compact Constructor
+	 *
+	 * @since 1.0
+	 */
+	public RotaConfiguration {
+		Objects.requireNonNull(name);
+		Objects.requireNonNull(settings);
+	}
+
+	/**
+	 * Is Configuration Line Method
+	 *
+	 * @param line of a batch file
+	 * @return false for blank lines and comments
+	 * @since 1.0
+	 */
+	public static boolean isConfigurationLine(String line) {
+		var stripped = line.strip();
+		return !stripped.isEmpty() && !stripped.startsWith("#");
+	}
+
+	/**
+	 * Parse Method
+	 *
+	 * @param line of a batch file
+	 * @return configuration
+	 * @throws IllegalArgumentException if the line is not in the expected form
+	 * @since 1.0
+	 */
+	public static RotaConfiguration parse(String line) {
+		var fields = SEPARATOR.split(line.strip());
+		if (fields.length != 5)
+			throw new IllegalArgumentException("expected name, date, edition, compiler 1, compiler 2 but found: " + line);
+		try {
+			return new RotaConfiguration(fields[0],
+					new DiarySettings(LocalDate.parse(fields[1]), Integer.parseInt(fields[2]), fields[3], fields[4]));
+		} catch (DateTimeParseException | NumberFormatException e) {
+			throw new IllegalArgumentException("invalid rota configuration: " + line, e);
+		}
+	}
+}
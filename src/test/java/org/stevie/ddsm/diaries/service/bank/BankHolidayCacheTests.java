@@ -0,0 +1,163 @@
+package org.stevie.ddsm.diaries.service.bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BankHolidayCacheTests {
+
+	/*
+	 * clock moved forward by the tests
+	 */
+	private static final class TestClock extends Clock {
+		private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+
+	private final TestClock clock = new TestClock();
+
+	private final List<Integer> refreshedYears = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		BankHolidayCache.setDiskStore(null);
+		BankHolidayCache.emptyCache();
+		BankHolidayCache.setClock(clock);
+		BankHolidayCache.setRefreshHandler(refreshedYears::add);
+		BankHolidayCache.setPolicy(new BankHolidayCachePolicy(2, Duration.ofDays(30), Duration.ofDays(7)));
+	}
+
+	@AfterEach
+	void tearDown() {
+		BankHolidayCache.emptyCache();
+		BankHolidayCache.setRefreshHandler(null);
+		BankHolidayCache.setClock(Clock.systemUTC());
+		BankHolidayCache.setPolicy(BankHolidayCachePolicy.DEFAULT);
+	}
+
+	private static List<BankHoliday> newYearsDay(int year) {
+		return List.of(new BankHoliday.Builder().date(LocalDate.of(year, 1, 1)).name("New Year's Day").build());
+	}
+
+	@Test
+	void leastRecentlyUsedYearIsEvicted() {
+		var before = BankHolidayCache.getStatistics();
+		BankHolidayCache.putBankHolidaysInCache(newYearsDay(2023), 2023);
+		clock.advance(Duration.ofMinutes(1));
+		BankHolidayCache.putBankHolidaysInCache(newYearsDay(2024), 2024);
+		clock.advance(Duration.ofMinutes(1));
+		assertNotNull(BankHolidayCache.getBankHolidayIndex(2023));
+		clock.advance(Duration.ofMinutes(1));
+		BankHolidayCache.putBankHolidaysInCache(newYearsDay(2025), 2025);
+
+		assertTrue(BankHolidayCache.isInCache(2023));
+		assertFalse(BankHolidayCache.isInCache(2024));
+		assertNull(BankHolidayCache.getBankHolidayIndex(2024));
+
+		var after = BankHolidayCache.getStatistics();
+		assertEquals(1, after.evictions() - before.evictions());
+		assertEquals(1, after.misses() - before.misses());
+	}
+
+	@Test
+	void evictedYearIsReadBackAfterItsDiskWrite(@TempDir Path directory) {
+		var store = BankHolidayDiskStore.inDirectory(directory);
+		BankHolidayCache.setDiskStore(store);
+		try {
+			BankHolidayCache.putBankHolidaysInCache(newYearsDay(2023), 2023);
+			clock.advance(Duration.ofMinutes(1));
+			BankHolidayCache.putBankHolidaysInCache(newYearsDay(2024), 2024);
+			clock.advance(Duration.ofMinutes(1));
+			BankHolidayCache.putBankHolidaysInCache(newYearsDay(2025), 2025);
+
+			/*
+			 * a memory lookup does not touch the disk, the disk tier reads the year back
+			 */
+			assertFalse(BankHolidayCache.isInCache(2023));
+			assertNull(BankHolidayCache.getBankHolidayIndex(2023));
+			assertTrue(BankHolidayCache.getBankHolidayIndexFromDisk(2023).contains(LocalDate.of(2023, 1, 1)));
+			assertTrue(BankHolidayCache.isInCache(2023));
+			BankHolidayCache.flushDiskWrites();
+			assertTrue(store.contains(2024));
+			assertTrue(store.contains(2025));
+		} finally {
+			BankHolidayCache.setDiskStore(null);
+		}
+	}
+
+	@Test
+	void staleYearIsServedWhileOneRefreshRuns() {
+		BankHolidayCache.putBankHolidaysInCache(newYearsDay(2024), 2024);
+		assertTrue(BankHolidayCache.getBankHolidayIndex(2024).contains(LocalDate.of(2024, 1, 1)));
+		assertTrue(refreshedYears.isEmpty());
+
+		var before = BankHolidayCache.getStatistics();
+		clock.advance(Duration.ofDays(31));
+		assertTrue(BankHolidayCache.getBankHolidayIndex(2024).contains(LocalDate.of(2024, 1, 1)));
+		assertNotNull(BankHolidayCache.getBankHolidayIndex(2024));
+		assertEquals(List.of(2024), refreshedYears);
+		assertEquals(2, BankHolidayCache.getStatistics().staleHits() - before.staleHits());
+
+		BankHolidayCache.putBankHolidaysInCache(newYearsDay(2024), 2024);
+		assertFalse(BankHolidayCache.isRefreshDue(2024));
+		BankHolidayCache.getBankHolidayIndex(2024);
+		assertEquals(List.of(2024), refreshedYears);
+	}
+
+	@Test
+	void concurrentReadersSeeEveryYear() throws InterruptedException {
+		BankHolidayCache.putBankHolidaysInCache(newYearsDay(2024), 2024);
+		BankHolidayCache.putBankHolidaysInCache(newYearsDay(2025), 2025);
+
+		var failures = new AtomicInteger();
+		var readers = new ArrayList<Thread>();
+		for (int t = 0; t < 8; t++) {
+			readers.add(Thread.ofPlatform().start(() -> {
+				for (int i = 0; i < 100_000; i++) {
+					int year = 2024 + (i & 1);
+					var index = BankHolidayCache.getBankHolidayIndex(year);
+					if (index == null || !index.contains(LocalDate.of(year, 1, 1))) failures.incrementAndGet();
+				}
+			}));
+		}
+		for (var reader : readers) reader.join();
+
+		assertEquals(0, failures.get());
+	}
+}
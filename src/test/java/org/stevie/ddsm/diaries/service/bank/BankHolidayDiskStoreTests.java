@@ -0,0 +1,119 @@
+package org.stevie.ddsm.diaries.service.bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BankHolidayDiskStoreTests {
+
+	@TempDir
+	Path directory;
+
+	private static List<BankHoliday> holidays2024() {
+		return List.of(
+				new BankHoliday.Builder().date(LocalDate.of(2024, 1, 1)).localName("New Year's Day").name("New Year's Day")
+					.countryCode("GB").fixed(false).global(true).type("Public").build(),
+				new BankHoliday.Builder().date(LocalDate.of(2024, 5, 6)).localName("Early May Bank Holiday").name("Early May Bank Holiday")
+					.countryCode("GB").counties(new String[] {"GB-ENG", "GB-WLS"}).type("Public").build());
+	}
+
+	@Test
+	void storedYearIsReadBackByNewStore() {
+		var fetchedAt = Instant.parse("2024-03-01T09:30:00Z");
+		var validators = new HolidayValidators("\"v1\"", "Fri, 01 Mar 2024 09:30:00 GMT");
+		BankHolidayDiskStore.inDirectory(directory).store(holidays2024(), 2024, fetchedAt, validators);
+
+		var store = BankHolidayDiskStore.inDirectory(directory);
+		var stored = store.load(2024).orElseThrow();
+		var loaded = stored.bankHolidays();
+
+		assertEquals(fetchedAt, stored.fetchedAt());
+		assertEquals(validators, stored.validators());
+		assertEquals(2, loaded.size());
+		assertEquals(LocalDate.of(2024, 5, 6), loaded.get(1).getDate());
+		assertEquals("Early May Bank Holiday", loaded.get(1).getLocalName());
+		assertEquals("GB-WLS", loaded.get(1).getCounties()[1]);
+		assertTrue(loaded.get(0).isGlobal());
+		assertTrue(store.load(2025).isEmpty());
+	}
+
+	@Test
+	void touchOnlyChangesFetchTime() {
+		var store = BankHolidayDiskStore.inDirectory(directory);
+		store.store(holidays2024(), 2024, Instant.parse("2024-03-01T09:30:00Z"), new HolidayValidators("\"v1\"", null));
+		var touchedAt = Instant.parse("2024-04-01T09:30:00Z");
+		store.touch(2024, touchedAt);
+
+		var stored = BankHolidayDiskStore.inDirectory(directory).load(2024).orElseThrow();
+		assertEquals(touchedAt, stored.fetchedAt());
+		assertEquals("\"v1\"", stored.validators().etag());
+		assertEquals(2, stored.bankHolidays().size());
+	}
+
+	@Test
+	void damagedRecordIsDiscarded() throws IOException {
+		var store = BankHolidayDiskStore.inDirectory(directory);
+		store.store(holidays2024(), 2024);
+
+		byte[] bytes = Files.readAllBytes(store.getFilePath());
+		bytes[bytes.length - 3] ^= 0x5A;
+		Files.write(store.getFilePath(), bytes);
+
+		var reopened = BankHolidayDiskStore.inDirectory(directory);
+		assertTrue(reopened.contains(2024));
+		assertTrue(reopened.load(2024).isEmpty());
+		assertFalse(reopened.contains(2024));
+	}
+
+	@Test
+	void fileFromAnotherVersionIsIgnored() throws IOException {
+		var store = BankHolidayDiskStore.inDirectory(directory);
+		store.store(holidays2024(), 2024);
+
+		byte[] bytes = Files.readAllBytes(store.getFilePath());
+		bytes[5] = (byte) (BankHolidayDiskStore.FORMAT_VERSION + 1);
+		Files.write(store.getFilePath(), bytes);
+
+		assertFalse(BankHolidayDiskStore.inDirectory(directory).contains(2024));
+	}
+
+	@Test
+	void touchAndRemoveOnlyRewriteTheDirectory() throws IOException {
+		var store = BankHolidayDiskStore.inDirectory(directory);
+		store.store(holidays2024(), 2024);
+		store.store(holidays2024(), 2025);
+		long size = Files.size(store.getFilePath());
+
+		store.touch(2024, Instant.parse("2024-04-01T09:30:00Z"));
+		store.remove(2025);
+
+		assertEquals(size, Files.size(store.getFilePath()));
+		assertFalse(store.contains(2025));
+		assertEquals(2, store.load(2024).orElseThrow().bankHolidays().size());
+	}
+
+	@Test
+	void storesSharingAFileSeeEachOthersWrites() {
+		var first = BankHolidayDiskStore.inDirectory(directory);
+		var second = BankHolidayDiskStore.inDirectory(directory);
+		first.store(holidays2024(), 2024);
+		assertTrue(second.contains(2024));
+
+		second.store(holidays2024(), 2025);
+		var touchedAt = Instant.parse("2024-04-01T09:30:00Z");
+		first.touch(2025, touchedAt);
+
+		assertTrue(first.contains(2024));
+		assertEquals(touchedAt, second.load(2025).orElseThrow().fetchedAt());
+	}
+}
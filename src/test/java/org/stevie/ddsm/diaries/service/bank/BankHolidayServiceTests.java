@@ -0,0 +1,94 @@
+package org.stevie.ddsm.diaries.service.bank;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BankHolidayServiceTests {
+
+	private final EnglandWalesHolidayRules rules = EnglandWalesHolidayRules.withKnownProclamations();
+
+	@BeforeEach
+	void setUp() {
+		BankHolidayService.setSourceChain(new HolidaySourceChain(List.of(new MemoryHolidaySource(), new RulesHolidaySource(rules))));
+		BankHolidayCache.setRefreshHandler(null);
+		BankHolidayCache.setDiskStore(null);
+		BankHolidayCache.emptyCache();
+	}
+
+	@AfterEach
+	void tearDown() {
+		BankHolidayCache.emptyCache();
+		BankHolidayService.setSourceChain(HolidaySourceChain.standard(EnglandWalesHolidayRules.withKnownProclamations()));
+	}
+
+	@Test
+	void batchCheckResolvesEachYearOnce() {
+		var result = BankHolidayService.areBankHolidays(
+				LocalDate.of(2024, 5, 6), LocalDate.of(2024, 5, 13), LocalDate.of(2024, 12, 25), LocalDate.of(2025, 1, 1));
+
+		assertArrayEquals(new boolean[] {true, false, true, true}, result);
+		assertArrayEquals(result, BankHolidayService.areBankHolidays(
+				List.of(LocalDate.of(2024, 5, 6), LocalDate.of(2024, 5, 13), LocalDate.of(2024, 12, 25), LocalDate.of(2025, 1, 1))));
+		assertEquals(2, BankHolidayService.getSourceStatistics().get(1).hits());
+	}
+
+	@Test
+	void rangeListsHolidaysAcrossYears() {
+		var holidays = BankHolidayService.getBankHolidaysBetween(LocalDate.of(2024, 12, 1), LocalDate.of(2025, 1, 31));
+
+		assertEquals(List.of(LocalDate.of(2024, 12, 25), LocalDate.of(2024, 12, 26), LocalDate.of(2025, 1, 1)),
+				holidays.stream().map(BankHoliday::getDate).toList());
+	}
+
+	@Test
+	void firstNonHolidayMatchingCondition() {
+		var monday = BankHolidayService.findFirstNonBankHoliday(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31),
+				date -> date.getDayOfWeek() == DayOfWeek.MONDAY);
+
+		assertEquals(Optional.of(LocalDate.of(2024, 5, 13)), monday);
+		assertEquals(LocalDate.of(2024, 8, 26).plusWeeks(1), BankHolidayService.getNextNonBankHoliday(LocalDate.of(2024, 8, 26)));
+	}
+
+	@Test
+	void regionsAreAnsweredFromOneCachedYear() {
+		var holidays = new ArrayList<BankHoliday>();
+		holidays.add(new BankHoliday.Builder().date(LocalDate.of(2030, 1, 1)).build());
+		holidays.add(new BankHoliday.Builder().date(LocalDate.of(2030, 1, 2)).counties(new String[] {"GB-SCT"}).build());
+		holidays.add(new BankHoliday.Builder().date(LocalDate.of(2030, 3, 18)).counties(new String[] {"GB-NIR"}).build());
+		BankHolidayCache.putBankHolidaysInCache(holidays, 2030);
+
+		assertTrue(BankHolidayService.isBankHoliday(LocalDate.of(2030, 1, 2), HolidayRegion.SCOTLAND));
+		assertFalse(BankHolidayService.isBankHoliday(LocalDate.of(2030, 1, 2)));
+		assertTrue(BankHolidayService.isBankHoliday(LocalDate.of(2030, 1, 1), HolidayRegion.WALES));
+		assertEquals(2, BankHolidayService.getBankHolidaysBetween(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 12, 31), HolidayRegion.NORTHERN_IRELAND).size());
+		assertEquals(1, BankHolidayService.getBankHolidaysBetween(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 12, 31)).size());
+		assertArrayEquals(new String[] {"GB-SCT"}, holidays.get(1).getCounties());
+	}
+
+	@Test
+	void batchAndScanChecksTakeARegion() {
+		var holidays = new ArrayList<BankHoliday>();
+		holidays.add(new BankHoliday.Builder().date(LocalDate.of(2030, 1, 1)).build());
+		holidays.add(new BankHoliday.Builder().date(LocalDate.of(2030, 1, 2)).counties(new String[] {"GB-SCT"}).build());
+		BankHolidayCache.putBankHolidaysInCache(holidays, 2030);
+
+		assertArrayEquals(new boolean[] {true, true}, BankHolidayService.areBankHolidays(HolidayRegion.SCOTLAND, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 2)));
+		assertArrayEquals(new boolean[] {true, false}, BankHolidayService.areBankHolidays(List.of(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 2)), HolidayRegion.WALES));
+		assertEquals(Optional.of(LocalDate.of(2030, 1, 3)), BankHolidayService.findFirstNonBankHoliday(
+				LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31), date -> true, HolidayRegion.SCOTLAND));
+		assertEquals(LocalDate.of(2030, 1, 9), BankHolidayService.getNextNonBankHoliday(LocalDate.of(2030, 1, 2), HolidayRegion.SCOTLAND));
+		assertEquals(LocalDate.of(2030, 1, 2), BankHolidayService.getNextNonBankHoliday(LocalDate.of(2030, 1, 2)));
+	}
+}
@@ -0,0 +1,100 @@
+package org.stevie.ddsm.diaries.service.bank;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class BankHolidayTests {
+
+	/*
+	 * number of instances measured, enough for the heap delta to dwarf any noise
+	 */
+	private static final int INSTANCES = 200_000;
+
+	/**
+	 * Fields of a bank holiday before it was packed, each instance had its own date
+	 */
+	private record UnpackedBankHoliday(LocalDate date, String localName, String name, String countryCode,
+			boolean fixed, boolean global, String[] counties, String type) {
+	}
+
+	/**
+	 * Heap in use once garbage has been collected
+	 */
+	private static long usedHeapAfterGc() {
+		var memory = ManagementFactory.getMemoryMXBean();
+		for (int i = 0; i < 3; i++) System.gc();
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+	@Test
+	void packedInstancesRetainLessThanHalfTheHeap() {
+		var first = LocalDate.of(2000, 1, 1);
+		var builder = new BankHoliday.Builder().name("Christmas Day").localName("Christmas Day").countryCode("GB")
+				.fixed(false).global(true).type("Public");
+
+		var packed = new BankHoliday[INSTANCES];
+		long before = usedHeapAfterGc();
+		for (int i = 0; i < INSTANCES; i++) packed[i] = builder.date(first.plusDays(i)).build();
+		long packedBytes = (usedHeapAfterGc() - before) / INSTANCES;
+		Reference.reachabilityFence(packed);
+
+		var unpacked = new UnpackedBankHoliday[INSTANCES];
+		before = usedHeapAfterGc();
+		for (int i = 0; i < INSTANCES; i++) {
+			unpacked[i] = new UnpackedBankHoliday(first.plusDays(i), "Christmas Day", "Christmas Day", "GB", false, true, null, "Public");
+		}
+		long unpackedBytes = (usedHeapAfterGc() - before) / INSTANCES;
+		Reference.reachabilityFence(unpacked);
+
+		assertTrue(packedBytes <= 32, "packed instance retains " + packedBytes + " bytes");
+		assertTrue(packedBytes * 2 <= unpackedBytes, "packed " + packedBytes + " bytes, unpacked " + unpackedBytes + " bytes");
+	}
+
+	@Test
+	void jsonIsReadIntoSharedLabels() throws Exception {
+		var mapper = Jackson2ObjectMapperBuilder.json().build();
+		Set<Object> localNames = Collections.newSetFromMap(new IdentityHashMap<>());
+		Set<Object> names = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (int year = 2000; year < 2100; year++) {
+			var json = String.format("""
+					[{"date":"%1$d-12-25","localName":"Christmas Day","name":"Christmas Day","countryCode":"GB","fixed":false,"global":true,"counties":null,"types":["Public"]},
+					 {"date":"%1$d-01-02","localName":"2 January","name":"2 January","countryCode":"GB","fixed":false,"global":false,"counties":["GB-SCT"],"types":["Public"]}]
+					""", year);
+			for (var bh : mapper.readValue(json, BankHoliday[].class)) {
+				localNames.add(bh.getLocalName());
+				names.add(bh.getName());
+			}
+		}
+
+		assertEquals(2, localNames.size());
+		assertEquals(2, names.size());
+
+	}
+
+	@Test
+	void fieldsSurviveThePacking() {
+		var bh = new BankHoliday.Builder().date(LocalDate.of(2024, 1, 2)).name("2 January").localName("2 January")
+				.countryCode("GB").fixed(true).global(false).counties(new String[] {"GB-SCT"}).type("Public").build();
+		var copy = new BankHoliday.Builder().date(LocalDate.of(2025, 1, 2)).name("2 January").localName("2 January")
+				.countryCode("GB").fixed(true).global(false).counties(new String[] {"GB-SCT"}).type("Public").build();
+
+		assertEquals(LocalDate.of(2024, 1, 2), bh.getDate());
+		assertTrue(bh.isFixed());
+		assertArrayEquals(new String[] {"GB-SCT"}, bh.getCounties());
+		assertSame(bh.getName(), copy.getName());
+		assertNull(new BankHoliday.Builder().build().getDate());
+	}
+}
@@ -0,0 +1,60 @@
+package org.stevie.ddsm.diaries.service.bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.stevie.ddsm.diaries.service.bank.EnglandWalesHolidayRules.Proclamation;
+
+class EnglandWalesHolidayRulesTests {
+
+	private final EnglandWalesHolidayRules rules = EnglandWalesHolidayRules.withKnownProclamations();
+
+	private List<LocalDate> datesFor(int year) {
+		return rules.bankHolidaysFor(year).stream().map(BankHoliday::getDate).toList();
+	}
+
+	@Test
+	void regularYearMatchesPublishedDates() {
+		assertEquals(List.of(
+				LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 29), LocalDate.of(2024, 4, 1),
+				LocalDate.of(2024, 5, 6), LocalDate.of(2024, 5, 27), LocalDate.of(2024, 8, 26),
+				LocalDate.of(2024, 12, 25), LocalDate.of(2024, 12, 26)), datesFor(2024));
+	}
+
+	@Test
+	void weekendHolidaysAreSubstituted() {
+		/* 2022: New Year's Day Saturday, Christmas Day Sunday, plus the jubilee and state funeral */
+		assertEquals(List.of(
+				LocalDate.of(2022, 1, 3), LocalDate.of(2022, 4, 15), LocalDate.of(2022, 4, 18),
+				LocalDate.of(2022, 5, 2), LocalDate.of(2022, 6, 2), LocalDate.of(2022, 6, 3),
+				LocalDate.of(2022, 8, 29), LocalDate.of(2022, 9, 19),
+				LocalDate.of(2022, 12, 26), LocalDate.of(2022, 12, 27)), datesFor(2022));
+		var boxingDay = rules.bankHolidaysFor(2022).get(8);
+		assertEquals("Boxing Day", boxingDay.getName());
+
+		/* 2021: Christmas Day Saturday and Boxing Day Sunday */
+		assertTrue(datesFor(2021).containsAll(List.of(LocalDate.of(2021, 12, 27), LocalDate.of(2021, 12, 28))));
+	}
+
+	@Test
+	void easterIsCalculatedAcrossTheRange() {
+		assertEquals(LocalDate.of(2000, 4, 23), EnglandWalesHolidayRules.easterSunday(2000));
+		assertEquals(LocalDate.of(2038, 4, 25), EnglandWalesHolidayRules.easterSunday(2038));
+		assertEquals(LocalDate.of(2285, 3, 22), EnglandWalesHolidayRules.easterSunday(2285));
+	}
+
+	@Test
+	void proclamationsAreApplied() {
+		rules.addProclamation(Proclamation.extra(LocalDate.of(2030, 7, 1), "Test Proclamation"));
+		assertTrue(datesFor(2030).contains(LocalDate.of(2030, 7, 1)));
+		assertFalse(datesFor(2020).contains(LocalDate.of(2020, 5, 4)));
+		assertTrue(datesFor(2020).contains(LocalDate.of(2020, 5, 8)));
+		assertThrows(IllegalArgumentException.class, () -> rules.bankHolidaysFor(2501));
+	}
+}
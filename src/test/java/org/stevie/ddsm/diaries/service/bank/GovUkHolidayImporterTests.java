@@ -0,0 +1,59 @@
+package org.stevie.ddsm.diaries.service.bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GovUkHolidayImporterTests {
+
+	@BeforeEach
+	void setUp() {
+		BankHolidayCache.setDiskStore(null);
+		BankHolidayCache.emptyCache();
+	}
+
+	@AfterEach
+	void tearDown() {
+		BankHolidayCache.emptyCache();
+	}
+
+	@Test
+	void importsEveryYearAndRegion() throws IOException {
+		try (var in = GovUkHolidayImporterTests.class.getResourceAsStream("/govuk/bank-holidays.json")) {
+			var years = GovUkHolidayImporter.importIntoCache(in);
+
+			assertEquals(List.of(2024, 2025), List.copyOf(years.keySet()));
+			var holidays2024 = years.get(2024);
+			assertEquals(6, holidays2024.size());
+			assertEquals(LocalDate.of(2024, 1, 1), holidays2024.get(0).getDate());
+			assertTrue(holidays2024.get(0).isGlobal());
+			assertEquals(HolidayRegion.SCOTLAND.bit(), holidays2024.get(1).getRegions());
+			assertEquals("St Patrick’s Day", holidays2024.get(2).getName());
+
+			assertTrue(BankHolidayCache.isInCache(2024));
+			assertTrue(BankHolidayCache.isInCache(2025));
+			var index = BankHolidayCache.getBankHolidayIndex(2024);
+			assertTrue(index.contains(LocalDate.of(2024, 4, 1), HolidayRegion.WALES));
+			assertFalse(index.contains(LocalDate.of(2024, 4, 1), HolidayRegion.SCOTLAND));
+			assertEquals(4, index.size(HolidayRegion.ENGLAND));
+		}
+	}
+
+	@Test
+	void rejectsOtherDocuments() {
+		var in = new ByteArrayInputStream("[{\"date\":\"2024-01-01\"}]".getBytes(StandardCharsets.UTF_8));
+		assertThrows(IOException.class, () -> GovUkHolidayImporter.read(in));
+		assertFalse(BankHolidayCache.isInCache(2024));
+	}
+}
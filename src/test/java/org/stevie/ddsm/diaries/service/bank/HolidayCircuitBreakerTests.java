@@ -0,0 +1,73 @@
+package org.stevie.ddsm.diaries.service.bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class HolidayCircuitBreakerTests {
+
+	@Test
+	void opensAfterConsecutiveFailures() {
+		var now = new AtomicLong();
+		var breaker = new HolidayCircuitBreaker(3, Duration.ofSeconds(30), now::get);
+
+		breaker.recordFailure();
+		breaker.recordFailure();
+		breaker.recordSuccess();
+		breaker.recordFailure();
+		breaker.recordFailure();
+		assertEquals(HolidayCircuitBreaker.State.CLOSED, breaker.getState());
+
+		breaker.recordFailure();
+		assertEquals(HolidayCircuitBreaker.State.OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquire());
+		assertFalse(breaker.isCallPermitted());
+		assertEquals(Duration.ofSeconds(30), breaker.retryAfter());
+		assertEquals(1, breaker.getOpenedCount());
+		assertEquals(2, breaker.getRejectedCount());
+	}
+
+	@Test
+	void halfOpenLetsOneTrialThrough() {
+		var now = new AtomicLong();
+		var breaker = new HolidayCircuitBreaker(1, Duration.ofSeconds(30), now::get);
+		breaker.recordFailure();
+
+		now.addAndGet(Duration.ofSeconds(30).toNanos());
+		assertTrue(breaker.isCallPermitted());
+		assertTrue(breaker.tryAcquire());
+		assertEquals(HolidayCircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquire());
+
+		/*
+		 * a failed trial opens the breaker again, a successful one closes it
+		 */
+		breaker.recordFailure();
+		assertEquals(HolidayCircuitBreaker.State.OPEN, breaker.getState());
+		now.addAndGet(Duration.ofSeconds(30).toNanos());
+		assertTrue(breaker.tryAcquire());
+		breaker.recordSuccess();
+		assertEquals(HolidayCircuitBreaker.State.CLOSED, breaker.getState());
+		assertTrue(breaker.tryAcquire());
+		assertEquals(2, breaker.getOpenedCount());
+	}
+
+	@Test
+	void releasedTrialIsNotAFailure() {
+		var now = new AtomicLong();
+		var breaker = new HolidayCircuitBreaker(1, Duration.ofSeconds(30), now::get);
+		breaker.recordFailure();
+
+		now.addAndGet(Duration.ofSeconds(30).toNanos());
+		assertTrue(breaker.tryAcquire());
+		breaker.release();
+		assertEquals(HolidayCircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertTrue(breaker.tryAcquire());
+		assertEquals(1, breaker.getOpenedCount());
+	}
+}
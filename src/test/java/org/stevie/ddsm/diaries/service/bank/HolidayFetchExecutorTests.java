@@ -0,0 +1,46 @@
+package org.stevie.ddsm.diaries.service.bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class HolidayFetchExecutorTests {
+
+	@Test
+	void backgroundTasksLeaveHalfThePermitsFree() throws InterruptedException {
+		try (var executor = new HolidayFetchExecutor(4)) {
+			var release = new CountDownLatch(1);
+			var running = new AtomicInteger();
+			var started = new CountDownLatch(2);
+			for (int i = 0; i < 4; i++) {
+				executor.executeInBackground(() -> {
+					running.incrementAndGet();
+					started.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			}
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+
+			/*
+			 * interactive work still runs while the background share is busy
+			 */
+			var interactive = new CountDownLatch(2);
+			executor.execute(interactive::countDown);
+			executor.execute(interactive::countDown);
+			assertTrue(interactive.await(5, TimeUnit.SECONDS));
+			assertEquals(2, running.get());
+			assertEquals(2, executor.getBackgroundConcurrency());
+
+			release.countDown();
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package org.stevie.ddsm.diaries.service.bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HolidaySourceChainTests {
+
+	private static HolidaySource source(String name, BankHolidayIndex answer) {
+		return new HolidaySource() {
+			@Override
+			public String name() {
+				return name;
+			}
+
+			@Override
+			public BankHolidayIndex resolve(int year) {
+				if (answer == null) return null;
+				if (year < 0) throw new IllegalStateException("broken source");
+				return answer;
+			}
+		};
+	}
+
+	@Test
+	void firstTierWhichAnswersWins() {
+		var index = BankHolidayIndex.of(List.of(new BankHoliday.Builder().date(LocalDate.of(2024, 1, 1)).build()), 2024);
+		var chain = new HolidaySourceChain(List.of(source("empty", null), source("full", index), source("unused", index)));
+
+		assertSame(index, chain.resolve(2024));
+		assertSame(index, chain.resolve(2024));
+
+		var statistics = chain.getStatistics();
+		assertEquals(List.of("empty", "full", "unused"), statistics.stream().map(HolidaySourceStatistics::source).toList());
+		assertEquals(2, statistics.get(0).misses());
+		assertEquals(2, statistics.get(1).hits());
+		assertEquals(1.0, statistics.get(1).hitRate());
+		assertEquals(0, statistics.get(2).hits() + statistics.get(2).misses());
+		assertTrue(statistics.get(1).latencyPercentile(99).toNanos() > 0);
+	}
+
+	@Test
+	void failingTierIsCountedAsMiss() {
+		var chain = new HolidaySourceChain(List.of(source("broken", BankHolidayIndex.of(List.of(), 1))));
+
+		assertNull(chain.resolve(-1));
+		assertEquals(1, chain.getStatistics().get(0).misses());
+	}
+}
@@ -0,0 +1,98 @@
+package org.stevie.ddsm.diaries.service.bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+class NagerDateClientTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	@TempDir
+	Path recordings;
+
+	private static Path fixtures() throws URISyntaxException {
+		return Path.of(NagerDateClientTests.class.getResource("/nager").toURI());
+	}
+
+	@Test
+	void everyRegionIsReplayedFromFixture() throws Exception {
+		try (var server = NagerDateStandInServer.builder().fixtures(fixtures()).start()) {
+			var result = NagerDateClient.create(server.baseUrl()).fetchPublicHolidays(2024, HolidayValidators.NONE).block(TIMEOUT);
+
+			assertFalse(result.isNotModified());
+			assertEquals(13, result.bankHolidays().size());
+			assertEquals(8, result.bankHolidays().stream().filter(bh -> bh.isObservedIn(HolidayRegion.ENGLAND)).count());
+			assertEquals(10, result.bankHolidays().stream().filter(bh -> bh.isObservedIn(HolidayRegion.NORTHERN_IRELAND)).count());
+			assertEquals(LocalDate.of(2024, 1, 2), result.bankHolidays().get(1).getDate());
+			assertTrue(result.bankHolidays().get(1).isObservedIn(HolidayRegion.SCOTLAND));
+			assertNotNull(result.validators().etag());
+		}
+	}
+
+	@Test
+	void unchangedYearIsNotModified() throws Exception {
+		try (var server = NagerDateStandInServer.builder().fixtures(fixtures()).start()) {
+			var client = NagerDateClient.create(server.baseUrl());
+			var first = client.fetchPublicHolidays(2024, HolidayValidators.NONE).block(TIMEOUT);
+			var second = client.fetchPublicHolidays(2024, first.validators()).block(TIMEOUT);
+
+			assertTrue(second.isNotModified());
+			assertEquals(1, server.notModifiedCount());
+		}
+	}
+
+	@Test
+	void injectedErrorsAndSlowBodiesReachTheClient() throws Exception {
+		try (var server = NagerDateStandInServer.builder().fixtures(fixtures())
+				.failFirst(1).errorStatus(503).slowBody(256, Duration.ofMillis(2)).start()) {
+			var client = NagerDateClient.create(server.baseUrl());
+
+			var error = assertThrows(WebClientResponseException.class,
+					() -> client.fetchPublicHolidays(2024, HolidayValidators.NONE).block(TIMEOUT));
+			assertEquals(503, error.getStatusCode().value());
+			assertEquals(13, client.fetchPublicHolidays(2024, HolidayValidators.NONE).block(TIMEOUT).bankHolidays().size());
+		}
+	}
+
+	@Test
+	void missingFixtureIsRecordedFromUpstream() throws Exception {
+		try (var upstream = NagerDateStandInServer.builder().fixtures(fixtures()).start();
+				var recorder = NagerDateStandInServer.builder().fixtures(recordings).recordFrom(upstream.baseUrl()).start()) {
+			var result = NagerDateClient.create(recorder.baseUrl()).fetchPublicHolidays(2024, HolidayValidators.NONE).block(TIMEOUT);
+
+			assertEquals(13, result.bankHolidays().size());
+			assertTrue(Files.exists(recordings.resolve("PublicHolidays/2024/GB.json")));
+			assertEquals(1, upstream.requestCount());
+		}
+	}
+
+	@Test
+	void slowResponseTimesOutAndIsTimed() throws Exception {
+		try (var server = NagerDateStandInServer.builder().fixtures(fixtures()).latency(Duration.ofMillis(500)).start();
+				var client = NagerDateClient.create(server.baseUrl(), new HolidayHttpClientSettings(2, 8, Duration.ofSeconds(1),
+						Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ZERO, Duration.ofSeconds(1), Duration.ofMillis(100), true))) {
+			var error = assertThrows(WebClientRequestException.class,
+					() -> client.fetchPublicHolidays(2024, HolidayValidators.NONE).block(TIMEOUT));
+			assertTrue(FetchBankHolidaysTask.isTransient(error));
+
+			var statistics = client.getRequestStatistics();
+			assertEquals(1, statistics.requests());
+			assertEquals(1, statistics.errors());
+			assertTrue(statistics.slowest().toMillis() >= 100);
+		}
+	}
+}
@@ -0,0 +1,324 @@
+/**
+ * <h3>Nager Date Stand-In Server</h3>
+ *
+ * <p>A local HTTP server implementing the /PublicHolidays/{year}/{country} endpoint of the nager
+ * date API, so the fetch path can be tested and measured without the real host. Responses are
+ * replayed from fixture files laid out as PublicHolidays/{year}/{country}.json. If a recording
+ * upstream is configured, requests with no fixture are forwarded to it and the response is saved
+ * as a new fixture. Every response carries an ETag and a matching If-None-Match is answered with
+ * 304 Not Modified.</p>
+ *
+ * <p>Latency, error responses and slow, chunked bodies can be injected to reproduce a poor
+ * network. The server can also be run on its own for load testing with
+ * {@link #main(String[])}.</p>
+ *
+ * @author Stephen
+ * @version 1.0
+ */
+package org.stevie.ddsm.diaries.service.bank;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Nager Date Stand-In Server
+ *
+ * Local replacement for the nager date public holidays endpoint.
+ *
+ */
+final class NagerDateStandInServer implements AutoCloseable {
+
+	/*
+	 * path served, the same as the real API
+	 */
+	private static final String API_PATH = "/api/v3";
+	private static final Pattern HOLIDAYS_PATH = Pattern.compile(API_PATH + "/PublicHolidays/(\\d{4})/([A-Za-z]{2})");
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final Builder settings;
+	private final Random random;
+
+	/*
+	 * counters
+	 */
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicInteger notModified = new AtomicInteger();
+	private final AtomicInteger errors = new AtomicInteger();
+
+	/**
+	 * Builder Class
+	 *
+	 * Settings for the stand-in server
+	 */
+	static final class Builder {
+		private Path fixtures;
+		private String recordFrom;
+		private Duration latency = Duration.ZERO;
+		private int failFirst;
+		private double errorRate;
+		private int errorStatus = 503;
+		private int chunkSize;
+		private Duration chunkDelay = Duration.ZERO;
+		private long seed = 42;
+
+		/**
+		 * @param directory holding PublicHolidays/{year}/{country}.json fixtures
+		 */
+		Builder fixtures(Path fixtures) {
+			this.fixtures = fixtures;
+			return this;
+		}
+
+		/**
+		 * @param base URL to forward requests with no fixture to, the response is saved as a fixture
+		 */
+		Builder recordFrom(String upstreamBaseUrl) {
+			this.recordFrom = upstreamBaseUrl;
+			return this;
+		}
+
+		/**
+		 * @param delay before every response
+		 */
+		Builder latency(Duration latency) {
+			this.latency = latency;
+			return this;
+		}
+
+		/**
+		 * @param number of requests answered with the error status before any succeed
+		 */
+		Builder failFirst(int count) {
+			this.failFirst = count;
+			return this;
+		}
+
+		/**
+		 * @param fraction of requests answered with the error status
+		 */
+		Builder errorRate(double rate) {
+			this.errorRate = rate;
+			return this;
+		}
+
+		/**
+		 * @param status used for injected errors
+		 */
+		Builder errorStatus(int status) {
+			this.errorStatus = status;
+			return this;
+		}
+
+		/**
+		 * @param bytes per chunk of a slow body
+		 * @param delay between chunks
+		 */
+		Builder slowBody(int chunkSize, Duration chunkDelay) {
+			this.chunkSize = chunkSize;
+			this.chunkDelay = chunkDelay;
+			return this;
+		}
+
+		/**
+		 * @param seed for the random error injection
+		 */
+		Builder seed(long seed) {
+			this.seed = seed;
+			return this;
+		}
+
+		/**
+		 * @return started server on a free local port
+		 */
+		NagerDateStandInServer start() throws IOException {
+			if (fixtures == null)
+				throw new IllegalStateException("a fixture directory is required");
+			return new NagerDateStandInServer(this, 0);
+		}
+	}
+
+	/**
+	 * Copy Constructor
+	 *
+	 * @param settings
+	 * @param port to listen on, 0 for any free port
+	 */
+	private NagerDateStandInServer(Builder settings, int port) throws IOException {
+		this.settings = settings;
+		this.random = new Random(settings.seed);
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+		this.server.setExecutor(executor);
+		this.server.createContext(API_PATH, this::handle);
+		this.server.start();
+	}
+
+	static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return base URL to give to the client
+	 */
+	String baseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + API_PATH;
+	}
+
+	int requestCount() {
+		return requests.get();
+	}
+
+	int notModifiedCount() {
+		return notModified.get();
+	}
+
+	int errorCount() {
+		return errors.get();
+	}
+
+	/**
+	 * Handle Method
+	 *
+	 * Answer one request
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			int count = requests.incrementAndGet();
+			sleep(settings.latency);
+
+			var matcher = HOLIDAYS_PATH.matcher(exchange.getRequestURI().getPath());
+			if (!"GET".equals(exchange.getRequestMethod()) || !matcher.matches()) {
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+
+			/*
+			 * injected errors
+			 */
+			boolean fail;
+			synchronized (random) {
+				fail = count <= settings.failFirst || random.nextDouble() < settings.errorRate;
+			}
+			if (fail) {
+				errors.incrementAndGet();
+				exchange.sendResponseHeaders(settings.errorStatus, -1);
+				return;
+			}
+
+			byte[] body = fixture(matcher.group(1), matcher.group(2).toUpperCase());
+			if (body == null) {
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+
+			/*
+			 * conditional request
+			 */
+			var crc = new CRC32();
+			crc.update(body);
+			String etag = "\"" + Long.toHexString(crc.getValue()) + "\"";
+			exchange.getResponseHeaders().set("ETag", etag);
+			if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				notModified.incrementAndGet();
+				exchange.sendResponseHeaders(304, -1);
+				return;
+			}
+
+			exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+			if (settings.chunkSize > 0) {
+				exchange.sendResponseHeaders(200, 0);
+				try (OutputStream out = exchange.getResponseBody()) {
+					for (int offset = 0; offset < body.length; offset += settings.chunkSize) {
+						out.write(body, offset, Math.min(settings.chunkSize, body.length - offset));
+						out.flush();
+						sleep(settings.chunkDelay);
+					}
+				}
+			} else {
+				exchange.sendResponseHeaders(200, body.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fixture Method
+	 *
+	 * Read the fixture for a year and country, recording it from the upstream if it is missing
+	 *
+	 * @return fixture bytes or null if there is no fixture
+	 */
+	private byte[] fixture(String year, String country) throws IOException {
+		Path file = settings.fixtures.resolve("PublicHolidays").resolve(year).resolve(country + ".json");
+		if (Files.exists(file)) return Files.readAllBytes(file);
+		if (settings.recordFrom == null) return null;
+
+		try {
+			var response = HttpClient.newHttpClient().send(
+					HttpRequest.newBuilder(URI.create(settings.recordFrom + "/PublicHolidays/" + year + "/" + country))
+						.header("Accept", "application/json").build(),
+					HttpResponse.BodyHandlers.ofByteArray());
+			if (response.statusCode() != 200) return null;
+			Files.createDirectories(file.getParent());
+			Files.write(file, response.body());
+			return response.body();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	private static void sleep(Duration duration) {
+		if (duration.isZero()) return;
+		try {
+			Thread.sleep(duration);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Main Method
+	 *
+	 * Run the stand-in on its own, for example while load testing the application with
+	 * -Dddsm.holidays.api.base-url=http://127.0.0.1:{port}/api/v3
+	 *
+	 * @param port, fixture directory and optionally the latency in milliseconds
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("usage: NagerDateStandInServer <port> <fixture directory> [latency ms]");
+			return;
+		}
+		var builder = builder().fixtures(Path.of(args[1]));
+		if (args.length > 2) builder.latency(Duration.ofMillis(Long.parseLong(args[2])));
+		var server = new NagerDateStandInServer(builder, Integer.parseInt(args[0]));
+		System.out.println("Serving " + args[1] + " at " + server.baseUrl());
+	}
+}
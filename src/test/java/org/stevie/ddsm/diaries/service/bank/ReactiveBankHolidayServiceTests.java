@@ -0,0 +1,208 @@
+package org.stevie.ddsm.diaries.service.bank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import reactor.core.publisher.Flux;
+
+class ReactiveBankHolidayServiceTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	private static Path fixtures() throws URISyntaxException {
+		return Path.of(ReactiveBankHolidayServiceTests.class.getResource("/nager").toURI());
+	}
+
+	@BeforeEach
+	void setUp() {
+		BankHolidayService.setSourceChain(new HolidaySourceChain(List.of(new MemoryHolidaySource(), new RestHolidaySource())));
+		BankHolidayService.setFailureCache(new BankHolidayFailureCache(Duration.ofSeconds(30), Duration.ofMinutes(10)));
+		BankHolidayCache.setRefreshHandler(null);
+		BankHolidayCache.setDiskStore(null);
+		BankHolidayCache.emptyCache();
+	}
+
+	@AfterEach
+	void tearDown() {
+		BankHolidayCache.emptyCache();
+		FetchBankHolidaysTask.resetClient();
+		FetchBankHolidaysTask.setPolicy(HolidayFetchPolicy.DEFAULT);
+		FetchBankHolidaysTask.setCircuitBreaker(new HolidayCircuitBreaker(5, Duration.ofSeconds(30)));
+		BankHolidayService.setSourceChain(HolidaySourceChain.standard(EnglandWalesHolidayRules.withKnownProclamations()));
+	}
+
+	@Test
+	void concurrentLookupsShareOneFetch() throws Exception {
+		try (var server = NagerDateStandInServer.builder().fixtures(fixtures()).latency(Duration.ofMillis(200)).start(); var client = NagerDateClient.create(server.baseUrl())) {
+			FetchBankHolidaysTask.setClient(client);
+
+			var answers = Flux.range(0, 8)
+					.flatMap(i -> ReactiveBankHolidayService.isBankHoliday(LocalDate.of(2024, 5, 6)))
+					.collectList()
+					.block(TIMEOUT);
+
+			assertEquals(8, answers.stream().filter(Boolean::booleanValue).count());
+			assertEquals(1, server.requestCount());
+			assertEquals(List.of(true, false, true), ReactiveBankHolidayService.areBankHolidays(
+					Flux.just(LocalDate.of(2024, 5, 6), LocalDate.of(2024, 5, 13), LocalDate.of(2024, 12, 25))).collectList().block(TIMEOUT));
+			assertEquals(LocalDate.of(2024, 5, 13), ReactiveBankHolidayService.getNextNonBankHoliday(LocalDate.of(2024, 5, 6)).block(TIMEOUT));
+		}
+	}
+
+	@Test
+	void failedYearIsUnavailable() throws Exception {
+		try (var server = NagerDateStandInServer.builder().fixtures(fixtures()).start(); var client = NagerDateClient.create(server.baseUrl())) {
+			FetchBankHolidaysTask.setClient(client);
+
+			assertThrows(BankHolidaysUnavailableException.class,
+					() -> ReactiveBankHolidayService.isBankHoliday(LocalDate.of(2031, 1, 1)).block(TIMEOUT));
+			assertThrows(BankHolidaysUnavailableException.class,
+					() -> ReactiveBankHolidayService.isBankHoliday(LocalDate.of(2031, 1, 1)).block(TIMEOUT));
+			assertEquals(1, server.requestCount());
+		}
+	}
+
+	@Test
+	void bulkLoadReportsEachYear() throws Exception {
+		try (var server = NagerDateStandInServer.builder().fixtures(fixtures()).latency(Duration.ofMillis(100)).start(); var client = NagerDateClient.create(server.baseUrl())) {
+			FetchBankHolidaysTask.setClient(client);
+
+			var results = ReactiveBankHolidayService.loadYears(2022, 2025, 4).collectList().block(TIMEOUT);
+
+			assertEquals(4, results.size());
+			assertEquals(List.of(2024), results.stream().filter(HolidayLoadResult::loaded).map(HolidayLoadResult::year).toList());
+			assertTrue(results.stream().filter(result -> !result.loaded()).allMatch(result -> result.retryAfter().isPositive()));
+			assertTrue(BankHolidayCache.isInCache(2024));
+			assertEquals(4, server.requestCount());
+		}
+	}
+
+	@Test
+	void notModifiedAfterEvictionFetchesTheYearAgain() throws Exception {
+		try (var server = NagerDateStandInServer.builder().fixtures(fixtures()).latency(Duration.ofMillis(300)).start(); var client = NagerDateClient.create(server.baseUrl())) {
+			FetchBankHolidaysTask.setClient(client);
+			FetchBankHolidaysTask.fetch(2024).block(TIMEOUT);
+
+			/*
+			 * the year leaves the cache while the conditional request is on the wire
+			 */
+			var revalidation = FetchBankHolidaysTask.fetch(2024).toFuture();
+			Thread.sleep(100);
+			BankHolidayCache.emptyCache();
+
+			assertFalse(revalidation.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS).isEmpty());
+			assertEquals(1, server.notModifiedCount());
+			assertEquals(3, server.requestCount());
+			assertTrue(BankHolidayCache.isInCache(2024));
+		}
+	}
+
+	@Test
+	void calculatedYearIsOnlyUsedForEnglandAndWales(@TempDir Path directory) throws Exception {
+		var store = BankHolidayDiskStore.inDirectory(directory);
+		BankHolidayCache.setDiskStore(store);
+		BankHolidayService.setSourceChain(new HolidaySourceChain(List.of(new MemoryHolidaySource(),
+				new RulesHolidaySource(EnglandWalesHolidayRules.withKnownProclamations()), new RestHolidaySource())));
+		try (var server = NagerDateStandInServer.builder().fixtures(fixtures()).start(); var client = NagerDateClient.create(server.baseUrl())) {
+			FetchBankHolidaysTask.setClient(client);
+
+			assertFalse(BankHolidayService.isBankHoliday(LocalDate.of(2024, 1, 2)));
+			assertEquals(0, server.requestCount());
+
+			/*
+			 * the rules do not cover Scotland so the year is fetched
+			 */
+			assertTrue(BankHolidayService.isBankHoliday(LocalDate.of(2024, 1, 2), HolidayRegion.SCOTLAND));
+			assertEquals(1, server.requestCount());
+
+			/*
+			 * a year the REST API cannot supply is unavailable rather than empty outside England and Wales
+			 */
+			assertTrue(BankHolidayService.isBankHoliday(LocalDate.of(2025, 1, 1), HolidayRegion.WALES));
+			assertThrows(BankHolidaysUnavailableException.class, () -> BankHolidayService.getBankHolidaysBetween(
+					LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), HolidayRegion.NORTHERN_IRELAND));
+			assertThrows(BankHolidaysUnavailableException.class,
+					() -> ReactiveBankHolidayService.isBankHoliday(LocalDate.of(2025, 1, 2), HolidayRegion.SCOTLAND).block(TIMEOUT));
+
+			BankHolidayCache.flushDiskWrites();
+			assertTrue(store.load(2024).isPresent());
+			assertTrue(store.load(2025).isEmpty());
+		} finally {
+			BankHolidayCache.setDiskStore(null);
+		}
+	}
+
+	@Test
+	void transientErrorsAreRetried() throws Exception {
+		try (var server = NagerDateStandInServer.builder().fixtures(fixtures()).failFirst(2).start(); var client = NagerDateClient.create(server.baseUrl())) {
+			FetchBankHolidaysTask.setClient(client);
+			FetchBankHolidaysTask.setPolicy(new HolidayFetchPolicy(Duration.ofSeconds(2), 2,
+					Duration.ofMillis(10), Duration.ofMillis(50), 0.5, Duration.ofSeconds(5)));
+			long retriesBefore = ReactiveBankHolidayService.getFetchStatistics().retries();
+
+			assertTrue(ReactiveBankHolidayService.isBankHoliday(LocalDate.of(2024, 5, 6)).block(TIMEOUT));
+			assertEquals(3, server.requestCount());
+			assertEquals(2, ReactiveBankHolidayService.getFetchStatistics().retries() - retriesBefore);
+			assertEquals(HolidayCircuitBreaker.State.CLOSED, FetchBankHolidaysTask.getCircuitBreaker().getState());
+		}
+	}
+
+	@Test
+	void onlyAnExhaustedBudgetCountsAgainstTheBreaker() throws Exception {
+		try (var server = NagerDateStandInServer.builder().fixtures(fixtures()).latency(Duration.ofSeconds(2)).start(); var client = NagerDateClient.create(server.baseUrl())) {
+			FetchBankHolidaysTask.setClient(client);
+			FetchBankHolidaysTask.setPolicy(new HolidayFetchPolicy(Duration.ofMillis(300), 3,
+					Duration.ofMillis(10), Duration.ofMillis(50), 0.5, Duration.ofMillis(500)));
+			FetchBankHolidaysTask.setCircuitBreaker(new HolidayCircuitBreaker(1, Duration.ofMinutes(1)));
+
+			/*
+			 * a caller giving up says nothing about the API
+			 */
+			var abandoned = FetchBankHolidaysTask.fetch(2024).subscribe();
+			Thread.sleep(100);
+			abandoned.dispose();
+			assertEquals(HolidayCircuitBreaker.State.CLOSED, FetchBankHolidaysTask.getCircuitBreaker().getState());
+
+			assertThrows(BankHolidaysUnavailableException.class,
+					() -> ReactiveBankHolidayService.isBankHoliday(LocalDate.of(2024, 5, 6)).block(TIMEOUT));
+			assertEquals(HolidayCircuitBreaker.State.OPEN, FetchBankHolidaysTask.getCircuitBreaker().getState());
+		}
+	}
+
+	@Test
+	void openBreakerSkipsRestApi() throws Exception {
+		try (var server = NagerDateStandInServer.builder().fixtures(fixtures()).errorRate(1.0).start(); var client = NagerDateClient.create(server.baseUrl())) {
+			FetchBankHolidaysTask.setClient(client);
+			FetchBankHolidaysTask.setPolicy(new HolidayFetchPolicy(Duration.ofSeconds(2), 0,
+					Duration.ofMillis(10), Duration.ofMillis(50), 0.5, Duration.ofSeconds(5)));
+			FetchBankHolidaysTask.setCircuitBreaker(new HolidayCircuitBreaker(1, Duration.ofMinutes(1)));
+
+			assertThrows(BankHolidaysUnavailableException.class,
+					() -> ReactiveBankHolidayService.isBankHoliday(LocalDate.of(2024, 5, 6)).block(TIMEOUT));
+			assertEquals(HolidayCircuitBreaker.State.OPEN, FetchBankHolidaysTask.getCircuitBreaker().getState());
+
+			/*
+			 * a different year goes nowhere near the server and is not negatively cached
+			 */
+			assertThrows(BankHolidaysUnavailableException.class,
+					() -> ReactiveBankHolidayService.isBankHoliday(LocalDate.of(2025, 5, 5)).block(TIMEOUT));
+			assertEquals(1, server.requestCount());
+			assertFalse(BankHolidayService.getFailureCache().retryAfter(2025).isPresent());
+			assertEquals(1, ReactiveBankHolidayService.getFetchStatistics().breakerOpened());
+		}
+	}
+}
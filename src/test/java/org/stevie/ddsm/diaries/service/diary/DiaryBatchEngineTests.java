@@ -0,0 +1,74 @@
+package org.stevie.ddsm.diaries.service.diary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayCache;
+import org.stevie.ddsm.diaries.service.bank.EnglandWalesHolidayRules;
+
+import reactor.core.publisher.Flux;
+
+class DiaryBatchEngineTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+	@TempDir
+	Path directory;
+
+	@BeforeEach
+	void setUp() {
+		BankHolidayCache.setDiskStore(null);
+		BankHolidayCache.emptyCache();
+		var rules = EnglandWalesHolidayRules.withKnownProclamations();
+		BankHolidayCache.putBankHolidaysInCache(rules.bankHolidaysFor(2026), 2026);
+		BankHolidayCache.putBankHolidaysInCache(rules.bankHolidaysFor(2027), 2027);
+	}
+
+	@AfterEach
+	void tearDown() {
+		BankHolidayCache.emptyCache();
+	}
+
+	@Test
+	void everyConfigurationIsWritten() {
+		var lines = new ArrayList<String>();
+		lines.add("# name, january date, edition, compiler 1, compiler 2");
+		for (int i = 0; i < 200; i++) {
+			lines.add(String.format("Edition %d, %s, %d, Alice %d, Bob %d", i, i % 2 == 0 ? "2026-01-05" : "2027-01-04", i * 12, i, i));
+		}
+		lines.add("");
+		lines.add("Broken, 2026-13-01, 1, Alice, Bob");
+
+		var out = new StringWriter();
+		var report = DiaryBatchEngine.run(Flux.fromIterable(lines), out, 16).block(TIMEOUT);
+
+		assertEquals(200, report.generated());
+		assertEquals(1, report.failed());
+		assertTrue(report.maxLatency().compareTo(report.medianLatency()) >= 0);
+		var written = out.toString().lines().toList();
+		assertEquals(DiaryBatchEngine.HEADER, written.get(0));
+		assertEquals(1 + 200 * 12, written.size());
+		assertTrue(written.contains("Edition 3,2027,DECEMBER,2027-12-06,47,Bob 3,2027-12-14,2027-12-15,2027-12-16"));
+	}
+
+	@Test
+	void batchFileIsReadAndWritten() throws Exception {
+		var input = Files.writeString(directory.resolve("rotas.txt"), "Talking News, 2026-01-05, 301, Alice, Bob\n");
+		var output = directory.resolve("rotas.csv");
+
+		var report = DiaryBatchEngine.runFile(input, output, 4);
+
+		assertEquals(1, report.generated());
+		assertEquals(13, Files.readAllLines(output).size());
+	}
+}
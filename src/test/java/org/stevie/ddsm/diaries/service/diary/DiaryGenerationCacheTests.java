@@ -0,0 +1,116 @@
+package org.stevie.ddsm.diaries.service.diary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.stevie.ddsm.diaries.domain.DiarySettings;
+import org.stevie.ddsm.diaries.service.bank.BankHoliday;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayCache;
+import org.stevie.ddsm.diaries.service.bank.EnglandWalesHolidayRules;
+
+class DiaryGenerationCacheTests {
+
+	private static final DiarySettings SETTINGS = new DiarySettings(LocalDate.of(2026, 1, 5), 301, "Alice", "Bob");
+
+	@BeforeEach
+	void setUp() {
+		BankHolidayCache.setDiskStore(null);
+		BankHolidayCache.emptyCache();
+		BankHolidayCache.putBankHolidaysInCache(EnglandWalesHolidayRules.withKnownProclamations().bankHolidaysFor(2026), 2026);
+	}
+
+	@AfterEach
+	void tearDown() {
+		BankHolidayCache.emptyCache();
+	}
+
+	@Test
+	void repeatGenerationIsALookup() {
+		var cache = new DiaryGenerationCache(4);
+
+		var first = cache.getOrGenerate(SETTINGS);
+		var second = cache.getOrGenerate(new DiarySettings(LocalDate.of(2026, 1, 5), 301, "Alice", "Bob"));
+
+		assertSame(first, second);
+		var statistics = cache.getStatistics();
+		assertEquals(1, statistics.hits());
+		assertEquals(1, statistics.misses());
+		assertEquals(0.5, statistics.hitRate());
+	}
+
+	@Test
+	void yearLoadedWhileGeneratingIsALookupNextTime() {
+		BankHolidayCache.emptyCache();
+		var cache = new DiaryGenerationCache(4);
+
+		var first = cache.getOrGenerate(SETTINGS);
+		var second = cache.getOrGenerate(SETTINGS);
+
+		assertSame(first, second);
+		assertEquals(1, cache.getStatistics().hits());
+		assertEquals(1, cache.getStatistics().misses());
+	}
+
+	@Test
+	void holidayChangeIsNotServedFromCache() {
+		var cache = new DiaryGenerationCache(4);
+		var before = cache.getOrGenerate(SETTINGS);
+
+		var holidays = new ArrayList<>(EnglandWalesHolidayRules.withKnownProclamations().bankHolidaysFor(2026));
+		holidays.add(new BankHoliday.Builder().date(LocalDate.of(2026, 3, 2)).localName("Extra").name("Extra")
+				.counties(new String[] {"GB-ENG"}).build());
+		BankHolidayCache.putBankHolidaysInCache(holidays, 2026);
+		var after = cache.getOrGenerate(SETTINGS);
+
+		assertNotSame(before, after);
+		assertEquals(LocalDate.of(2026, 3, 9), after.recording().getEntries().get(2).recordingDate());
+		assertEquals(2, cache.getStatistics().misses());
+	}
+
+	@Test
+	void regeneratingACopyLeavesTheCachedDiariesAlone() {
+		var cache = new DiaryGenerationCache(4);
+		var cached = cache.getOrGenerate(SETTINGS);
+		var recording = cached.recording().copy();
+		var duplication = cached.duplication().copy();
+
+		var holidays = new ArrayList<>(EnglandWalesHolidayRules.withKnownProclamations().bankHolidaysFor(2026));
+		holidays.add(new BankHoliday.Builder().date(LocalDate.of(2026, 3, 2)).localName("Extra").name("Extra")
+				.counties(new String[] {"GB-ENG"}).build());
+		BankHolidayCache.putBankHolidaysInCache(holidays, 2026);
+		var changedDates = List.of(LocalDate.of(2026, 3, 2));
+
+		assertEquals(1, recording.regenerate(changedDates).entries().size());
+		assertEquals(1, duplication.regenerate(changedDates).entries().size());
+		assertEquals(LocalDate.of(2026, 3, 9), recording.getEntries().get(2).recordingDate());
+		assertEquals(LocalDate.of(2026, 3, 17), duplication.getEntries().get(2).collectDate());
+		assertEquals(LocalDate.of(2026, 3, 2), cached.recording().getEntries().get(2).recordingDate());
+		assertEquals(LocalDate.of(2026, 3, 10), cached.duplication().getEntries().get(2).collectDate());
+	}
+
+	@Test
+	void leastRecentlyUsedIsEvicted() {
+		var cache = new DiaryGenerationCache(2);
+		var first = cache.getOrGenerate(SETTINGS);
+		cache.getOrGenerate(new DiarySettings(LocalDate.of(2026, 1, 5), 302, "Alice", "Bob"));
+
+		/*
+		 * touch the first entry so the second is the least recently used
+		 */
+		assertSame(first, cache.getOrGenerate(SETTINGS));
+		cache.getOrGenerate(new DiarySettings(LocalDate.of(2026, 1, 5), 303, "Alice", "Bob"));
+
+		assertSame(first, cache.getOrGenerate(SETTINGS));
+		var statistics = cache.getStatistics();
+		assertEquals(1, statistics.evictions());
+		assertEquals(2, statistics.size());
+	}
+}
@@ -0,0 +1,185 @@
+package org.stevie.ddsm.diaries.service.diary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.stevie.ddsm.diaries.domain.DiarySettings;
+import org.stevie.ddsm.diaries.domain.DuplicationDiaryEntry;
+import org.stevie.ddsm.diaries.domain.RecordingDiaryEntry;
+import org.stevie.ddsm.diaries.service.bank.BankHoliday;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayCache;
+import org.stevie.ddsm.diaries.service.bank.BankHolidayChange;
+import org.stevie.ddsm.diaries.service.bank.EnglandWalesHolidayRules;
+
+class DiaryGenerationServiceTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	@BeforeEach
+	void setUp() {
+		BankHolidayCache.setDiskStore(null);
+		BankHolidayCache.emptyCache();
+		var rules = EnglandWalesHolidayRules.withKnownProclamations();
+		for (int year = 2026; year <= 2029; year++) {
+			BankHolidayCache.putBankHolidaysInCache(rules.bankHolidaysFor(year), year);
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		BankHolidayCache.emptyCache();
+	}
+
+	@Test
+	void editionsAndCompilersCarryIntoEachJanuary() {
+		var first = new DiarySettings(LocalDate.of(2026, 1, 5), 301, "Alice", "Bob");
+
+		var years = DiaryGenerationService.generateYears(first, 2029, 4)
+				.collectSortedList(Comparator.comparingInt(GeneratedDiaries::year))
+				.block(TIMEOUT);
+
+		assertEquals(List.of(2026, 2027, 2028, 2029), years.stream().map(GeneratedDiaries::year).toList());
+		for (int i = 0; i < years.size(); i++) {
+			var entries = years.get(i).recording().getEntries();
+			assertEquals(12, entries.size());
+			assertEquals(301 + 12 * i, entries.get(0).edition());
+			assertEquals("Alice", entries.get(0).compiler());
+			assertEquals("Bob", entries.get(11).compiler());
+			assertEquals(12, years.get(i).duplication().getEntries().size());
+		}
+
+		/*
+		 * 1 January 2029 is a Monday and a bank holiday
+		 */
+		var january2029 = years.get(3).recording().getEntries().get(0);
+		assertEquals(Month.JANUARY, january2029.month());
+		assertEquals(LocalDate.of(2029, 1, 8), january2029.recordingDate());
+	}
+
+	@Test
+	void rangeMustNotRunBackwards() {
+		var first = new DiarySettings(LocalDate.of(2026, 1, 5), 301, "Alice", "Bob");
+		assertThrows(IllegalArgumentException.class, () -> DiaryGenerationService.generateYears(first, 2025, 4));
+		assertThrows(IllegalArgumentException.class, () -> first.forYear(2025));
+	}
+
+	@Test
+	void holidayChangeRegeneratesOnlyAffectedMonths() {
+		var diaries = DiaryGenerationService.generate(new DiarySettings(LocalDate.of(2026, 1, 5), 301, "Alice", "Bob"));
+		var before = diaries.recording().getEntries();
+
+		/*
+		 * make the first Monday in March a bank holiday
+		 */
+		var changes = new ArrayList<BankHolidayChange>();
+		Consumer<BankHolidayChange> listener = changes::add;
+		BankHolidayCache.addChangeListener(listener);
+		try {
+			var holidays = new ArrayList<>(EnglandWalesHolidayRules.withKnownProclamations().bankHolidaysFor(2026));
+			holidays.add(new BankHoliday.Builder().date(LocalDate.of(2026, 3, 2)).localName("Extra").name("Extra")
+					.counties(new String[] {"GB-ENG"}).build());
+			long version = BankHolidayCache.getVersion();
+			BankHolidayCache.putBankHolidaysInCache(holidays, 2026);
+			BankHolidayCache.putBankHolidaysInCache(holidays, 2026);
+
+			assertEquals(1, changes.size());
+			assertEquals(version + 1, changes.get(0).version());
+			assertEquals(List.of(LocalDate.of(2026, 3, 2)), changes.get(0).changedDates());
+		} finally {
+			BankHolidayCache.removeChangeListener(listener);
+		}
+
+		var duplicationChanges = diaries.duplication().regenerate(changes.get(0).changedDates());
+		var recordingAfter = diaries.recording().getEntries();
+
+		assertEquals(List.of(Month.MARCH), duplicationChanges.entries().stream().map(DuplicationDiaryEntry::month).toList());
+		assertEquals(LocalDate.of(2026, 3, 17), duplicationChanges.entries().get(0).collectDate());
+		assertEquals(new RecordingDiaryEntry(Month.MARCH, LocalDate.of(2026, 3, 9), before.get(2).edition(), before.get(2).compiler()),
+				recordingAfter.get(2));
+		for (int month = 0; month < 12; month++) {
+			if (month != 2) assertEquals(before.get(month), recordingAfter.get(month));
+		}
+		assertTrue(diaries.recording().regenerate(changes.get(0).changedDates()).isEmpty());
+	}
+
+	@Test
+	void resultsAreImmutableViews() {
+		var diaries = DiaryGenerationService.generate(new DiarySettings(LocalDate.of(2026, 1, 5), 301, "Alice", "Bob"));
+		var recording = diaries.recording().getResult();
+		var duplication = diaries.duplication().getResult();
+
+		assertSame(recording.entries(), diaries.recording().getEntries());
+		assertThrows(UnsupportedOperationException.class, () -> diaries.recording().getEntries().clear());
+		assertEquals(recording.entry(2), diaries.recording().getEntries().get(2));
+		assertEquals(LocalDate.of(2026, 3, 2).toEpochDay(), recording.recordingEpochDay(2));
+		assertEquals(303, recording.edition(2));
+		assertEquals(LocalDate.of(2026, 3, 10).toEpochDay(), duplication.collectEpochDay(2));
+		assertEquals(new DuplicationDiaryEntry(Month.MARCH, LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 11), LocalDate.of(2026, 3, 12)),
+				diaries.duplication().getEntries().get(2));
+
+		/*
+		 * regenerating replaces the results and leaves the earlier ones as they were
+		 */
+		var holidays = new ArrayList<>(EnglandWalesHolidayRules.withKnownProclamations().bankHolidaysFor(2026));
+		holidays.add(new BankHoliday.Builder().date(LocalDate.of(2026, 3, 2)).localName("Extra").name("Extra")
+				.counties(new String[] {"GB-ENG"}).build());
+		BankHolidayCache.putBankHolidaysInCache(holidays, 2026);
+		diaries.duplication().regenerate(List.of(LocalDate.of(2026, 3, 2)));
+
+		assertEquals(LocalDate.of(2026, 3, 2), recording.recordingDate(2));
+		assertEquals(LocalDate.of(2026, 3, 9), diaries.recording().getResult().recordingDate(2));
+		assertEquals(LocalDate.of(2026, 3, 17).toEpochDay(), diaries.duplication().getResult().collectEpochDay(2));
+	}
+
+	@Test
+	void editionsAreTheSameEveryTimeTheDiaryIsGenerated() {
+		var recording = DiaryGenerationService.generate(new DiarySettings(LocalDate.of(2026, 1, 5), 301, "Alice", "Bob")).recording();
+		var first = recording.getEntries().stream().map(RecordingDiaryEntry::edition).toList();
+		var copy = recording.copy();
+
+		recording.generateDiary();
+		copy.generateDiary();
+
+		assertEquals(301, first.get(0));
+		assertEquals(first, recording.getEntries().stream().map(RecordingDiaryEntry::edition).toList());
+		assertEquals(first, copy.getEntries().stream().map(RecordingDiaryEntry::edition).toList());
+	}
+
+	@Test
+	void resolvedMonthsAreSwappedInWithTheirDependencies() {
+		var diaries = DiaryGenerationService.generate(new DiarySettings(LocalDate.of(2026, 1, 5), 301, "Alice", "Bob"));
+		var recording = diaries.recording();
+		var before = recording.getResult();
+
+		var holidays = new ArrayList<>(EnglandWalesHolidayRules.withKnownProclamations().bankHolidaysFor(2026));
+		holidays.add(new BankHoliday.Builder().date(LocalDate.of(2026, 3, 2)).localName("Extra").name("Extra")
+				.counties(new String[] {"GB-ENG"}).build());
+		BankHolidayCache.putBankHolidaysInCache(holidays, 2026);
+
+		/*
+		 * resolving leaves the diary alone until the months are applied
+		 */
+		var resolved = diaries.duplication().resolve(List.of(LocalDate.of(2026, 3, 2)));
+		assertSame(before, recording.getResult());
+		assertEquals(List.of(LocalDate.of(2026, 3, 2)), recording.getHolidayDependencies(Month.MARCH));
+
+		var changes = diaries.duplication().apply(resolved);
+		assertEquals(List.of(Month.MARCH), changes.entries().stream().map(DuplicationDiaryEntry::month).toList());
+		assertEquals(List.of(LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 9)), recording.getHolidayDependencies(Month.MARCH));
+		assertEquals(recording.getHolidayDependencies(Month.MARCH), recording.getResult().holidayDependencies(Month.MARCH));
+		assertEquals(List.of(LocalDate.of(2026, 3, 2)), before.holidayDependencies(Month.MARCH));
+	}
+}